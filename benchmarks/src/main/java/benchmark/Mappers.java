@@ -0,0 +1,47 @@
+package benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+import java.lang.reflect.Type;
+
+/**
+ * The two mapping paths under comparison.
+ */
+final class Mappers {
+
+    /**
+     * Shared mapper with bytecode-generated accessors; readers and writers derived from it are reused.
+     */
+    static final ObjectMapper TUNED = JsonMapper.builder()
+            .addModule(new BlackbirdModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private Mappers() {
+    }
+
+    /**
+     * What {@code .body(pojo)} does per request: RestAssured asks its factory for a fresh mapper.
+     */
+    static ObjectMapper restAssured(Type type) {
+        return RestAssuredConfig.config().getObjectMapperConfig().jackson2ObjectMapperFactory().create(type, "UTF-8");
+    }
+
+    /**
+     * A detached response, so {@code as(...)} and {@code jsonPath()} run without any network I/O.
+     */
+    static Response response(String json) {
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(ContentType.JSON)
+                .setBody(json)
+                .build();
+    }
+}
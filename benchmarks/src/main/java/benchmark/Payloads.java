@@ -0,0 +1,61 @@
+package benchmark;
+
+import POJO.Category;
+import POJO.Product;
+import POJO.RequestLogin;
+import POJO.ResponseLogin;
+import POJO.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic payloads shaped like the Platzi Fake Store responses.
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    static Category category(int id) {
+        Category category = new Category("Category " + id, "https://i.imgur.com/category" + id + ".jpeg");
+        category.setId(id);
+        category.setSlug("category-" + id);
+        return category;
+    }
+
+    static Product product(int id, int images) {
+        List<String> urls = IntStream.range(0, images)
+                .mapToObj(i -> "https://i.imgur.com/product" + id + "-" + i + ".jpeg")
+                .toList();
+        Product product = new Product("Product " + id, 10 + id % 990, "Description of product " + id
+                + " with enough text to resemble the real catalog entries.", 1 + id % 5, urls);
+        product.setSlug("product-" + id);
+        product.setCategory(category(1 + id % 5));
+        return product;
+    }
+
+    static List<Product> products(int size) {
+        List<Product> products = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            products.add(product(id, 3));
+        }
+        return products;
+    }
+
+    static User user() {
+        return new User("john@mail.com", "changeme", "Jhon", "https://i.imgur.com/LDOO4Qs.jpg");
+    }
+
+    static RequestLogin requestLogin() {
+        return new RequestLogin("john@mail.com", "changeme");
+    }
+
+    static ResponseLogin responseLogin() {
+        ResponseLogin login = new ResponseLogin();
+        login.setAccess_token("eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOjEsImlhdCI6MTcwMDAwMDAwMCwiZXhwIjoxNzAxNzI4MDAwfQ.signature");
+        login.setRefresh_token("eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOjEsImlhdCI6MTcwMDAwMDAwMCwiZXhwIjoxNzAwMDM2MDAwfQ.signature");
+        return login;
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import POJO.Category;
+import POJO.RequestLogin;
+import POJO.ResponseLogin;
+import POJO.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of the small request/response bodies: {@link User}, {@link Category},
+ * {@link RequestLogin} and {@link ResponseLogin}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PojoBenchmark {
+
+    @Param({"User", "Category", "RequestLogin", "ResponseLogin"})
+    public String pojo;
+
+    private Object value;
+    private Class<?> type;
+    private String json;
+    private Response response;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        value = switch (pojo) {
+            case "User" -> Payloads.user();
+            case "Category" -> Payloads.category(1);
+            case "RequestLogin" -> Payloads.requestLogin();
+            case "ResponseLogin" -> Payloads.responseLogin();
+            default -> throw new IllegalArgumentException("Unknown POJO " + pojo);
+        };
+        type = value.getClass();
+        writer = Mappers.TUNED.writerFor(type);
+        reader = Mappers.TUNED.readerFor(type);
+        json = writer.writeValueAsString(value);
+        response = Mappers.response(json);
+    }
+
+    @Benchmark
+    public String serializeRestAssured() throws JsonProcessingException {
+        return Mappers.restAssured(type).writeValueAsString(value);
+    }
+
+    @Benchmark
+    public String serializeTunedJackson() throws JsonProcessingException {
+        return writer.writeValueAsString(value);
+    }
+
+    @Benchmark
+    public Object deserializeRestAssuredAs() {
+        return response.as(type);
+    }
+
+    @Benchmark
+    public Object deserializeRestAssuredJsonPath() {
+        return JsonPath.from(json).getObject("", type);
+    }
+
+    @Benchmark
+    public Object deserializeTunedJackson() throws JsonProcessingException {
+        return reader.readValue(json);
+    }
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import POJO.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single {@link Product} round trip, from one image to a thousand.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductBenchmark {
+
+    @Param({"1", "1000"})
+    public int images;
+
+    private Product product;
+    private String json;
+    private Response response;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        product = Payloads.product(1, images);
+        writer = Mappers.TUNED.writerFor(Product.class);
+        reader = Mappers.TUNED.readerFor(Product.class);
+        json = writer.writeValueAsString(product);
+        response = Mappers.response(json);
+    }
+
+    @Benchmark
+    public String serializeRestAssured() throws JsonProcessingException {
+        return Mappers.restAssured(Product.class).writeValueAsString(product);
+    }
+
+    @Benchmark
+    public String serializeTunedJackson() throws JsonProcessingException {
+        return writer.writeValueAsString(product);
+    }
+
+    @Benchmark
+    public Product deserializeRestAssuredAs() {
+        return response.as(Product.class);
+    }
+
+    @Benchmark
+    public Product deserializeRestAssuredJsonPath() {
+        return JsonPath.from(json).getObject("", Product.class);
+    }
+
+    @Benchmark
+    public Product deserializeTunedJackson() throws JsonProcessingException {
+        return reader.readValue(json);
+    }
+}
@@ -0,0 +1,55 @@
+package benchmark;
+
+import POJO.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.restassured.common.mapper.TypeRef;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /products} listings of 10 to 100k entries, as read by
+ * {@code jsonPath().getList("", Product.class)} in the smoke and End-to-End tests.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ProductListBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private String json;
+    private Response response;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        json = Mappers.TUNED.writeValueAsString(Payloads.products(size));
+        response = Mappers.response(json);
+        reader = Mappers.TUNED.readerForListOf(Product.class);
+    }
+
+    @Benchmark
+    public List<Product> restAssuredJsonPathGetList() {
+        return JsonPath.from(json).getList("", Product.class);
+    }
+
+    @Benchmark
+    public List<Product> restAssuredAs() {
+        return response.as(new TypeRef<>() {
+        });
+    }
+
+    @Benchmark
+    public List<Product> tunedJackson() throws JsonProcessingException {
+        return reader.readValue(json);
+    }
+}
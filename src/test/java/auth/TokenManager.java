@@ -0,0 +1,199 @@
+package auth;
+
+import POJO.RequestLogin;
+import POJO.ResponseLogin;
+import base.Config;
+import client.SuiteClient;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Suite-wide cache of tokens per credential.
+ * <ul>
+ *     <li>A credential logs in once. Later callers reuse its access token until it is close to expiry.</li>
+ *     <li>Once {@code auth.renewAfter} (default 0.8) of the token's lifetime has passed, the pair is renewed in
+ *     the background through {@code /auth/refresh-token}. Login is used only when the refresh token has expired
+ *     or is rejected.</li>
+ *     <li>Renewals are single-flight: concurrent callers that need one share the same request. A background
+ *     renewal that fails is counted, and the token is renewed again when a caller next needs it.</li>
+ *     <li>{@link #forget} drops a credential whose user was deleted.</li>
+ * </ul>
+ */
+public final class TokenManager {
+    private static final TokenManager SHARED = new TokenManager(Clock.systemUTC());
+
+    private final Map<Credential, Session> sessions = new ConcurrentHashMap<>();
+    private final Clock clock;
+    private final Duration skew = Duration.ofSeconds(Config.longValue("auth.expirySkewSeconds", 30));
+    private final double renewAfter = Config.doubleValue("auth.renewAfter", 0.8);
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder logins = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failedRenewals = new LongAdder();
+    private final AtomicReference<Throwable> lastRenewalFailure = new AtomicReference<>();
+
+    private TokenManager(Clock clock) {
+        this.clock = clock;
+    }
+
+    public static TokenManager shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns a valid access token for the credential, logging in or refreshing only when needed.
+     */
+    public String accessToken(RequestLogin login) {
+        return session(login).accessToken();
+    }
+
+    /**
+     * Filter that sends {@code Authorization: Bearer <token>} for the credential, unless the request already
+     * carries an Authorization header. A 401 drops the cached pair so the next call logs in again.
+     */
+    public Filter bearer(RequestLogin login) {
+        Session session = session(login);
+        return (request, response, context) -> {
+            if (!request.getHeaders().hasHeaderWithName("Authorization")) {
+                request.header("Authorization", "Bearer " + session.accessToken());
+            }
+            Response result = context.next(request, response);
+            if (result.getStatusCode() == 401) {
+                session.tokens = null;
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Seeds the cache with tokens a test obtained from its own login call.
+     */
+    public void register(RequestLogin login, ResponseLogin tokens) {
+        session(login).tokens = Tokens.from(tokens, clock.instant());
+    }
+
+    /**
+     * Renews the credential's tokens now (through the refresh token when possible) and returns the new pair.
+     */
+    public Tokens renew(RequestLogin login) {
+        return session(login).renew();
+    }
+
+    /**
+     * Drops the credential's cached tokens, e.g. once its user has been deleted.
+     */
+    public void forget(RequestLogin login) {
+        sessions.remove(new Credential(login.email, login.password));
+    }
+
+    public String summary() {
+        Throwable failure = lastRenewalFailure.get();
+        return String.format("Token manager: %d credentials, %d cached token uses, %d logins, %d refreshes, %d failed background renewals%s",
+                sessions.size(), reused.sum(), logins.sum(), refreshes.sum(), failedRenewals.sum(),
+                failure == null ? "" : " (last: " + failure + ")");
+    }
+
+    private Session session(RequestLogin login) {
+        return sessions.computeIfAbsent(new Credential(login.email, login.password), Session::new);
+    }
+
+    private record Credential(String email, String password) {
+    }
+
+    private final class Session {
+        private final Credential credential;
+        private final AtomicReference<CompletableFuture<Tokens>> inFlight = new AtomicReference<>();
+        private volatile Tokens tokens;
+
+        Session(Credential credential) {
+            this.credential = credential;
+        }
+
+        String accessToken() {
+            Tokens current = tokens;
+            Instant now = clock.instant();
+            if (current != null && current.usable(now, skew)) {
+                reused.increment();
+                if (current.renewalDue(now, renewAfter) && inFlight.get() == null) {
+                    Thread.startVirtualThread(this::renewInBackground);
+                }
+                return current.accessToken();
+            }
+            return renew().accessToken();
+        }
+
+        Tokens renew() {
+            CompletableFuture<Tokens> mine = new CompletableFuture<>();
+            CompletableFuture<Tokens> running = inFlight.compareAndExchange(null, mine);
+            if (running != null) {
+                return await(running);
+            }
+            try {
+                Tokens renewed = fetch(tokens);
+                tokens = renewed;
+                mine.complete(renewed);
+            } catch (Throwable e) {
+                // Whatever fetch throws, callers already waiting on this renewal must get an outcome.
+                mine.completeExceptionally(e);
+            } finally {
+                inFlight.set(null);
+            }
+            return await(mine);
+        }
+
+        private void renewInBackground() {
+            try {
+                renew();
+            } catch (Throwable e) {
+                failedRenewals.increment();
+                lastRenewalFailure.set(e);
+            }
+        }
+
+        private Tokens fetch(Tokens current) {
+            if (current != null && current.refreshable(clock.instant())) {
+                Response response = RestAssured.given(SuiteClient.spec())
+                        .contentType(ContentType.JSON)
+                        .body(Map.of("refreshToken", current.refreshToken()))
+                        .post("/auth/refresh-token");
+                if (response.getStatusCode() == 201) {
+                    refreshes.increment();
+                    return Tokens.from(response.as(ResponseLogin.class), clock.instant());
+                }
+            }
+            Response response = RestAssured.given(SuiteClient.spec())
+                    .contentType(ContentType.JSON)
+                    .body(new RequestLogin(credential.email(), credential.password()))
+                    .post("/auth/login");
+            if (response.getStatusCode() != 201) {
+                throw new IllegalStateException("Login as " + credential.email() + " returned " + response.getStatusCode()
+                        + ": " + response.asString());
+            }
+            logins.increment();
+            return Tokens.from(response.as(ResponseLogin.class), clock.instant());
+        }
+
+        private Tokens await(CompletableFuture<Tokens> renewal) {
+            try {
+                return renewal.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package auth;
+
+import POJO.ResponseLogin;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * An access/refresh token pair with the lifetimes decoded from their JWT claims. The claims are
+ * only read, not verified; the client just needs to know when to renew.
+ */
+public record Tokens(String accessToken, String refreshToken, Instant issuedAt, Instant accessExpiresAt,
+                     Instant refreshExpiresAt) {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static Tokens from(ResponseLogin login, Instant now) {
+        JsonNode access = claims(login.getAccess_token());
+        JsonNode refresh = claims(login.getRefresh_token());
+        return new Tokens(login.getAccess_token(), login.getRefresh_token(),
+                access.has("iat") ? Instant.ofEpochSecond(access.get("iat").asLong()) : now,
+                access.has("exp") ? Instant.ofEpochSecond(access.get("exp").asLong()) : Instant.MAX,
+                refresh.has("exp") ? Instant.ofEpochSecond(refresh.get("exp").asLong()) : Instant.MAX);
+    }
+
+    /**
+     * The access token can still be sent: it expires more than {@code skew} from now.
+     */
+    public boolean usable(Instant now, Duration skew) {
+        return now.isBefore(accessExpiresAt.minus(skew));
+    }
+
+    /**
+     * {@code fraction} of the access token's lifetime has passed, so a renewal should start in the background.
+     */
+    public boolean renewalDue(Instant now, double fraction) {
+        if (accessExpiresAt.equals(Instant.MAX)) {
+            return false;
+        }
+        long lifetime = Duration.between(issuedAt, accessExpiresAt).toMillis();
+        return now.isAfter(issuedAt.plusMillis((long) (lifetime * fraction)));
+    }
+
+    public boolean refreshable(Instant now) {
+        return refreshToken != null && now.isBefore(refreshExpiresAt);
+    }
+
+    private static JsonNode claims(String token) {
+        String[] parts = token == null ? new String[0] : token.split("\\.");
+        if (parts.length < 2) {
+            return MAPPER.createObjectNode();
+        }
+        try {
+            return MAPPER.readTree(Base64.getUrlDecoder().decode(parts[1]));
+        } catch (IOException | IllegalArgumentException e) {
+            return MAPPER.createObjectNode();
+        }
+    }
+}
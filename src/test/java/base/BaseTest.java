@@ -1,15 +1,63 @@
 package base;
 
-import io.restassured.builder.RequestSpecBuilder;
+import auth.TokenManager;
+import client.SuiteClient;
+import context.ScenarioContext;
+import fixture.Fixtures;
+import impact.TestImpact;
 import io.restassured.specification.RequestSpecification;
-import org.testng.annotations.BeforeMethod;
+import logging.ExchangeLog;
+import logging.ExchangeLogListener;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Listeners;
+import server.FakeStoreServer;
+import trend.TrendReport;
 
+@Listeners({ExchangeLogListener.class, TestImpact.class})
 public class BaseTest {
-    protected RequestSpecification Spec;
-    @BeforeMethod
-    public void setUp(){
-        Spec = new RequestSpecBuilder().
-                setBaseUri("https://api.escuelajs.co/api/v1").
-                build();
+    protected final RequestSpecification Spec = SuiteClient.spec();
+    protected final ScenarioContext scenario = new ScenarioContext();
+
+    @BeforeSuite(alwaysRun = true)
+    public void warmUpClient() {
+        SuiteClient.get();
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void tearDownSuite() {
+        Fixtures.shutdown();
+        System.out.println(TokenManager.shared().summary());
+        System.out.println(SuiteClient.get().pool().summary());
+        if (SuiteClient.get().pool().resilience() != null) {
+            System.out.println(SuiteClient.get().pool().resilience().summary());
+        }
+        System.out.println(SuiteClient.get().async().summary());
+        if (SuiteClient.get().cache() != null) {
+            System.out.println(SuiteClient.get().cache().summary());
+        }
+        if (SuiteClient.get().schemaFilter() != null) {
+            System.out.println(SuiteClient.get().schemaFilter().summary());
+        }
+        if (SuiteClient.get().traffic() != null) {
+            System.out.println(SuiteClient.get().traffic().summary());
+        }
+        if (SuiteClient.get().metrics() != null) {
+            // Written before shutdown, while the pool gauges can still be read.
+            System.out.println(SuiteClient.get().metrics().summary() + ", written to " + SuiteClient.get().metrics().export());
+        }
+        SuiteClient.shutdown();
+        ExchangeLog.shared().flush();
+        System.out.println(ExchangeLog.shared().summary());
+        if (Boolean.getBoolean("trend.enabled")) {
+            TrendReport trend = TrendReport.update();
+            System.out.println(trend.summary());
+            if (Boolean.getBoolean("trend.failOnRegression") && !trend.regressions().isEmpty()) {
+                throw new AssertionError(trend.summary());
+            }
+        }
+        if (Config.isLocal()) {
+            FakeStoreServer.stopShared();
+        }
     }
 }
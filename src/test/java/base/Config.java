@@ -0,0 +1,72 @@
+package base;
+
+import server.FakeStoreServer;
+
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Suite settings read from system properties, e.g. {@code mvn test -Dapi.target=local}.
+ */
+public final class Config {
+    public static final String REMOTE_BASE_URI = "https://api.escuelajs.co/api/v1";
+
+    private Config() {
+    }
+
+    public static boolean isLocal() {
+        return "local".equalsIgnoreCase(System.getProperty("api.target", "remote"));
+    }
+
+    /**
+     * Base URI of the API under test: the embedded stand-in server when {@code api.target=local},
+     * otherwise {@code api.baseUri} or the public Platzi Fake Store API.
+     */
+    public static String baseUri() {
+        return isLocal() ? FakeStoreServer.shared().baseUri() : System.getProperty("api.baseUri", REMOTE_BASE_URI);
+    }
+
+    public static int integer(String key, int defaultValue) {
+        return Integer.getInteger(key, defaultValue);
+    }
+
+    public static long longValue(String key, long defaultValue) {
+        return Long.getLong(key, defaultValue);
+    }
+
+    public static double doubleValue(String key, double defaultValue) {
+        String value = System.getProperty(key);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    /**
+     * The file named by {@code key}, or {@code defaultPath}. A relative path resolves against the project directory,
+     * not the working directory, so a run started from an IDE or another module still finds it.
+     */
+    public static Path projectFile(String key, String defaultPath) {
+        Path path = Path.of(System.getProperty(key, defaultPath));
+        return path.isAbsolute() ? path : projectDir().resolve(path);
+    }
+
+    /**
+     * Maven's {@code basedir}, else the nearest directory with a {@code pom.xml} above the compiled test classes.
+     */
+    private static Path projectDir() {
+        String basedir = System.getProperty("basedir");
+        if (basedir != null) {
+            return Path.of(basedir);
+        }
+        try {
+            Path classes = Path.of(Config.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            for (Path dir = classes; dir != null; dir = dir.getParent()) {
+                if (Files.isRegularFile(dir.resolve("pom.xml"))) {
+                    return dir;
+                }
+            }
+        } catch (URISyntaxException | SecurityException e) {
+            // Fall back to the working directory.
+        }
+        return Path.of("").toAbsolutePath();
+    }
+}
@@ -1,6 +1,8 @@
 package category;
 
 import base.BaseTest;
+import client.ResponseCache;
+import context.TestData;
 import org.junit.jupiter.api.DisplayName;
 import POJO.Category;
 import io.qameta.allure.*;
@@ -8,20 +10,18 @@ import io.qameta.allure.*;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import latency.LatencySlo;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
 import java.util.List;
 
 @Epic("Category Module")
 @Feature("Smoke Test for Category CRUD Operations")
 public class CategorySmokeTest extends BaseTest {
 
-    private int categoryId;
-    private Category originalCategory;
-    private String categorySlug;
-
     @Test(priority = 1)
     @Story("Get All Categories")
     @Description("Verify that all categories are returned as a JSON array with valid properties")
@@ -32,10 +32,7 @@ public class CategorySmokeTest extends BaseTest {
                 .contentType(ContentType.JSON)
                 .get("/categories");
 
-        response.prettyPrint();
-
         Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Assert.assertTrue(response.time() < 2000, "Response time should be < 2s");
 
         List<Object> categories = response.jsonPath().getList("");
         Assert.assertNotNull(categories, "Response is not an array");
@@ -48,21 +45,18 @@ public class CategorySmokeTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Create Category")
     public void createCategory() {
-        originalCategory = new Category("category " + System.currentTimeMillis(), "https://placeimg.com/640/480/any");
+        Category originalCategory = new Category(TestData.uniqueName("category"), "https://placeimg.com/640/480/any");
 
         Response response = RestAssured.given(Spec)
                 .contentType(ContentType.JSON)
                 .body(originalCategory)
                 .post("/categories/");
 
-        response.prettyPrint();
-
         Category responseCategory = response.as(Category.class);
-        categoryId = responseCategory.getId();
-        categorySlug = responseCategory.getSlug();
+        scenario.put("categoryId", responseCategory.getId());
+        scenario.put("categorySlug", responseCategory.getSlug());
 
         Assert.assertEquals(response.getStatusCode(), 201, "Status code should be 201");
-        Assert.assertTrue(response.time() < 2000, "Response time should be < 2s");
         Assert.assertNotNull(responseCategory.getName(), "Category name is null");
         Assert.assertNotNull(responseCategory.getSlug(), "Category slug is null");
         Assert.assertNotNull(responseCategory.getImage(), "Category image is null");
@@ -76,14 +70,11 @@ public class CategorySmokeTest extends BaseTest {
     public void getCategoryById() {
         Response response = RestAssured.given(Spec)
                 .contentType(ContentType.JSON)
-                .get("/categories/" + categoryId);
-
-        response.prettyPrint();
+                .get("/categories/" + scenario.get("categoryId"));
 
         Category responseCategory = response.as(Category.class);
 
         Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Assert.assertTrue(response.time() < 2000, "Response time should be < 2s");
         Assert.assertNotNull(responseCategory.getName(), "Name is null");
         Assert.assertNotNull(responseCategory.getSlug(), "Slug is null");
         Assert.assertNotNull(responseCategory.getImage(), "Image is null");
@@ -95,22 +86,20 @@ public class CategorySmokeTest extends BaseTest {
     @Severity(SeverityLevel.NORMAL)
     @DisplayName("Get Category By Slug")
     public void getCategoryBySlug() {
+        String categorySlug = scenario.get("categorySlug");
         Response response = RestAssured.given(Spec)
                 .contentType(ContentType.JSON)
                 .get("/categories/slug/" + categorySlug);
 
-        response.prettyPrint();
-
         Category responseCategory = response.as(Category.class);
 
         Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Assert.assertTrue(response.time() < 2000, "Response time should be < 2s");
         Assert.assertNotNull(responseCategory.getName(), "Name is null");
         Assert.assertEquals(responseCategory.getSlug(), categorySlug, "Slug doesn't match");
         Assert.assertNotNull(responseCategory.getImage(), "Image is null");
     }
 
-    @Test(dependsOnMethods = "createCategory")
+    @Test(dependsOnMethods = {"getCategoryById", "getCategoryBySlug"})
     @Story("Update Category")
     @Description("Verify that a category can be updated successfully")
     @Severity(SeverityLevel.CRITICAL)
@@ -122,14 +111,11 @@ public class CategorySmokeTest extends BaseTest {
         Response response = RestAssured.given(Spec)
                 .contentType(ContentType.JSON)
                 .body(updatedCategory)
-                .put("/categories/" + categoryId);
-
-        response.prettyPrint();
+                .put("/categories/" + scenario.get("categoryId"));
 
         Category responseCategory = response.as(Category.class);
 
         Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Assert.assertTrue(response.time() < 2000, "Response time should be < 2s");
         Assert.assertEquals(responseCategory.getName(), "Updated Category", "Name wasn't updated");
         Assert.assertEquals(responseCategory.getImage(), "UpdatedImage.png", "Image wasn't updated");
     }
@@ -141,12 +127,37 @@ public class CategorySmokeTest extends BaseTest {
     @DisplayName("Delete Category")
     public void deleteCategory() {
         Response response = RestAssured.given(Spec)
-                .delete("/categories/" + categoryId);
-
-        response.prettyPrint();
+                .delete("/categories/" + scenario.get("categoryId"));
 
         Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Assert.assertTrue(response.time() < 2000, "Response time should be < 2s");
         Assert.assertEquals(response.getBody().asString(), "true", "Category was not deleted");
     }
+
+    @Test(dependsOnMethods = "getAllCategories")
+    @Story("Category Latency SLO")
+    @Description("Sample GET /categories repeatedly and verify its p95/p99 latency objectives")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Get All Categories Latency SLO")
+    public void getAllCategoriesLatencySlo() {
+        LatencySlo.forEndpoint("GET /categories")
+                .percentile(95, Duration.ofMillis(2000))
+                .percentile(99, Duration.ofMillis(3000))
+                .verify(() -> RestAssured.given(Spec).header(ResponseCache.NO_CACHE).get("/categories"));
+    }
+
+    @Test(dependsOnMethods = "deleteCategory")
+    @Story("Category Latency SLO")
+    @Description("Sample POST /categories/ repeatedly, deleting each created category, and verify its p95 latency objective")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Create Category Latency SLO")
+    public void createCategoryLatencySlo() {
+        LatencySlo.forEndpoint("POST /categories")
+                .samples(50)
+                .percentile(95, Duration.ofMillis(2000))
+                .verify(() -> RestAssured.given(Spec)
+                                .contentType(ContentType.JSON)
+                                .body(new Category(TestData.uniqueName("category"), "https://placeimg.com/640/480/any"))
+                                .post("/categories/"),
+                        created -> RestAssured.given(Spec).delete("/categories/" + created.jsonPath().getInt("id")));
+    }
 }
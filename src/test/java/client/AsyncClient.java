@@ -0,0 +1,370 @@
+package client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import jfr.HttpExchangeEvent;
+import jfr.JfrFilter;
+import logging.Exchange;
+import logging.ExchangeLog;
+import metrics.MetricsRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import schema.SchemaFilter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Non-blocking requests on {@code java.net.http}. Each call returns at once with a future of an ordinary RestAssured
+ * {@link Response}, so independent requests can be sent together and composed, and the result is read with the same
+ * POJOs and assertions as a blocking call.
+ * <ul>
+ *     <li>Completions run on {@code client.async.threads} platform threads; waiting for a response holds no thread.</li>
+ *     <li>HTTP/2 is negotiated unless {@code client.http2=false}: through ALPN over TLS, or by an h2c upgrade against a
+ *     plain-text server such as the local stand-in. Concurrent requests then share one connection as separate
+ *     streams, and the first request is sent alone so that the burst after it finds the upgraded connection.</li>
+ *     <li>At most {@code client.async.maxInFlight} requests are on the wire, and over HTTP/2 at most
+ *     {@code client.http2.maxStreams}. Further calls queue without blocking and are sent as earlier ones complete.</li>
+ *     <li>Each exchange is timed per stream and grouped by the protocol version the server answered with.</li>
+ *     <li>Successful responses are checked against their schema and every exchange goes to the {@link ExchangeLog},
+ *     as for the suite spec. While a JFR recording is on, each one is also an {@link HttpExchangeEvent} carrying
+ *     the test method that sent it, and it is counted in the {@link MetricsRegistry} when one is given.</li>
+ *     <li>A successful write drops the affected {@link ResponseCache} entries, as one through the suite spec does.</li>
+ *     <li>With the resilience layer on, each request times out after {@code resilience.requestTimeoutMillis}. It is
+ *     not retried, hedged or held back by the circuit breaker, which only guard the pooled client.</li>
+ *     <li>When {@code traffic.mode} is set, requests go through the suite spec on virtual threads instead, so they
+ *     are recorded and replayed with the rest of the run.</li>
+ * </ul>
+ */
+public final class AsyncClient implements AutoCloseable {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String baseUri;
+    private final RequestSpecification spec;
+    private final boolean throughSpec;
+    private final SchemaFilter schemaFilter;
+    private final boolean logExchanges;
+    private final boolean jfrEvents;
+    private final MetricsRegistry metrics;
+    private final ResponseCache cache;
+    private final Duration requestTimeout;
+    private final int threads;
+    private final int maxInFlight;
+    private final long connectTimeoutMillis;
+    private final HttpClient.Version version;
+    private final int maxStreams;
+    private final ExecutorService executor;
+    private final HttpClient http;
+    private final Semaphore permits;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final Map<HttpClient.Version, Histogram> streamMicros = new EnumMap<>(HttpClient.Version.class);
+    private volatile HttpClient.Version negotiated;
+    private volatile String negotiationProblem;
+
+    AsyncClient(String baseUri, RequestSpecification spec, boolean throughSpec, SchemaFilter schemaFilter,
+                boolean logExchanges, boolean jfrEvents, MetricsRegistry metrics, ResponseCache cache, Duration requestTimeout,
+                int threads, int maxInFlight, long connectTimeoutMillis, HttpClient.Version version, int maxStreams) {
+        this.baseUri = baseUri;
+        this.spec = spec;
+        this.throughSpec = throughSpec;
+        this.schemaFilter = schemaFilter;
+        this.logExchanges = logExchanges;
+        this.jfrEvents = jfrEvents;
+        this.metrics = metrics;
+        this.cache = cache;
+        this.requestTimeout = requestTimeout;
+        this.threads = threads;
+        this.maxInFlight = maxInFlight;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.version = version;
+        this.maxStreams = maxStreams;
+        for (HttpClient.Version each : HttpClient.Version.values()) {
+            streamMicros.put(each, new ConcurrentHistogram(3));
+        }
+        AtomicInteger threadIds = new AtomicInteger();
+        executor = throughSpec
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(threads, task -> Thread.ofPlatform().daemon()
+                        .name("async-http-" + threadIds.incrementAndGet()).unstarted(task));
+        http = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .executor(executor)
+                .build();
+        permits = new Semaphore(version == HttpClient.Version.HTTP_2 ? Math.min(maxInFlight, maxStreams) : maxInFlight);
+        if (version == HttpClient.Version.HTTP_2 && !throughSpec) {
+            negotiate();
+        }
+    }
+
+    /**
+     * A client with the same settings speaking {@code version}, e.g. to compare HTTP/1.1 against HTTP/2.
+     * The caller closes it.
+     */
+    public AsyncClient withVersion(HttpClient.Version version) {
+        return new AsyncClient(baseUri, spec, throughSpec, schemaFilter, logExchanges, jfrEvents, metrics, cache, requestTimeout,
+                threads, maxInFlight, connectTimeoutMillis, version, maxStreams);
+    }
+
+    /**
+     * The protocol of the latest response, or {@code null} before the first one.
+     */
+    public HttpClient.Version negotiated() {
+        return negotiated;
+    }
+
+    public CompletableFuture<Response> get(String path) {
+        return send("GET", path, null, Map.of());
+    }
+
+    public CompletableFuture<Response> post(String path, Object body) {
+        return send("POST", path, body, Map.of());
+    }
+
+    public CompletableFuture<Response> put(String path, Object body) {
+        return send("PUT", path, body, Map.of());
+    }
+
+    public CompletableFuture<Response> delete(String path) {
+        return send("DELETE", path, null, Map.of());
+    }
+
+    /**
+     * Sends a request without waiting for it.
+     *
+     * @param path    relative to the suite base URI, e.g. {@code /users/}
+     * @param body    a POJO serialized to JSON as RestAssured would, or {@code null}
+     * @param headers extra request headers, e.g. {@code Authorization}
+     * @return completes with the buffered response, or exceptionally with the I/O error or {@link schema.SchemaViolation}
+     */
+    public CompletableFuture<Response> send(String method, String path, Object body, Map<String, String> headers) {
+        if (throughSpec) {
+            return CompletableFuture.supplyAsync(() -> {
+                RequestSpecification request = RestAssured.given(spec).headers(headers);
+                if (body != null) {
+                    request.contentType(ContentType.JSON).body(body);
+                }
+                return request.request(method, path);
+            }, executor);
+        }
+        String uri = baseUri + path;
+        String testMethod = jfrEvents ? JfrFilter.testMethod() : null;
+        long serializing = System.nanoTime();
+        String json = body == null ? null : serialize(body);
+        long serializationNanos = System.nanoTime() - serializing;
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri))
+                .method(method, json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json))
+                .header("Accept", "application/json");
+        if (json != null) {
+            request.header("Content-Type", "application/json");
+        }
+        headers.forEach(request::header);
+        if (requestTimeout != null) {
+            request.timeout(requestTimeout);
+        }
+
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            int now = inFlight.incrementAndGet();
+            peakInFlight.accumulateAndGet(now, Math::max);
+            sent.increment();
+            if (metrics != null) {
+                metrics.begin();
+            }
+            HttpExchangeEvent event = new HttpExchangeEvent();
+            event.begin();
+            long begin = System.nanoTime();
+            http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, failure) -> {
+                long nanos = System.nanoTime() - begin;
+                inFlight.decrementAndGet();
+                release();
+                if (jfrEvents) {
+                    record(event, method, uri, json, response, serializationNanos, nanos, testMethod);
+                }
+                if (metrics != null) {
+                    metrics.end(method, Exchange.pathTemplate(uri), response == null ? 0 : response.statusCode(), nanos,
+                            response == null ? 0 : response.body().length);
+                }
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                    return;
+                }
+                try {
+                    result.complete(received(method, uri, json, response, nanos));
+                } catch (RuntimeException | AssertionError e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        };
+        if (permits.tryAcquire()) {
+            start.run();
+        } else {
+            queued.increment();
+            waiting.add(start);
+            // A request completing between the failed tryAcquire and the add would otherwise leave this one queued.
+            release(0);
+        }
+        return result;
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format("Async client: %d requests, peak %d in flight, %d queued for a slot",
+                sent.sum(), peakInFlight.get(), queued.sum()));
+        if (negotiationProblem != null) {
+            summary.append(", ").append(negotiationProblem);
+        }
+        streamMicros.forEach((protocol, micros) -> {
+            if (micros.getTotalCount() > 0) {
+                summary.append(String.format(", %s %d streams p50=%.2f ms p99=%.2f ms", protocol, micros.getTotalCount(),
+                        micros.getValueAtPercentile(50) / 1000.0, micros.getValueAtPercentile(99) / 1000.0));
+            }
+        });
+        return summary.toString();
+    }
+
+    /**
+     * Requests on the wire now, not counting those queued for a slot.
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Per-stream latency in microseconds of the exchanges answered over {@code protocol}.
+     */
+    public Histogram streamMicros(HttpClient.Version protocol) {
+        return streamMicros.get(protocol);
+    }
+
+    @Override
+    public void close() {
+        http.close();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends one request on its own so that the connection is upgraded before concurrent requests arrive; otherwise
+     * each of them opens and upgrades a connection of its own. A server that cannot be reached is left to the tests.
+     */
+    private void negotiate() {
+        try {
+            HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(URI.create(baseUri + "/categories?offset=0&limit=1"))
+                    .header("Accept", "application/json").build(), HttpResponse.BodyHandlers.ofByteArray());
+            negotiated = response.version();
+            if (response.version() != version) {
+                negotiationProblem = baseUri + " answered with " + response.version() + " instead of " + version;
+            }
+        } catch (IOException e) {
+            negotiationProblem = "could not negotiate " + version + " with " + baseUri + ": " + e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Response received(String method, String uri, String requestBody, HttpResponse<byte[]> response, long nanos) {
+        negotiated = response.version();
+        streamMicros.get(response.version()).recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+        byte[] body = response.body();
+        if (logExchanges) {
+            ExchangeLog.shared().record(new Exchange(method, uri, response.statusCode(),
+                    TimeUnit.NANOSECONDS.toMicros(nanos), requestBody, body));
+        }
+        if (cache != null && !"GET".equals(method) && response.statusCode() < 400) {
+            cache.invalidate(ResponseCache.resourceOf(uri));
+        }
+        if (schemaFilter != null && response.statusCode() / 100 == 2) {
+            schemaFilter.check(method, uri, body);
+        }
+        List<Header> headers = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> values.forEach(value -> headers.add(new Header(name, value))));
+        return new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine((response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2 " : "HTTP/1.1 ") + response.statusCode())
+                .setHeaders(new Headers(headers))
+                .setContentType(response.headers().firstValue("Content-Type").orElse("application/json"))
+                .setBody(body)
+                .build();
+    }
+
+    private void record(HttpExchangeEvent event, String method, String uri, String json, HttpResponse<byte[]> response,
+                        long serializationNanos, long networkNanos, String testMethod) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.endpoint = Exchange.pathTemplate(uri);
+            event.status = response == null ? 0 : response.statusCode();
+            event.requestBytes = json == null ? 0 : json.getBytes(StandardCharsets.UTF_8).length;
+            event.responseBytes = response == null ? 0 : response.body().length;
+            event.serializationTime = serializationNanos;
+            event.networkTime = networkNanos;
+            event.testMethod = testMethod;
+            event.transport = "java.net.http " + (response == null ? version : response.version());
+            event.commit();
+        }
+    }
+
+    private void release() {
+        release(1);
+    }
+
+    /**
+     * Returns {@code permits} slots and starts queued requests while slots are free.
+     */
+    private void release(int permits) {
+        this.permits.release(permits);
+        while (!waiting.isEmpty() && this.permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                this.permits.release();
+                return;
+            }
+            next.run();
+        }
+    }
+
+    private static String serialize(Object body) {
+        if (body instanceof String text) {
+            return text;
+        }
+        try {
+            return JSON.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Could not serialize " + body.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package client;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.execchain.ClientExecChain;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.apache.http.util.EntityUtils;
+import resilience.ResiliencePolicy;
+import resilience.ResilientExec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keep-alive connection pool shared by every RestAssured call made through the suite spec.
+ * RestAssured still expects an {@code AbstractHttpClient}, so it is handed a {@link RestAssuredHttpClient} that
+ * sends its requests through this pool. Unless {@code resilience.enabled=false}, a {@link ResilientExec} stage
+ * in the exec chain governs every call.
+ */
+public class PooledHttpClient {
+    private final PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager();
+    private final ResilientExec resilience;
+    private final CloseableHttpClient httpClient;
+    private final RestAssuredHttpClient restAssuredClient;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    /**
+     * @param resilience deadlines, retries, hedging and circuit breaking for every call, or {@code null} for none
+     */
+    public PooledHttpClient(int maxTotal, int maxPerRoute, long keepAliveMillis, ResiliencePolicy resilience) {
+        connections.setMaxTotal(maxTotal);
+        connections.setDefaultMaxPerRoute(maxPerRoute);
+        // A connection the server closed while it sat idle would fail the next request sent on it, and POSTs are not retried.
+        connections.setValidateAfterInactivity(1_000);
+        this.resilience = resilience == null ? null : new ResilientExec(resilience);
+        HttpClientBuilder builder = builder(this.resilience)
+                .setConnectionManager(connections)
+                .setKeepAliveStrategy((response, context) -> {
+                    long advertised = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return advertised > 0 ? Math.min(advertised, keepAliveMillis) : keepAliveMillis;
+                })
+                .evictExpiredConnections()
+                .setRequestExecutor(new ReuseCounter(requests, reused))
+                // RestAssured applies its own cookie policy and decodes gzip and deflate bodies itself.
+                .disableCookieManagement()
+                .disableContentCompression();
+        if (resilience != null) {
+            builder.disableAutomaticRetries();
+        }
+        httpClient = builder.build();
+        restAssuredClient = new RestAssuredHttpClient(httpClient);
+    }
+
+    public RestAssuredConfig restAssuredConfig() {
+        return RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> restAssuredClient));
+    }
+
+    /**
+     * Opens up to {@code count} connections by issuing concurrent GETs, then resets the reuse counters.
+     */
+    public void warmUp(String uri, int count) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                executor.submit(() -> {
+                    HttpGet get = new HttpGet(uri);
+                    try {
+                        HttpResponse response = httpClient.execute(get);
+                        EntityUtils.consume(response.getEntity());
+                    } catch (IOException e) {
+                        get.abort();
+                    }
+                });
+            }
+        }
+        requests.reset();
+        reused.reset();
+    }
+
+    /**
+     * Streams the body of a GET through the pool without buffering it. When {@code handler} stops
+     * early by throwing, the connection is aborted rather than drained.
+     */
+    public <R> R stream(String uri, StreamHandler<R> handler) throws IOException {
+        HttpGet get = new HttpGet(uri);
+        get.setHeader("Accept", "application/json");
+        HttpResponse response = httpClient.execute(get);
+        try (InputStream body = response.getEntity().getContent()) {
+            return handler.handle(response.getStatusLine().getStatusCode(), body);
+        } catch (IOException | RuntimeException | Error e) {
+            get.abort();
+            throw e;
+        }
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long reusedConnections() {
+        return reused.sum();
+    }
+
+    public int maxPerRoute() {
+        return connections.getDefaultMaxPerRoute();
+    }
+
+    public PoolStats poolStats() {
+        return connections.getTotalStats();
+    }
+
+    /**
+     * The resilience layer, or {@code null} when {@code resilience.enabled=false}.
+     */
+    public ResilientExec resilience() {
+        return resilience;
+    }
+
+    public String summary() {
+        long total = requests();
+        long hits = reusedConnections();
+        PoolStats stats = poolStats();
+        return String.format("Connection pool: %d requests, %d on reused connections (%.1f%%), leased=%d available=%d max=%d",
+                total, hits, total == 0 ? 0.0 : hits * 100.0 / total, stats.getLeased(), stats.getAvailable(), stats.getMax());
+    }
+
+    public void shutdown() {
+        if (resilience != null) {
+            resilience.close();
+        }
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close the connection pool", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface StreamHandler<R> {
+        R handle(int statusCode, InputStream body) throws IOException;
+    }
+
+    private static HttpClientBuilder builder(ResilientExec resilience) {
+        if (resilience == null) {
+            return HttpClientBuilder.create();
+        }
+        return new HttpClientBuilder() {
+            @Override
+            protected ClientExecChain decorateProtocolExec(ClientExecChain protocolExec) {
+                return resilience.decorate(protocolExec);
+            }
+        };
+    }
+
+    /**
+     * Counts requests, and those sent on a connection that already carried one, as each goes on the wire.
+     */
+    private static final class ReuseCounter extends HttpRequestExecutor {
+        private final LongAdder requests;
+        private final LongAdder reused;
+
+        ReuseCounter(LongAdder requests, LongAdder reused) {
+            this.requests = requests;
+            this.reused = reused;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request, HttpClientConnection connection, HttpContext context)
+                throws IOException, HttpException {
+            requests.increment();
+            if (connection.getMetrics().getRequestCount() > 0) {
+                reused.increment();
+            }
+            return super.execute(request, connection, context);
+        }
+    }
+}
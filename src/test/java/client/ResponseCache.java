@@ -0,0 +1,181 @@
+package client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Client-side cache for GET responses, installed on the suite spec when {@code client.cache.enabled=true}.
+ * <ul>
+ *     <li>Keys are method + URI + {@code Accept} + {@code Authorization}, so per-user responses never mix. The
+ *     cache runs after per-request filters such as the bearer-token filter, so it keys on the header they add.</li>
+ *     <li>Entries are weighed by body size and evicted by Caffeine's W-TinyLFU policy.</li>
+ *     <li>An entry is served without a request while younger than its TTL ({@code max-age} when the server
+ *     sends one). After that it is revalidated with {@code If-None-Match}/{@code If-Modified-Since}, and a 304
+ *     renews it.</li>
+ *     <li>A successful POST/PUT/PATCH/DELETE drops every cached entry of the same resource, e.g. {@code /products},
+ *     and of the resources whose responses embed it: products carry their category,
+ *     {@code /categories/{id}/products} lists products, and {@code /auth/profile} returns a user.</li>
+ *     <li>Requests sending {@link #NO_CACHE} always go to the server, for tests that must observe fresh state.</li>
+ * </ul>
+ */
+public class ResponseCache implements OrderedFilter {
+    public static final Header NO_CACHE = new Header("Cache-Control", "no-cache");
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final Map<String, Set<String>> EMBEDDED_IN = Map.of(
+            "categories", Set.of("products"),
+            "products", Set.of("categories"),
+            "users", Set.of("auth"));
+
+    private final Cache<Key, Entry> entries;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidated = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ResponseCache(long maxBytes, Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> entry.body().length + key.uri().length())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification responseSpec, FilterContext context) {
+        if (!"GET".equalsIgnoreCase(request.getMethod())) {
+            Response response = context.next(request, responseSpec);
+            if (response.getStatusCode() < 400) {
+                invalidate(resourceOf(request.getURI()));
+            }
+            return response;
+        }
+        if (request.getHeaders().getValues("Cache-Control").contains("no-cache")) {
+            bypassed.increment();
+            return context.next(request, responseSpec);
+        }
+
+        Key key = new Key(request.getURI(), resourceOf(request.getURI()),
+                request.getHeaders().getValue("Accept") + "|" + request.getHeaders().getValue("Authorization"));
+        Entry cached = entries.getIfPresent(key);
+        long now = System.nanoTime();
+        if (cached != null && now < cached.freshUntil()) {
+            hits.increment();
+            return cached.toResponse();
+        }
+        if (cached != null && cached.etag() != null) {
+            request.header("If-None-Match", cached.etag());
+        } else if (cached != null && cached.lastModified() != null) {
+            request.header("If-Modified-Since", cached.lastModified());
+        }
+
+        Response response = context.next(request, responseSpec);
+        if (cached != null && response.getStatusCode() == 304) {
+            revalidated.increment();
+            entries.put(key, cached.renewedUntil(now + freshness(response)));
+            return cached.toResponse();
+        }
+        misses.increment();
+        String cacheControl = String.valueOf(response.getHeader("Cache-Control"));
+        if (response.getStatusCode() == 200 && !cacheControl.contains("no-store")) {
+            entries.put(key, new Entry(response.getStatusLine(), response.getHeaders(), response.getContentType(),
+                    response.asByteArray(), response.getHeader("ETag"), response.getHeader("Last-Modified"),
+                    now + freshness(response)));
+        }
+        return response;
+    }
+
+    /**
+     * Just before {@link replay.Traffic} and the network timing, after every filter that adds headers to the request.
+     */
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 1;
+    }
+
+    /**
+     * Drops the cached entries of {@code resource} and of the resources that embed it.
+     */
+    public void invalidate(String resource) {
+        Set<String> embedding = EMBEDDED_IN.getOrDefault(resource, Set.of());
+        entries.asMap().keySet().removeIf(key -> key.resource().equals(resource) || embedding.contains(key.resource()));
+        invalidations.increment();
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public long hits() {
+        return hits.sum() + revalidated.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public String summary() {
+        long lookups = hits() + misses();
+        return String.format("Response cache: %d hits (%d revalidated), %d misses (%.1f%% hit rate), %d bypassed, %d invalidations, %d evictions, %d entries",
+                hits(), revalidated.sum(), misses(), lookups == 0 ? 0.0 : hits() * 100.0 / lookups, bypassed.sum(),
+                invalidations.sum(), entries.stats().evictionCount(), entries.estimatedSize());
+    }
+
+    private long freshness(Response response) {
+        Matcher maxAge = MAX_AGE.matcher(String.valueOf(response.getHeader("Cache-Control")));
+        return maxAge.find() ? Duration.ofSeconds(Long.parseLong(maxAge.group(1))).toNanos() : ttlNanos;
+    }
+
+    /**
+     * First path segment below the API version, e.g. {@code products} for {@code /api/v1/products/12}.
+     */
+    static String resourceOf(String uri) {
+        String[] segments = URI.create(uri).getPath().split("/");
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i].matches("v\\d+") && i + 1 < segments.length) {
+                return segments[i + 1];
+            }
+        }
+        return segments.length > 1 ? segments[1] : "";
+    }
+
+    private record Key(String uri, String resource, String vary) {
+    }
+
+    private record Entry(String statusLine, Headers headers, String contentType, byte[] body, String etag,
+                         String lastModified, long freshUntil) {
+
+        Entry renewedUntil(long freshUntil) {
+            return new Entry(statusLine, headers, contentType, body, etag, lastModified, freshUntil);
+        }
+
+        Response toResponse() {
+            return new ResponseBuilder()
+                    .setStatusCode(200)
+                    .setStatusLine(statusLine)
+                    .setHeaders(headers)
+                    .setContentType(contentType)
+                    .setBody(body)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package client;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.params.HttpParams;
+import org.apache.http.params.HttpParamsNames;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The client handed to RestAssured. RestAssured 5 casts whatever its {@code HttpClientFactory} returns to the
+ * deprecated {@code AbstractHttpClient}, so this is the one place that type is still extended; every request is
+ * sent through the pooled client instead.
+ * <p>
+ * RestAssured configures redirects, the cookie policy and timeouts as parameters on this client. They are copied
+ * onto each request that does not set them itself, and the pooled client turns them into its {@code RequestConfig}.
+ * Interceptors and credentials registered here are not used, as the suite authenticates with headers.
+ * <p>
+ * RestAssured rethrows a transport failure unchecked, even though it is an {@code IOException}. It is wrapped in an
+ * {@link UncheckedIOException} here, so a deadline, an open circuit or a refused connection reaches the
+ * {@code catch (RuntimeException e)} blocks of the suite instead of slipping past them.
+ */
+@SuppressWarnings("deprecation")
+final class RestAssuredHttpClient extends DefaultHttpClient {
+    private final CloseableHttpClient delegate;
+
+    RestAssuredHttpClient(CloseableHttpClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CloseableHttpResponse execute(HttpUriRequest request) {
+        return execute(request, (HttpContext) null);
+    }
+
+    @Override
+    public CloseableHttpResponse execute(HttpUriRequest request, HttpContext context) {
+        inheritParams(request);
+        try {
+            return delegate.execute(request, context);
+        } catch (IOException e) {
+            throw unchecked(request, e);
+        }
+    }
+
+    @Override
+    public CloseableHttpResponse execute(HttpHost target, HttpRequest request) {
+        return execute(target, request, (HttpContext) null);
+    }
+
+    @Override
+    public CloseableHttpResponse execute(HttpHost target, HttpRequest request, HttpContext context) {
+        inheritParams(request);
+        try {
+            return delegate.execute(target, request, context);
+        } catch (IOException e) {
+            throw unchecked(request, e);
+        }
+    }
+
+    private static UncheckedIOException unchecked(HttpRequest request, IOException e) {
+        return new UncheckedIOException(request.getRequestLine() + " failed: " + e.getMessage(), e);
+    }
+
+    private void inheritParams(HttpRequest request) {
+        HttpParams client = getParams();
+        HttpParams own = request.getParams();
+        if (client instanceof HttpParamsNames names) {
+            for (String name : names.getNames()) {
+                if (own.getParameter(name) == null) {
+                    own.setParameter(name, client.getParameter(name));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package client;
+
+import base.Config;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.ObjectMapperConfig;
+import jfr.JfrFilter;
+import jfr.TimedObjectMapper;
+import logging.ExchangeLog;
+import metrics.MetricsFilter;
+import metrics.MetricsRegistry;
+import metrics.MetricsServer;
+import replay.Traffic;
+import resilience.ResiliencePolicy;
+import schema.SchemaFilter;
+import schema.Schemas;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * One request specification and one connection pool per suite run.
+ */
+public final class SuiteClient {
+    private static volatile SuiteClient instance;
+
+    private final PooledHttpClient pool;
+    private final ResponseCache cache;
+    private final Traffic traffic;
+    private final SchemaFilter schemaFilter;
+    private final RequestSpecification spec;
+    private final AsyncClient async;
+    private final MetricsRegistry metrics;
+    private final MetricsServer metricsServer;
+
+    private SuiteClient() {
+        String baseUri = Config.baseUri();
+        ResiliencePolicy resilience = Boolean.getBoolean("resilience.enabled") ? ResiliencePolicy.fromSystemProperties() : null;
+        pool = new PooledHttpClient(
+                Config.integer("client.pool.maxTotal", 100),
+                Config.integer("client.pool.maxPerRoute", 20),
+                Config.longValue("client.pool.keepAliveMillis", 20_000),
+                resilience);
+        traffic = Traffic.fromSystemProperties(baseUri);
+        if (traffic == null || !traffic.replaying()) {
+            pool.warmUp(baseUri + "/categories?offset=0&limit=1", Config.integer("client.pool.warmup", 4));
+        }
+        cache = Boolean.getBoolean("client.cache.enabled")
+                ? new ResponseCache(Config.longValue("client.cache.maxBytes", 16L << 20),
+                        Duration.ofMillis(Config.longValue("client.cache.ttlMillis", 30_000)))
+                : null;
+        RequestSpecBuilder builder = new RequestSpecBuilder();
+        boolean jfrEvents = Boolean.parseBoolean(System.getProperty("jfr.events", "true"));
+        if (jfrEvents) {
+            builder.addFilter(new JfrFilter()).addFilter(JfrFilter.network());
+        }
+        metrics = Boolean.parseBoolean(System.getProperty("metrics.enabled", "true")) ? MetricsRegistry.shared() : null;
+        if (metrics != null) {
+            builder.addFilter(new MetricsFilter(metrics));
+        }
+        if (cache != null) {
+            builder.addFilter(cache);
+        }
+        boolean logExchanges = Boolean.parseBoolean(System.getProperty("log.exchanges", "true"));
+        if (logExchanges) {
+            builder.addFilter(ExchangeLog.shared());
+        }
+        schemaFilter = Boolean.parseBoolean(System.getProperty("schema.validate", "true")) ? new SchemaFilter(Schemas.shared()) : null;
+        if (schemaFilter != null) {
+            builder.addFilter(schemaFilter);
+        }
+        if (traffic != null) {
+            builder.addFilter(traffic);
+        }
+        spec = builder
+                .setBaseUri(baseUri)
+                .setConfig(jfrEvents
+                        ? pool.restAssuredConfig().objectMapperConfig(ObjectMapperConfig.objectMapperConfig().defaultObjectMapper(new TimedObjectMapper()))
+                        : pool.restAssuredConfig())
+                .addFilter((request, response, context) -> {
+                    // Buffer the body so status-only assertions still hand the connection back to the pool.
+                    Response buffered = context.next(request, response);
+                    buffered.asByteArray();
+                    return buffered;
+                })
+                .build();
+        async = new AsyncClient(baseUri, spec, traffic != null, schemaFilter, logExchanges, jfrEvents, metrics, cache,
+                resilience == null ? null : resilience.requestTimeout(),
+                Config.integer("client.async.threads", 4),
+                Config.integer("client.async.maxInFlight", 2048),
+                Config.longValue("client.async.connectTimeoutMillis", 10_000),
+                Boolean.parseBoolean(System.getProperty("client.http2", "true")) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1,
+                Config.integer("client.http2.maxStreams", 100));
+        if (metrics != null) {
+            metrics.gauge("platzi_http_pool_leased", "Pooled connections in use.", () -> pool.poolStats().getLeased());
+            metrics.gauge("platzi_http_pool_available", "Idle pooled connections.", () -> pool.poolStats().getAvailable());
+            metrics.gauge("platzi_http_pool_pending", "Requests waiting for a pooled connection.", () -> pool.poolStats().getPending());
+            metrics.gauge("platzi_http_pool_max", "Pool size limit.", () -> pool.poolStats().getMax());
+            metrics.gauge("platzi_http_async_in_flight", "Async client requests on the wire.", async::inFlight);
+        }
+        metricsServer = metrics == null ? null : MetricsServer.fromSystemProperties(metrics);
+    }
+
+    public static SuiteClient get() {
+        if (instance == null) {
+            synchronized (SuiteClient.class) {
+                if (instance == null) {
+                    instance = new SuiteClient();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public static RequestSpecification spec() {
+        return get().spec;
+    }
+
+    /**
+     * Non-blocking requests returning futures, for independent calls that can be in flight together.
+     */
+    public AsyncClient async() {
+        return async;
+    }
+
+    public PooledHttpClient pool() {
+        return pool;
+    }
+
+    /**
+     * {@link PooledHttpClient#stream}, recorded or replayed when {@code traffic.mode} is set.
+     */
+    public <R> R stream(String uri, PooledHttpClient.StreamHandler<R> handler) throws IOException {
+        return traffic == null ? pool.stream(uri, handler) : traffic.stream(pool, uri, handler);
+    }
+
+    /**
+     * The record/replay archive, or {@code null} unless {@code traffic.mode} is {@code record} or {@code replay}.
+     */
+    public Traffic traffic() {
+        return traffic;
+    }
+
+    /**
+     * The GET response cache, or {@code null} unless {@code client.cache.enabled=true}.
+     */
+    public ResponseCache cache() {
+        return cache;
+    }
+
+    /**
+     * Response schema validation, or {@code null} when {@code schema.validate=false}.
+     */
+    public SchemaFilter schemaFilter() {
+        return schemaFilter;
+    }
+
+    /**
+     * The metrics registry fed by the spec and the async client, or {@code null} when {@code metrics.enabled=false}.
+     */
+    public MetricsRegistry metrics() {
+        return metrics;
+    }
+
+    public static void shutdown() {
+        synchronized (SuiteClient.class) {
+            if (instance != null) {
+                if (instance.metricsServer != null) {
+                    instance.metricsServer.close();
+                }
+                instance.async.close();
+                instance.pool.shutdown();
+                if (instance.traffic != null) {
+                    instance.traffic.close();
+                }
+                instance = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package context;
+
+import org.testng.SkipException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State handed from one step of a scenario to the next. Each test instance owns one context, so
+ * parallel instances never see each other's ids or tokens, and steps that run on different
+ * worker threads still read what earlier steps wrote.
+ */
+public class ScenarioContext {
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+    public void put(String key, Object value) {
+        if (value == null) {
+            values.remove(key);
+        } else {
+            values.put(key, value);
+        }
+    }
+
+    /**
+     * Returns the value stored under {@code key}, skipping the calling test when the step that
+     * produces it never ran or failed.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        Object value = values.get(key);
+        if (value == null) {
+            throw new SkipException("Scenario state '" + key + "' is not set; the step that produces it did not succeed");
+        }
+        return (T) value;
+    }
+
+    public boolean has(String key) {
+        return values.containsKey(key);
+    }
+
+    public void clear() {
+        values.clear();
+    }
+}
@@ -0,0 +1,48 @@
+package context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collision-free test data. Values combine a per-JVM run id with a global sequence, so parallel
+ * threads, repeated invocations and concurrent CI jobs never produce the same email or name.
+ */
+public final class TestData {
+    private static final String RUN_ID = Long.toString(System.currentTimeMillis(), 36)
+            + Integer.toString(ThreadLocalRandom.current().nextInt(36 * 36 * 36), 36);
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final Map<String, AtomicLong> SCOPES = new ConcurrentHashMap<>();
+
+    private TestData() {
+    }
+
+    /**
+     * The per-JVM part of every generated value; shared by everything this run creates.
+     */
+    public static String runId() {
+        return RUN_ID;
+    }
+
+    public static String uniqueSuffix() {
+        return RUN_ID + "x" + SEQUENCE.incrementAndGet();
+    }
+
+    /**
+     * A suffix numbered within {@code scope} instead of the global sequence, for values created off the test
+     * thread, such as fixture pools topping themselves up. Neither they nor the tests then shift the other's
+     * numbers, so a recorded run and its replay generate the same names.
+     */
+    public static String uniqueSuffix(String scope) {
+        return RUN_ID + "x" + scope + SCOPES.computeIfAbsent(scope, ignored -> new AtomicLong()).incrementAndGet();
+    }
+
+    public static String uniqueEmail(String prefix) {
+        return prefix + uniqueSuffix() + "@gmail.com";
+    }
+
+    public static String uniqueName(String prefix) {
+        return prefix + " " + uniqueSuffix();
+    }
+}
@@ -0,0 +1,249 @@
+package crawler;
+
+import base.Config;
+import client.SuiteClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks an {@code offset/limit} listing such as {@code /products} or {@code /users/} page by page.
+ * Up to {@code maxInFlight} pages, but never more than a quarter of the pool's per-route connections, are fetched
+ * ahead concurrently, pages are handed out strictly in offset order, and only the in-flight window is held in memory:
+ * <pre>
+ * CatalogCrawler&lt;Product&gt; crawler = CatalogCrawler.of("/products", Product.class, Product::getId);
+ * try (Stream&lt;Product&gt; products = crawler.stream()) {
+ *     products.forEach(...);
+ * }
+ * System.out.println(crawler.stats());
+ * </pre>
+ * The listing ends at the first page shorter than the page size; once one has arrived, no page past it is requested.
+ * Ids seen so far are kept in a bit set to detect duplicates across page boundaries.
+ */
+public class CatalogCrawler<T> {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String path;
+    private final ObjectReader pageReader;
+    private final ToIntFunction<T> idOf;
+    private int pageSize = Config.integer("crawler.pageSize", 100);
+    private int maxInFlight = Config.integer("crawler.maxInFlight", 8);
+
+    private final LongAdder pages = new LongAdder();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder gaps = new LongAdder();
+    private final LongAdder boundaryShifts = new LongAdder();
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    private CatalogCrawler(String path, Class<T> type, ToIntFunction<T> idOf) {
+        this.path = path;
+        this.pageReader = MAPPER.readerForListOf(type);
+        this.idOf = idOf;
+    }
+
+    public static <T> CatalogCrawler<T> of(String path, Class<T> type, ToIntFunction<T> idOf) {
+        return new CatalogCrawler<>(path, type, idOf);
+    }
+
+    public CatalogCrawler<T> pageSize(int pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    public CatalogCrawler<T> maxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Lazily crawls the listing. Close the stream to cancel pages that are still in flight.
+     */
+    public Stream<T> stream() {
+        PageIterator iterator = new PageIterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    public CrawlStats stats() {
+        long end = finishedAt == 0 ? System.nanoTime() : finishedAt;
+        return new CrawlStats(pages.sum(), items.sum(), bytes.sum(), duplicates.sum(), gaps.sum(), boundaryShifts.sum(),
+                Duration.ofNanos(startedAt == 0 ? 0 : end - startedAt));
+    }
+
+    private List<T> fetch(SuiteClient client, long offset, PageIterator crawl) {
+        if (offset > crawl.endOffset) {
+            return List.of();
+        }
+        String separator = path.contains("?") ? "&" : "?";
+        String uri = Config.baseUri() + path + separator + "offset=" + offset + "&limit=" + pageSize;
+        try {
+            return client.stream(uri, (status, body) -> {
+                if (status != 200) {
+                    throw new IOException("GET " + uri + " returned " + status);
+                }
+                List<T> page = pageReader.readValue(new CountingInputStream(body));
+                if (page.size() < pageSize) {
+                    crawl.lastPageAt(offset);
+                }
+                return page;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final class PageIterator implements Iterator<T>, AutoCloseable {
+        private final SuiteClient client = SuiteClient.get();
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private final Deque<CompletableFuture<List<T>>> window = new ArrayDeque<>();
+        private final int windowSize = Math.max(1, Math.min(maxInFlight, client.pool().maxPerRoute() / 4));
+        private final BitSet seen = new BitSet();
+        private Iterator<T> current = List.<T>of().iterator();
+        private long nextOffset;
+        private boolean lastPageSeen;
+        private boolean previousPageShort;
+        private int lastId = Integer.MIN_VALUE;
+        private volatile long endOffset = Long.MAX_VALUE;
+
+        PageIterator() {
+            startedAt = System.nanoTime();
+            fill();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (window.isEmpty()) {
+                    finish();
+                    return false;
+                }
+                current = accept(join(window.removeFirst())).iterator();
+                fill();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        @Override
+        public void close() {
+            window.forEach(page -> page.cancel(true));
+            window.clear();
+            executor.shutdownNow();
+            finish();
+        }
+
+        private void fill() {
+            while (!lastPageSeen && nextOffset <= endOffset && window.size() < windowSize) {
+                long offset = nextOffset;
+                nextOffset += pageSize;
+                window.addLast(CompletableFuture.supplyAsync(() -> fetch(client, offset, this), executor));
+            }
+        }
+
+        /**
+         * Records a short page as soon as it arrives, so pages queued behind it are not sent.
+         */
+        synchronized void lastPageAt(long offset) {
+            endOffset = Math.min(endOffset, offset);
+        }
+
+        private List<T> accept(List<T> page) {
+            pages.increment();
+            items.add(page.size());
+            if (!page.isEmpty()) {
+                if (previousPageShort) {
+                    gaps.increment();
+                }
+                if (idOf.applyAsInt(page.getFirst()) <= lastId) {
+                    boundaryShifts.increment();
+                }
+                for (T item : page) {
+                    int id = idOf.applyAsInt(item);
+                    if (id >= 0 && seen.get(id)) {
+                        duplicates.increment();
+                    } else if (id >= 0) {
+                        seen.set(id);
+                    }
+                }
+                lastId = idOf.applyAsInt(page.getLast());
+            }
+            if (page.size() < pageSize) {
+                lastPageSeen = true;
+                previousPageShort = true;
+            }
+            return page;
+        }
+
+        private List<T> join(CompletableFuture<List<T>> page) {
+            try {
+                return page.join();
+            } catch (CompletionException e) {
+                close();
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        private void finish() {
+            if (finishedAt == 0) {
+                finishedAt = System.nanoTime();
+                executor.shutdown();
+            }
+        }
+    }
+
+    private final class CountingInputStream extends FilterInputStream {
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                bytes.increment();
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                bytes.add(count);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package crawler;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of a crawl. {@code gaps} counts short pages that were followed by more data, and
+ * {@code boundaryShifts} counts pages whose first id is not above the previous page's last id,
+ * both of which mean the listing moved under the crawler.
+ */
+public record CrawlStats(long pages, long items, long bytes, long duplicates, long gaps, long boundaryShifts,
+                         Duration elapsed) {
+
+    public double pagesPerSecond() {
+        return pages / seconds();
+    }
+
+    public double bytesPerSecond() {
+        return bytes / seconds();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d pages, %d items, %d bytes in %.2fs (%.1f pages/s, %.1f KiB/s), %d duplicates, %d gaps, %d boundary shifts",
+                pages, items, bytes, seconds(), pagesPerSecond(), bytesPerSecond() / 1024, duplicates, gaps, boundaryShifts);
+    }
+
+    private double seconds() {
+        return Math.max(elapsed.toNanos(), 1) / 1e9;
+    }
+}
@@ -0,0 +1,136 @@
+package dag;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every test method and, when the suite ends, prints the longest chain of {@code dependsOnMethods} by
+ * duration. That chain bounds the suite's wall time however many threads run it; comparing the two shows whether
+ * time goes to dependencies or to waiting for a free thread.
+ */
+public class CriticalPath implements IInvokedMethodListener, ISuiteListener {
+    private final Map<Node, long[]> timings = new ConcurrentHashMap<>();
+    private final Map<Node, ITestNGMethod> methods = new ConcurrentHashMap<>();
+    private volatile long suiteStart;
+
+    /**
+     * A test method on one test class instance; factories give each instance its own chain.
+     */
+    private record Node(Object instance, String method) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Node node && node.instance == instance && node.method.equals(method);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(instance) * 31 + method.hashCode();
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        suiteStart = System.nanoTime();
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            Node node = nodeOf(method.getTestMethod());
+            methods.putIfAbsent(node, method.getTestMethod());
+            // Data-provider rows share a node: it spans from the first row's start to the last row's end.
+            timings.computeIfAbsent(node, key -> new long[]{System.nanoTime(), 0});
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            long[] timing = timings.get(nodeOf(method.getTestMethod()));
+            if (timing != null) {
+                timing[1] = System.nanoTime();
+            }
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!timings.isEmpty()) {
+            System.out.println(report(System.nanoTime() - suiteStart));
+        }
+    }
+
+    String report(long wallNanos) {
+        Map<Node, Long> longest = new HashMap<>();
+        Map<Node, Node> previous = new HashMap<>();
+        Node last = null;
+        for (Node node : timings.keySet()) {
+            longest(node, longest, previous);
+            if (last == null || longest.get(node) > longest.get(last)) {
+                last = node;
+            }
+        }
+        List<Node> chain = new ArrayList<>();
+        for (Node node = last; node != null; node = previous.get(node)) {
+            chain.add(node);
+        }
+        Collections.reverse(chain);
+
+        long serial = timings.keySet().stream().mapToLong(this::duration).sum();
+        long critical = longest.get(last);
+        StringBuilder out = new StringBuilder(String.format(
+                "DAG schedule: %d test nodes, wall %.2fs, serial %.2fs (%.1fx parallel), critical path %.2fs (%.0f%% of wall)",
+                timings.size(), wallNanos / 1e9, serial / 1e9, serial / (double) Math.max(wallNanos, 1), critical / 1e9,
+                100.0 * critical / Math.max(wallNanos, 1)));
+        for (Node node : chain) {
+            out.append(String.format("%n  %8.3fs  %s", duration(node) / 1e9, node.method()));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Duration of the longest dependency chain ending at {@code node}, memoized; {@code previous} records the chain.
+     */
+    private long longest(Node node, Map<Node, Long> longest, Map<Node, Node> previous) {
+        Long known = longest.get(node);
+        if (known != null) {
+            return known;
+        }
+        long before = 0;
+        for (String dependency : methods.get(node).getMethodsDependedUpon()) {
+            Node upstream = new Node(node.instance(), dependency);
+            if (!timings.containsKey(upstream)) {
+                continue;
+            }
+            long length = longest(upstream, longest, previous);
+            if (length > before) {
+                before = length;
+                previous.put(node, upstream);
+            }
+        }
+        long total = before + duration(node);
+        longest.put(node, total);
+        return total;
+    }
+
+    private long duration(Node node) {
+        long[] timing = timings.get(node);
+        return timing[1] == 0 ? 0 : timing[1] - timing[0];
+    }
+
+    private static Node nodeOf(ITestNGMethod method) {
+        return new Node(method.getInstance(), method.getQualifiedName());
+    }
+}
@@ -0,0 +1,22 @@
+package dag;
+
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.ITestAnnotation;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Drops {@code priority} so the only edges left in TestNG's method graph are {@code dependsOnMethods}, the steps
+ * whose scenario state a test reads. With {@code parallel="methods"} and {@code preserve-order="false"}, every test
+ * whose dependencies have finished is free to run.
+ */
+public class DependencyOnlyOrdering implements IAnnotationTransformer {
+
+    // TestNG declares these parameters raw; Class<?>/Constructor<?> would not override the interface method.
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        annotation.setPriority(0);
+    }
+}
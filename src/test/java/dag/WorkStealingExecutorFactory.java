@@ -0,0 +1,27 @@
+package dag;
+
+import org.testng.IExecutorServiceFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs TestNG's ready methods on a work-stealing {@link ForkJoinPool} sized to the suite's {@code thread-count}.
+ * Pass it with {@code -threadpoolfactoryclass dag.WorkStealingExecutorFactory}.
+ */
+public class WorkStealingExecutorFactory implements IExecutorServiceFactory {
+
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        return new ForkJoinPool(Math.max(1, maximumPoolSize), pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("dag-" + worker.getName());
+            return worker;
+        }, null, true);
+    }
+}
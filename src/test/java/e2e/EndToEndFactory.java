@@ -0,0 +1,20 @@
+package e2e;
+
+import base.Config;
+import org.testng.annotations.Factory;
+
+import java.util.stream.IntStream;
+
+/**
+ * Creates {@code e2e.scenarios} independent {@link EndToEndTest} instances for parallel runs.
+ * Each instance owns its scenario context and creates its own user, category and product.
+ */
+public class EndToEndFactory {
+
+    @Factory
+    public Object[] scenarios() {
+        return IntStream.range(0, Config.integer("e2e.scenarios", 4))
+                .mapToObj(i -> new EndToEndTest())
+                .toArray();
+    }
+}
@@ -1,7 +1,10 @@
 package e2e;
 
+import auth.TokenManager;
 import base.BaseTest;
 import POJO.*;
+import client.SuiteClient;
+import context.TestData;
 
 import io.qameta.allure.*;
 
@@ -11,24 +14,43 @@ import io.restassured.response.Response;
 import org.junit.jupiter.api.DisplayName;
 import org.testng.Assert;
 import org.testng.annotations.Test;
+import validation.StreamingArrayAssertion;
 
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Epic("E2E Testing")
 @Feature("Full User-Category-Product Flow")
 public class EndToEndTest extends BaseTest {
+    private final User newUser = new User(TestData.uniqueEmail("H"), "H123456", "Mostafa", "hamed.png");
+    private final Category newCategory = new Category(TestData.uniqueName("Animals"), "pet.jpg");
+    private CompletableFuture<Response> userCreated;
+    private CompletableFuture<Response> categoryCreated;
+    private boolean overlapCreations = true;
+
+    /**
+     * A scenario whose createUser and createCategory each send only their own request, for load runs that time
+     * every step. Overlapped, createCategory would measure nothing but the wait for a response sent by createUser.
+     */
+    public static EndToEndTest stepByStep() {
+        EndToEndTest scenario = new EndToEndTest();
+        scenario.overlapCreations = false;
+        return scenario;
+    }
 
-    private int userId;
-    private String userEmail;
-    private String userPassword;
-    private String accessToken;
-    private String refreshToken;
-
-    private int categoryId;
-    private Category category;
-
-    private int productId;
+    /**
+     * The user and the category do not depend on each other, so whichever of createUser and createCategory runs
+     * first sends both requests at once; each test then waits for and checks its own response.
+     */
+    private synchronized void sendCreations(boolean forUser) {
+        if (userCreated == null && (forUser || overlapCreations)) {
+            userCreated = SuiteClient.get().async().post("/users/", newUser);
+        }
+        if (categoryCreated == null && (!forUser || overlapCreations)) {
+            categoryCreated = SuiteClient.get().async().post("/categories/", newCategory);
+        }
+    }
 
     @Test(priority = 1)
     @Story("User Management")
@@ -36,30 +58,26 @@ public class EndToEndTest extends BaseTest {
     @DisplayName("Create New User")
     @Description("Create a user using POJO and verify successful creation")
     public void createUser() {
-        User user = new User("H" + System.currentTimeMillis() + "@gmail.com", "H123456", "Mostafa", "hamed.png");
-
-        Response response = RestAssured.given(Spec)
-                .contentType(ContentType.JSON)
-                .body(user)
-                .post("/users/");
+        sendCreations(true);
+        Response response = userCreated.join();
 
         User responseUser = response.as(User.class);
 
-        userId = responseUser.getId();
-        userEmail = user.getEmail();
-        userPassword = user.getPassword();
+        scenario.put("userId", responseUser.getId());
+        scenario.put("userEmail", newUser.getEmail());
+        scenario.put("userPassword", newUser.getPassword());
 
         Assert.assertEquals(response.getStatusCode(), 201, "User creation should return 201");
         Assert.assertEquals(responseUser.getRole(), "customer", "User role should be 'customer'");
     }
 
-    @Test(priority = 2)
+    @Test(priority = 2, dependsOnMethods = "createUser")
     @Story("User Management")
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Login with Created User")
     @Description("Login with the previously created user and get access/refresh tokens")
     public void loginUser() {
-        RequestLogin login = new RequestLogin(userEmail, userPassword);
+        RequestLogin login = new RequestLogin(scenario.get("userEmail"), scenario.get("userPassword"));
 
         Response response = RestAssured.given(Spec)
                 .contentType(ContentType.JSON)
@@ -67,29 +85,32 @@ public class EndToEndTest extends BaseTest {
                 .post("/auth/login");
 
         ResponseLogin loginResponse = response.as(ResponseLogin.class);
-        accessToken = loginResponse.getAccess_token();
-        refreshToken = loginResponse.getRefresh_token();
+        scenario.put("accessToken", loginResponse.getAccess_token());
+        scenario.put("refreshToken", loginResponse.getRefresh_token());
+        TokenManager.shared().register(login, loginResponse);
 
         Assert.assertEquals(response.getStatusCode(), 201);
-        Assert.assertNotNull(accessToken, "Access token should not be null");
-        Assert.assertNotNull(refreshToken, "Refresh token should not be null");
+        Assert.assertNotNull(loginResponse.getAccess_token(), "Access token should not be null");
+        Assert.assertNotNull(loginResponse.getRefresh_token(), "Refresh token should not be null");
     }
 
-    @Test(priority = 3)
+    @Test(priority = 3, dependsOnMethods = "loginUser")
     @Story("User Management")
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Access User Profile")
     @Description("Get the user profile using the access token")
     public void getUserProfile() {
+        int userId = scenario.get("userId");
+        RequestLogin login = new RequestLogin(scenario.get("userEmail"), scenario.get("userPassword"));
         Response response = RestAssured.given(Spec)
-                .header("Authorization", "Bearer " + accessToken)
+                .filter(TokenManager.shared().bearer(login))
                 .get("/auth/profile");
 
         Assert.assertEquals(response.getStatusCode(), 200);
         Assert.assertEquals(response.jsonPath().getInt("id"), userId, "Profile ID should match created user ID");
     }
 
-    @Test(priority = 4)
+    @Test(priority = 4, dependsOnMethods = "getUserProfile")
     @Story("User Management")
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Update User")
@@ -101,7 +122,7 @@ public class EndToEndTest extends BaseTest {
         Response response = RestAssured.given(Spec)
                 .contentType(ContentType.JSON)
                 .body(user)
-                .put("/users/" + userId);
+                .put("/users/" + scenario.get("userId"));
 
         Assert.assertEquals(response.getStatusCode(), 200);
         Assert.assertEquals(response.jsonPath().getString("email"), user.getEmail());
@@ -115,15 +136,11 @@ public class EndToEndTest extends BaseTest {
     @DisplayName("Create Category")
     @Description("Create a new product category and verify creation")
     public void createCategory() {
-        category = new Category("Animals", "pet.jpg");
-
-        Response response = RestAssured.given(Spec)
-                .contentType(ContentType.JSON)
-                .body(category)
-                .post("/categories/");
+        sendCreations(false);
+        Response response = categoryCreated.join();
 
         Category responseCategory = response.as(Category.class);
-        categoryId = responseCategory.getId();
+        scenario.put("categoryId", responseCategory.getId());
 
         Assert.assertEquals(response.getStatusCode(), 201);
         Assert.assertNotNull(responseCategory.getName());
@@ -131,13 +148,13 @@ public class EndToEndTest extends BaseTest {
         Assert.assertNotNull(responseCategory.getImage());
     }
 
-    @Test(priority = 6)
+    @Test(priority = 6, dependsOnMethods = "createCategory")
     @Story("Product Management")
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Create Product")
     @Description("Create a product and validate the response")
     public void createProduct() {
-        Product product = new Product("Cat", 100, "Egyptian Cat", categoryId, List.of("cat1.png", "cat2.png"));
+        Product product = new Product("Cat", 100, "Egyptian Cat", scenario.get("categoryId"), List.of("cat1.png", "cat2.png"));
 
         Response response = RestAssured.given(Spec)
                 .contentType(ContentType.JSON)
@@ -145,17 +162,18 @@ public class EndToEndTest extends BaseTest {
                 .post("/products/");
 
         Product responseProduct = response.as(Product.class);
-        productId = responseProduct.getId();
+        scenario.put("productId", responseProduct.getId());
 
         Assert.assertEquals(response.getStatusCode(), 201);
     }
 
-    @Test(priority = 7)
+    @Test(priority = 7, dependsOnMethods = "createProduct")
     @Story("Product Management")
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Get Product")
     @Description("Fetch product details by ID")
     public void getProduct() {
+        int productId = scenario.get("productId");
         Response response = RestAssured.given(Spec).get("/products/" + productId);
         Product responseProduct = response.as(Product.class);
 
@@ -165,7 +183,7 @@ public class EndToEndTest extends BaseTest {
         Assert.assertNotNull(responseProduct.getCategory());
     }
 
-    @Test(priority = 8)
+    @Test(priority = 8, dependsOnMethods = "getProduct")
     @Story("Product Management")
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Partially Update Product")
@@ -177,12 +195,12 @@ public class EndToEndTest extends BaseTest {
         Response response = RestAssured.given(Spec)
                 .contentType(ContentType.JSON)
                 .body(product)
-                .put("/products/" + productId);
+                .put("/products/" + scenario.get("productId"));
 
         Assert.assertEquals(response.getStatusCode(), 200);
     }
 
-    @Test(priority = 9)
+    @Test(priority = 9, dependsOnMethods = "partiallyUpdateProduct")
     @Story("Product Management")
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Fully Update Product")
@@ -194,12 +212,12 @@ public class EndToEndTest extends BaseTest {
                 "https://placehold2.co/600x400"
         );
 
-        product.fullyUpdateProduct("Change title", 250, "Changed Description", categoryId, images);
+        product.fullyUpdateProduct("Change title", 250, "Changed Description", scenario.get("categoryId"), images);
 
         Response response = RestAssured.given(Spec)
                 .contentType(ContentType.JSON)
                 .body(product)
-                .put("/products/" + productId);
+                .put("/products/" + scenario.get("productId"));
 
         Product responseProduct = response.as(Product.class);
 
@@ -210,31 +228,25 @@ public class EndToEndTest extends BaseTest {
         Assert.assertEquals(responseProduct.getImages(), images);
     }
 
-    @Test(priority = 10)
+    @Test(priority = 10, dependsOnMethods = "fullyUpdateProduct")
     @Story("Product Management")
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Filter Product by Category")
     @Description("Get products filtered by category ID")
     public void filterProductsByCategoryId() {
-        Response response = RestAssured.given(Spec)
-                .queryParam("categoryId", categoryId)
-                .get("/products/");
-
-        Assert.assertEquals(response.getStatusCode(), 200);
-
-        List<Product> products = response.jsonPath().getList("", Product.class);
-        for (Product product : products) {
-            Assert.assertEquals(product.getCategory().getId(), categoryId);
-        }
+        int categoryId = scenario.get("categoryId");
+        StreamingArrayAssertion.elementsOf(Product.class)
+                .each("category.id == " + categoryId, product -> product.getCategory().getId() == categoryId)
+                .verifyGet("/products/?categoryId=" + categoryId);
     }
 
-    @Test(priority = 11, dependsOnMethods = "createProduct")
+    @Test(priority = 11, dependsOnMethods = {"createProduct", "filterProductsByCategoryId"}, alwaysRun = true)
     @Story("Product Management")
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Delete Product")
     @Description("Delete created product by ID")
     public void deleteProduct() {
-        Response response = RestAssured.given(Spec).delete("/products/" + productId);
+        Response response = RestAssured.given(Spec).delete("/products/" + scenario.get("productId"));
 
         Assert.assertEquals(response.getStatusCode(), 200);
         Assert.assertEquals(response.getBody().asString(), "true");
@@ -246,7 +258,7 @@ public class EndToEndTest extends BaseTest {
     @DisplayName("Verify Deleted Product")
     @Description("Try to get deleted product and verify it no longer exists")
     public void verifyProductDeleted() {
-        Response response = RestAssured.given(Spec).get("/products/" + productId);
+        Response response = RestAssured.given(Spec).get("/products/" + scenario.get("productId"));
 
         Assert.assertEquals(response.getStatusCode(), 400);
         Assert.assertEquals(response.jsonPath().getString("name"), "EntityNotFoundError");
@@ -258,19 +270,20 @@ public class EndToEndTest extends BaseTest {
     @DisplayName("Delete Category")
     @Description("Delete created category by ID")
     public void deleteCategory() {
-        Response response = RestAssured.given(Spec).delete("/categories/" + categoryId);
+        Response response = RestAssured.given(Spec).delete("/categories/" + scenario.get("categoryId"));
 
         Assert.assertEquals(response.getStatusCode(), 200);
         Assert.assertEquals(response.getBody().asString(), "true");
     }
 
-    @Test(priority = 14)
+    @Test(priority = 14, dependsOnMethods = "updateUser", alwaysRun = true)
     @Story("User Management")
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Delete User")
     @Description("Delete the created user")
     public void deleteUser() {
-        Response response = RestAssured.given(Spec).delete("/users/" + userId);
+        Response response = RestAssured.given(Spec).delete("/users/" + scenario.get("userId"));
+        TokenManager.shared().forget(new RequestLogin(scenario.get("userEmail"), scenario.get("userPassword")));
 
         Assert.assertEquals(response.getStatusCode(), 200);
         Assert.assertEquals(response.getBody().asString(), "true");
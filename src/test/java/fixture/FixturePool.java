@@ -0,0 +1,170 @@
+package fixture;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.testng.SkipException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps ready-made entities of one type, sized to demand: it starts empty, and each checkout that finds it empty
+ * raises the number kept ready by one, up to {@code depth}. Creations run concurrently on virtual threads, at most
+ * {@code concurrency} at a time. Once more than one entity is kept ready, the pool tops itself up in the background
+ * whenever a checkout drops it to half that number.
+ */
+public class FixturePool<T> implements AutoCloseable {
+    private final String name;
+    private final Supplier<T> factory;
+    private final Consumer<T> cleanup;
+    private final int depth;
+    private final Duration checkoutTimeout;
+    private final BlockingQueue<T> available = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+    private final ExecutorService creators = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger target = new AtomicInteger();
+    private final Histogram waitMicros = new ConcurrentHistogram(3);
+    private final LongAdder created = new LongAdder();
+    private final LongAdder returned = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicReference<Throwable> lastFailure = new AtomicReference<>();
+    private volatile boolean closed;
+
+    public FixturePool(String name, Supplier<T> factory, Consumer<T> cleanup, int depth, int concurrency, Duration checkoutTimeout) {
+        this.name = name;
+        this.factory = factory;
+        this.cleanup = cleanup;
+        this.depth = depth;
+        this.checkoutTimeout = checkoutTimeout;
+        this.permits = new Semaphore(concurrency);
+    }
+
+    /**
+     * Fills the pool to its full depth and waits until every creation has finished, for callers that know they will
+     * need that many.
+     */
+    public FixturePool<T> prime() {
+        target.set(depth);
+        for (Future<?> creation : refill()) {
+            try {
+                creation.get(checkoutTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                break;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Takes a ready entity, waiting for an in-flight creation if the pool is empty. The caller owns the
+     * entity until it is handed back with {@link #checkin}; entities that were modified or deleted are simply not returned.
+     */
+    public T checkout() {
+        long start = System.nanoTime();
+        T entity = available.poll();
+        if (entity == null) {
+            target.updateAndGet(ready -> Math.min(depth, ready + 1));
+            refill();
+            try {
+                entity = available.poll(checkoutTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        waitMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        if (entity == null) {
+            Throwable cause = lastFailure.get();
+            throw new SkipException("No " + name + " fixture became available within " + checkoutTimeout.toMillis()
+                    + " ms" + (cause == null ? "" : ": " + cause), cause);
+        }
+        int ready = target.get();
+        if (ready > 1 && available.size() + inFlight.get() <= ready / 2) {
+            refill();
+        }
+        return entity;
+    }
+
+    /**
+     * Returns an unmodified entity so later tests can reuse it.
+     */
+    public void checkin(T entity) {
+        if (closed) {
+            cleanup.accept(entity);
+            return;
+        }
+        returned.increment();
+        available.offer(entity);
+    }
+
+    private synchronized List<Future<?>> refill() {
+        List<Future<?>> creations = new ArrayList<>();
+        int missing = Math.max(target.get(), 1) - available.size() - inFlight.get();
+        for (int i = 0; i < missing && !closed; i++) {
+            inFlight.incrementAndGet();
+            creations.add(creators.submit(this::createOne));
+        }
+        return creations;
+    }
+
+    private void createOne() {
+        try {
+            permits.acquire();
+            try {
+                available.offer(factory.get());
+                created.increment();
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | AssertionError e) {
+            failures.increment();
+            lastFailure.set(e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public FixtureStats stats() {
+        return new FixtureStats(name, available.size(), target.get(), depth, created.sum(), returned.sum(), failures.sum(),
+                waitMicros.getTotalCount(), waitMicros.getValueAtPercentile(50) / 1000.0,
+                waitMicros.getValueAtPercentile(99) / 1000.0, waitMicros.getMaxValue() / 1000.0);
+    }
+
+    /**
+     * Stops refilling and deletes every entity still sitting in the pool.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        creators.close();
+        List<T> leftovers = new ArrayList<>();
+        available.drainTo(leftovers);
+        for (T entity : leftovers) {
+            try {
+                cleanup.accept(entity);
+            } catch (RuntimeException | AssertionError ignored) {
+                // Best effort: a fixture that cannot be deleted only leaves test data behind.
+            }
+        }
+    }
+}
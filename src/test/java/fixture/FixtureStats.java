@@ -0,0 +1,15 @@
+package fixture;
+
+/**
+ * Snapshot of one {@link FixturePool}: current depth, how many entities demand had it keep ready and its cap,
+ * entities created and returned, failed creations, and how long checkouts had to wait.
+ */
+public record FixtureStats(String name, int depth, int target, int maxDepth, long created, long returned, long failures,
+                           long checkouts, double waitP50Millis, double waitP99Millis, double waitMaxMillis) {
+
+    @Override
+    public String toString() {
+        return String.format("Fixture pool %-10s depth=%d (kept ready %d, max %d), created=%d, returned=%d, failures=%d, checkouts=%d, wait p50=%.2f ms p99=%.2f ms max=%.2f ms",
+                name, depth, target, maxDepth, created, returned, failures, checkouts, waitP50Millis, waitP99Millis, waitMaxMillis);
+    }
+}
@@ -0,0 +1,143 @@
+package fixture;
+
+import POJO.Category;
+import POJO.Product;
+import POJO.User;
+import base.Config;
+import client.SuiteClient;
+import context.TestData;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import replay.Traffic;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Suite-wide fixture pools for users, categories and products, created on first use.
+ * Pooled products all live in one dedicated category, so deleting it at shutdown removes them too.
+ */
+public final class Fixtures {
+    private static final String IMAGE = "https://i.imgur.com/QkIa5tT.jpeg";
+
+    private static volatile Fixtures instance;
+
+    private final FixturePool<User> users;
+    private final FixturePool<Category> categories;
+    private final FixturePool<Product> products;
+    private final ReentrantLock productHomeLock = new ReentrantLock();
+    private volatile Category productHome;
+
+    private Fixtures() {
+        int depth = Config.integer("fixture.depth", 4);
+        // A replay must send what the recording sent, in the same order, so both create fixtures one at a time.
+        int concurrency = Traffic.mode() != Traffic.Mode.OFF ? 1 : Config.integer("fixture.concurrency", 4);
+        Duration timeout = Duration.ofMillis(Config.longValue("fixture.checkoutTimeoutMillis", 30_000));
+        users = new FixturePool<>("users", Fixtures::createUser, user -> delete("/users/" + user.getId()),
+                Config.integer("fixture.users.depth", depth), concurrency, timeout);
+        categories = new FixturePool<>("categories", () -> createCategory("categories"), category -> delete("/categories/" + category.getId()),
+                Config.integer("fixture.categories.depth", depth), concurrency, timeout);
+        products = new FixturePool<>("products", this::createProduct, product -> delete("/products/" + product.getId()),
+                Config.integer("fixture.products.depth", depth), concurrency, timeout);
+    }
+
+    public static Fixtures get() {
+        if (instance == null) {
+            synchronized (Fixtures.class) {
+                if (instance == null) {
+                    instance = new Fixtures();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Pooled customers. The returned {@link User} keeps the plain-text password, so it can log in.
+     */
+    public FixturePool<User> users() {
+        return users;
+    }
+
+    public FixturePool<Category> categories() {
+        return categories;
+    }
+
+    public FixturePool<Product> products() {
+        return products;
+    }
+
+    /**
+     * Deletes every pooled entity that was not checked out, prints the pool stats and forgets the instance.
+     * Does nothing if no test used a fixture.
+     */
+    public static void shutdown() {
+        synchronized (Fixtures.class) {
+            if (instance == null) {
+                return;
+            }
+            for (FixturePool<?> pool : List.of(instance.users, instance.categories, instance.products)) {
+                System.out.println(pool.stats());
+                pool.close();
+            }
+            if (instance.productHome != null) {
+                delete("/categories/" + instance.productHome.getId());
+            }
+            instance = null;
+        }
+    }
+
+    private static User createUser() {
+        User user = new User("fixture" + TestData.uniqueSuffix("users") + "@gmail.com", "Fixture123", "Fixture User", IMAGE);
+        User created = created(RestAssured.given(SuiteClient.spec())
+                .contentType(ContentType.JSON)
+                .body(user)
+                .post("/users/")).as(User.class);
+        created.setPassword(user.getPassword());
+        return created;
+    }
+
+    private static Category createCategory(String scope) {
+        return created(RestAssured.given(SuiteClient.spec())
+                .contentType(ContentType.JSON)
+                .body(new Category("Fixture " + TestData.uniqueSuffix(scope), IMAGE))
+                .post("/categories/")).as(Category.class);
+    }
+
+    private Product createProduct() {
+        Product product = new Product("Fixture product " + TestData.uniqueSuffix("products"), 100, "Pooled test fixture",
+                productHome().getId(), List.of(IMAGE));
+        return created(RestAssured.given(SuiteClient.spec())
+                .contentType(ContentType.JSON)
+                .body(product)
+                .post("/products/")).as(Product.class);
+    }
+
+    private Category productHome() {
+        // A lock rather than synchronized: creators are virtual threads and must not pin their carrier during I/O.
+        if (productHome == null) {
+            productHomeLock.lock();
+            try {
+                if (productHome == null) {
+                    productHome = createCategory("home");
+                }
+            } finally {
+                productHomeLock.unlock();
+            }
+        }
+        return productHome;
+    }
+
+    private static Response created(Response response) {
+        if (response.getStatusCode() != 201) {
+            throw new IllegalStateException("Fixture creation returned " + response.getStatusCode() + ": " + response.asString());
+        }
+        return response;
+    }
+
+    private static void delete(String path) {
+        RestAssured.given(SuiteClient.spec()).delete(path);
+    }
+}
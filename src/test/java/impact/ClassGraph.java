@@ -0,0 +1,144 @@
+package impact;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Project classes reachable from a test class, read from the class files' constant pools: class entries,
+ * descriptors and generic signatures, and dotted names in string constants. Only classes loaded from a directory
+ * (the build's {@code classes} and {@code test-classes}) count; library jars and the JDK are left out.
+ * <p>
+ * Edges into a data package ({@code POJO} by default) are only followed from the test's own package or from
+ * another data class. Shared infrastructure such as {@code fixture} and {@code schema} touches every model, so
+ * following its edges would tie every test to every model; its own bytecode still counts for all tests.
+ */
+final class ClassGraph {
+    private static final Pattern DESCRIPTOR = Pattern.compile("L([\\w$/]+)[;<]");
+    private static final Pattern NAME = Pattern.compile("[\\w$]+(?:[./][\\w$]+)+");
+
+    private final ClassLoader loader;
+    private final Set<String> dataPackages;
+    private final Map<String, Optional<Node>> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * A project class file: its SHA-256 and the names its constant pool mentions.
+     */
+    private record Node(byte[] digest, Set<String> references) {
+    }
+
+    ClassGraph(ClassLoader loader, Set<String> dataPackages) {
+        this.loader = loader;
+        this.dataPackages = dataPackages;
+    }
+
+    /**
+     * Internal names of the project classes {@code testClass} depends on, itself included, with each class file's
+     * SHA-256, in name order.
+     */
+    SortedMap<String, byte[]> closure(Class<?> testClass) {
+        String root = testClass.getName().replace('.', '/');
+        String testPackage = packageOf(root);
+        SortedMap<String, byte[]> reached = new TreeMap<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            String name = pending.pop();
+            Optional<Node> node = node(name);
+            if (node.isEmpty() || reached.putIfAbsent(name, node.get().digest()) != null) {
+                continue;
+            }
+            boolean followsData = packageOf(name).equals(testPackage) || isData(name);
+            for (String reference : node.get().references()) {
+                if (!reached.containsKey(reference) && (followsData || !isData(reference))) {
+                    pending.push(reference);
+                }
+            }
+        }
+        return reached;
+    }
+
+    private Optional<Node> node(String name) {
+        Optional<Node> known = nodes.get(name);
+        if (known != null) {
+            return known;
+        }
+        Optional<Node> node = Optional.empty();
+        if (!name.startsWith("java/") && !name.startsWith("javax/") && !name.startsWith("jdk/")) {
+            URL url = loader.getResource(name + ".class");
+            if (url != null && "file".equals(url.getProtocol())) {
+                try (InputStream in = url.openStream()) {
+                    byte[] bytes = in.readAllBytes();
+                    node = Optional.of(new Node(MessageDigest.getInstance("SHA-256").digest(bytes), references(bytes)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read " + url, e);
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        nodes.put(name, node);
+        return node;
+    }
+
+    /**
+     * Every name in the constant pool that could be a class: Utf8 entries are the only place names live, since
+     * class, name-and-type and method-type entries just point at them.
+     */
+    static Set<String> references(byte[] classFile) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+        in.skipBytes(8);
+        int count = in.readUnsignedShort();
+        Set<String> names = new HashSet<>();
+        for (int index = 1; index < count; index++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1 -> collect(in.readUTF(), names);
+                case 7, 8, 16, 19, 20 -> in.skipBytes(2);
+                case 15 -> in.skipBytes(3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> in.skipBytes(4);
+                case 5, 6 -> {
+                    in.skipBytes(8);
+                    index++;
+                }
+                default -> throw new IOException("Unknown constant pool tag " + tag + " at entry " + index);
+            }
+        }
+        return names;
+    }
+
+    private static void collect(String utf8, Set<String> names) {
+        Matcher descriptor = DESCRIPTOR.matcher(utf8);
+        while (descriptor.find()) {
+            names.add(descriptor.group(1));
+        }
+        if (NAME.matcher(utf8).matches()) {
+            names.add(utf8.replace('.', '/'));
+        }
+    }
+
+    private boolean isData(String name) {
+        return dataPackages.contains(packageOf(name));
+    }
+
+    private static String packageOf(String name) {
+        int slash = name.lastIndexOf('/');
+        return slash < 0 ? "" : name.substring(0, slash).replace('/', '.');
+    }
+}
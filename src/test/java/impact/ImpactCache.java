@@ -0,0 +1,145 @@
+package impact;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Last green outcome of each test class, one {@code <class>.json} per class: the fingerprint it ran under, the run
+ * that produced it and that run's Allure results. Attachments the results point to are copied to
+ * {@code attachments/}, since the results directory may be cleaned between runs.
+ */
+final class ImpactCache {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Path dir;
+    private final Path attachments;
+
+    record Entry(String testClass, String fingerprint, String runId, List<ObjectNode> results) {
+    }
+
+    ImpactCache(Path dir) {
+        this.dir = dir;
+        this.attachments = dir.resolve("attachments");
+        try {
+            Files.createDirectories(attachments);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the test-impact cache in " + dir, e);
+        }
+    }
+
+    /**
+     * The entry for {@code testClass} if its last green run had this fingerprint, else {@code null}.
+     */
+    Entry green(String testClass, String fingerprint) {
+        Path file = file(testClass);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            Entry entry = JSON.readValue(file.toFile(), Entry.class);
+            return fingerprint.equals(entry.fingerprint()) ? entry : null;
+        } catch (IOException e) {
+            // A cache file from an older layout or an interrupted write is just a miss.
+            return null;
+        }
+    }
+
+    /**
+     * Stores a green run of {@code testClass}, copying in the attachments its results reference from {@code results}.
+     */
+    void store(Entry entry, Path results) {
+        evict(entry.testClass());
+        for (ObjectNode result : entry.results()) {
+            forEachAttachment(result, attachment -> copy(results.resolve(attachment.path("source").asText()),
+                    attachments.resolve(attachment.path("source").asText())));
+        }
+        Path file = file(entry.testClass());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            JSON.writeValue(temporary.toFile(), entry);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    void evict(String testClass) {
+        Path file = file(testClass);
+        try {
+            if (Files.exists(file)) {
+                for (ObjectNode result : JSON.readValue(file.toFile(), Entry.class).results()) {
+                    forEachAttachment(result, attachment -> delete(attachments.resolve(attachment.path("source").asText())));
+                }
+            }
+        } catch (IOException e) {
+            // Unreadable entries leave their attachments behind; the entry itself still goes.
+        }
+        delete(file);
+    }
+
+    /**
+     * Writes {@code result} into {@code results} under a new uuid, along with fresh copies of its attachments.
+     */
+    void replay(ObjectNode result, Path results) {
+        String uuid = UUID.randomUUID().toString();
+        result.put("uuid", uuid);
+        forEachAttachment(result, attachment -> {
+            String source = attachment.path("source").asText();
+            int suffix = source.indexOf("-attachment");
+            String copy = UUID.randomUUID() + (suffix < 0 ? "-" + source : source.substring(suffix));
+            copy(attachments.resolve(source), results.resolve(copy));
+            attachment.put("source", copy);
+        });
+        try {
+            Files.createDirectories(results);
+            JSON.writeValue(results.resolve(uuid + "-result.json").toFile(), result);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay " + result.path("fullName").asText() + " into " + results, e);
+        }
+    }
+
+    /**
+     * Applies {@code action} to the attachments of a result and of its steps, at any depth.
+     */
+    private static void forEachAttachment(JsonNode node, Consumer<ObjectNode> action) {
+        List<JsonNode> pending = new ArrayList<>(List.of(node));
+        while (!pending.isEmpty()) {
+            JsonNode current = pending.removeLast();
+            current.path("attachments").forEach(attachment -> action.accept((ObjectNode) attachment));
+            current.path("steps").forEach(pending::add);
+        }
+    }
+
+    private static void copy(Path from, Path to) {
+        try {
+            if (Files.exists(from)) {
+                Files.copy(from, to, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not copy " + from + " to " + to, e);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete " + file, e);
+        }
+    }
+
+    private Path file(String testClass) {
+        return dir.resolve(testClass + ".json");
+    }
+}
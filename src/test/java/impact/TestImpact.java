@@ -0,0 +1,278 @@
+package impact;
+
+import base.Config;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import context.TestData;
+import logging.ExchangeLogListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Skips test classes whose last green run had the same fingerprint, with {@code -Dimpact.enabled=true}. A
+ * fingerprint hashes the class's bytecode, the project classes it reaches (see {@link ClassGraph}), the non-class
+ * resources on the test classpath, the {@code impact.inputs} files and the target environment.
+ * <p>
+ * Classes are the unit because their methods share scenario state through {@code dependsOnMethods}: one method
+ * cannot be skipped while another reads what it created. A skipped class's cached Allure results are written
+ * back under the current {@code runId} with an {@value #LABEL} label, so the report still lists every test.
+ */
+public class TestImpact implements IMethodInterceptor, ISuiteListener {
+    public static final String LABEL = "impact";
+    public static final String REPLAYED = "replayed";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final boolean ENABLED = Boolean.getBoolean("impact.enabled");
+    private static final Path RESULTS = Path.of(System.getProperty("allure.results.directory", "allure-results"));
+    /**
+     * TestNG creates one interceptor per {@code <test>} but calls only one of them as the suite listener, so the
+     * suite's state is shared.
+     */
+    private static volatile Run run;
+
+    private static final class Run {
+        final ImpactCache cache = new ImpactCache(Path.of(System.getProperty("impact.dir", ".test-impact")));
+        final ClassGraph graph = new ClassGraph(TestImpact.class.getClassLoader(),
+                Set.of(System.getProperty("impact.dataPackages", "POJO").split(",")));
+        final byte[] environment;
+        final long startMillis = System.currentTimeMillis();
+        final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+        final Set<String> replayed = ConcurrentHashMap.newKeySet();
+        long fingerprintNanos;
+        int replayedMethods;
+
+        Run(String suite) {
+            environment = environment(suite);
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (ENABLED) {
+            synchronized (TestImpact.class) {
+                run = new Run(suite.getName());
+            }
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ENABLED) {
+            return methods;
+        }
+        Run current = current(context.getSuite());
+        synchronized (current) {
+            Set<Class<?>> skipped = new HashSet<>();
+            for (IMethodInstance method : methods) {
+                Class<?> testClass = method.getMethod().getRealClass();
+                String name = testClass.getName();
+                String fingerprint = current.fingerprints.computeIfAbsent(name, key -> fingerprint(current, testClass));
+                if (current.replayed.contains(name)) {
+                    skipped.add(testClass);
+                    continue;
+                }
+                ImpactCache.Entry entry = current.cache.green(name, fingerprint);
+                if (entry != null) {
+                    replay(current, entry);
+                    current.replayed.add(name);
+                    skipped.add(testClass);
+                }
+            }
+            List<IMethodInstance> remaining = new ArrayList<>(methods.size());
+            for (IMethodInstance method : methods) {
+                if (!skipped.contains(method.getMethod().getRealClass())) {
+                    remaining.add(method);
+                }
+            }
+            return remaining;
+        }
+    }
+
+    private static synchronized Run current(ISuite suite) {
+        if (run == null) {
+            run = new Run(suite.getName());
+        }
+        return run;
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Run current = run;
+        if (!ENABLED || current == null) {
+            return;
+        }
+        Map<String, int[]> outcomes = new HashMap<>();
+        for (ISuiteResult suiteResult : suite.getResults().values()) {
+            ITestContext context = suiteResult.getTestContext();
+            count(context.getPassedTests().getAllResults(), outcomes, 0);
+            count(context.getFailedTests().getAllResults(), outcomes, 1);
+            count(context.getFailedButWithinSuccessPercentageTests().getAllResults(), outcomes, 1);
+            count(context.getSkippedTests().getAllResults(), outcomes, 1);
+        }
+        Map<String, List<ObjectNode>> allure = allureResults(current.startMillis);
+        List<String> ran = new ArrayList<>();
+        for (Map.Entry<String, int[]> outcome : outcomes.entrySet()) {
+            String name = outcome.getKey();
+            String fingerprint = current.fingerprints.get(name);
+            if (fingerprint == null || current.replayed.contains(name)) {
+                continue;
+            }
+            ran.add(name);
+            if (outcome.getValue()[1] == 0) {
+                current.cache.store(new ImpactCache.Entry(name, fingerprint, TestData.runId(), allure.getOrDefault(name, List.of())),
+                        RESULTS);
+            } else {
+                current.cache.evict(name);
+            }
+        }
+        System.out.println(String.format(
+                "Test impact: %d classes replayed from cache (%d methods), %d ran%s; fingerprinted %d classes in %.1f ms",
+                current.replayed.size(), current.replayedMethods, ran.size(),
+                ran.isEmpty() ? "" : " (" + String.join(", ", new TreeSet<>(ran)) + ")",
+                current.fingerprints.size(), current.fingerprintNanos / 1e6));
+    }
+
+    private static String fingerprint(Run current, Class<?> testClass) {
+        long start = System.nanoTime();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, byte[]> dependency : current.graph.closure(testClass).entrySet()) {
+                digest.update(dependency.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update(dependency.getValue());
+            }
+            digest.update(current.environment);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            current.fingerprintNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * What every test depends on besides code: the target API, the suite, the settings in {@code impact.properties},
+     * the non-class resources on the test classpath and the {@code impact.inputs} files (the Postman collection and
+     * environment by default).
+     */
+    private static byte[] environment(String suite) {
+        StringBuilder settings = new StringBuilder(suite).append('\n')
+                .append(Config.isLocal() ? "local" : System.getProperty("api.baseUri", Config.REMOTE_BASE_URI)).append('\n');
+        for (String key : System.getProperty("impact.properties", "schema.validate,traffic.mode,postman.folders").split(",")) {
+            settings.append(key).append('=').append(System.getProperty(key, "")).append('\n');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(settings.toString().getBytes(StandardCharsets.UTF_8));
+            // Keyed by path relative to its root, so checkouts in different directories agree.
+            Map<String, Path> files = new TreeMap<>();
+            for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+                Path root = Path.of(entry);
+                if (Files.isDirectory(root)) {
+                    try (Stream<Path> walk = Files.walk(root)) {
+                        walk.filter(file -> Files.isRegularFile(file) && !file.toString().endsWith(".class"))
+                                .forEach(file -> files.put(root.relativize(file).toString(), file));
+                    }
+                }
+            }
+            for (String input : System.getProperty("impact.inputs",
+                    "PlatziFakeStore.postman_collection.json,UAT.postman_environment.json").split(",")) {
+                Path file = Path.of(input.trim());
+                if (!input.isBlank() && Files.isRegularFile(file)) {
+                    files.put(input.trim(), file);
+                }
+            }
+            for (Map.Entry<String, Path> file : files.entrySet()) {
+                digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update(Files.readAllBytes(file.getValue()));
+            }
+            return digest.digest();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not fingerprint the test resources", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void replay(Run current, ImpactCache.Entry entry) {
+        long now = System.currentTimeMillis();
+        for (ObjectNode result : entry.results()) {
+            long duration = result.path("stop").asLong() - result.path("start").asLong();
+            result.put("start", now).put("stop", now + duration);
+            ArrayNode labels = result.withArray("labels");
+            for (JsonNode label : labels) {
+                if (ExchangeLogListener.RUN_ID_LABEL.equals(label.path("name").asText())) {
+                    ((ObjectNode) label).put("value", TestData.runId());
+                }
+            }
+            labels.addObject().put("name", LABEL).put("value", REPLAYED);
+            result.withObject("statusDetails").put("message",
+                    "Replayed from run " + entry.runId() + ": the fingerprint has not changed since it passed");
+            current.cache.replay(result, RESULTS);
+            current.replayedMethods++;
+        }
+    }
+
+    /**
+     * This run's Allure results by test class. Only files written since the suite started are opened.
+     */
+    private static Map<String, List<ObjectNode>> allureResults(long sinceMillis) {
+        Map<String, List<ObjectNode>> byClass = new HashMap<>();
+        if (!Files.isDirectory(RESULTS)) {
+            return byClass;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(RESULTS, "*-result.json")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < sinceMillis) {
+                    continue;
+                }
+                JsonNode result = JSON.readTree(file.toFile());
+                Map<String, String> labels = new HashMap<>();
+                for (JsonNode label : result.path("labels")) {
+                    labels.putIfAbsent(label.path("name").asText(), label.path("value").asText());
+                }
+                if (TestData.runId().equals(labels.get(ExchangeLogListener.RUN_ID_LABEL)) && !labels.containsKey(LABEL)
+                        && labels.containsKey("testClass")) {
+                    byClass.computeIfAbsent(labels.get("testClass"), key -> new ArrayList<>()).add((ObjectNode) result);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the Allure results in " + RESULTS, e);
+        }
+        return byClass;
+    }
+
+    private static void count(Set<ITestResult> results, Map<String, int[]> outcomes, int column) {
+        for (ITestResult result : results) {
+            outcomes.computeIfAbsent(result.getTestClass().getRealClass().getName(), key -> new int[2])[column]++;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One request/response pair sent by the suite. The event's duration covers the whole filter chain; the network
+ * part is {@link #networkTime}, and the rest is spent in the suite's own filters (logging, schema checks). A
+ * response served by the cache or a replay archive has no network time.
+ */
+@Name("platzi.HttpExchange")
+@Label("HTTP Exchange")
+@Category({"Platzi Fake Store", "HTTP"})
+@Description("A request/response pair sent by the test suite")
+@StackTrace(false)
+public final class HttpExchangeEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Endpoint")
+    @Description("Path with ids and slugs folded, e.g. /products/{id}")
+    public String endpoint;
+
+    @Label("Status")
+    @Description("HTTP status, or 0 when no response arrived")
+    public int status;
+
+    @Label("Request Size")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Size")
+    @DataAmount
+    public long responseBytes;
+
+    @Label("Serialization Time")
+    @Description("Time spent turning the request body object into JSON")
+    @Timespan
+    public long serializationTime;
+
+    @Label("Network Time")
+    @Description("From handing the request to the HTTP client to holding the whole response body")
+    @Timespan
+    public long networkTime;
+
+    @Label("Test Method")
+    public String testMethod;
+
+    @Label("Transport")
+    public String transport;
+}
@@ -0,0 +1,115 @@
+package jfr;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import logging.Exchange;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+/**
+ * Records every exchange sent through the suite spec as an {@link HttpExchangeEvent}. It runs first, so the event
+ * spans all other filters; its {@link #network()} counterpart runs last and times only the HTTP client. Without a
+ * recording, both check that the event type is disabled and pass the request straight on.
+ */
+public final class JfrFilter implements OrderedFilter {
+    private static final String NETWORK_NANOS = "jfr.networkNanos";
+    private static final OrderedFilter NETWORK = new OrderedFilter() {
+
+        @Override
+        public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification responseSpec,
+                               FilterContext context) {
+            if (context.getValue(NETWORK_NANOS) == null) {
+                return context.next(request, responseSpec);
+            }
+            long start = System.nanoTime();
+            Response response = context.next(request, responseSpec);
+            response.asByteArray();
+            context.setValue(NETWORK_NANOS, System.nanoTime() - start);
+            return response;
+        }
+
+        @Override
+        public int getOrder() {
+            return LOWEST_PRECEDENCE;
+        }
+    };
+
+    /**
+     * The filter that times the network part of an exchange; add it to the same spec.
+     */
+    public static OrderedFilter network() {
+        return NETWORK;
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification responseSpec, FilterContext context) {
+        HttpExchangeEvent event = new HttpExchangeEvent();
+        if (!event.isEnabled()) {
+            return context.next(request, responseSpec);
+        }
+        long serialization = TimedObjectMapper.takeSerializationNanos();
+        context.setValue(NETWORK_NANOS, 0L);
+        event.begin();
+        Response response = null;
+        try {
+            response = context.next(request, responseSpec);
+            return response;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = request.getMethod();
+                event.endpoint = Exchange.pathTemplate(request.getURI());
+                event.status = response == null ? 0 : response.getStatusCode();
+                event.requestBytes = bodyLength(request.getBody());
+                event.responseBytes = response == null ? 0 : response.asByteArray().length;
+                event.serializationTime = serialization;
+                event.networkTime = context.<Long>getValue(NETWORK_NANOS);
+                event.testMethod = testMethod();
+                event.transport = "RestAssured";
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Qualified name of the test method running on this thread, or {@code null} off a test thread (load and
+     * fixture threads, async completions).
+     */
+    public static String testMethod() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        return result == null ? null : result.getMethod().getQualifiedName();
+    }
+
+    static long utf8Length(CharSequence text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static long bodyLength(Object body) {
+        if (body == null) {
+            return 0;
+        }
+        return body instanceof byte[] bytes ? bytes.length : utf8Length(body.toString());
+    }
+}
@@ -0,0 +1,35 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A body mapped between JSON and an object by {@link TimedObjectMapper}. Deserialization happens when a test calls
+ * {@code as(...)}, after its {@link HttpExchangeEvent} has ended, so it is recorded here rather than on the exchange.
+ */
+@Name("platzi.JsonMapping")
+@Label("JSON Mapping")
+@Category({"Platzi Fake Store", "HTTP"})
+@Description("A request or response body mapped between JSON and an object")
+@StackTrace(false)
+public final class JsonMappingEvent extends Event {
+
+    @Label("Direction")
+    @Description("serialize or deserialize")
+    public String direction;
+
+    @Label("Type")
+    public String type;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Test Method")
+    public String testMethod;
+}
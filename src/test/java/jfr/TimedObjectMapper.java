@@ -0,0 +1,85 @@
+package jfr;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.mapper.ObjectMapperDeserializationContext;
+import io.restassured.mapper.ObjectMapperSerializationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * RestAssured's JSON mapping on one shared Jackson mapper, configured like RestAssured's default
+ * ({@code findAndRegisterModules()}), with each mapping recorded as a {@link JsonMappingEvent} while a recording is on.
+ * <p>
+ * RestAssured serializes a body as soon as {@code body(...)} is called, before any filter runs. The time is left on
+ * the calling thread for {@link JfrFilter} to put on the exchange that sends it.
+ */
+public final class TimedObjectMapper implements io.restassured.mapper.ObjectMapper {
+    private static final ObjectMapper JSON = new ObjectMapper().findAndRegisterModules();
+    private static final ThreadLocal<long[]> PENDING_SERIALIZATION = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public Object serialize(ObjectMapperSerializationContext context) {
+        Object body = context.getObjectToSerialize();
+        JsonMappingEvent event = new JsonMappingEvent();
+        if (!event.isEnabled()) {
+            return write(body);
+        }
+        long start = System.nanoTime();
+        event.begin();
+        String json = write(body);
+        event.end();
+        PENDING_SERIALIZATION.get()[0] += System.nanoTime() - start;
+        if (event.shouldCommit()) {
+            event.direction = "serialize";
+            event.type = body.getClass().getName();
+            event.bytes = JfrFilter.utf8Length(json);
+            event.testMethod = JfrFilter.testMethod();
+            event.commit();
+        }
+        return json;
+    }
+
+    @Override
+    public Object deserialize(ObjectMapperDeserializationContext context) {
+        byte[] body = context.getDataToDeserialize().asByteArray();
+        JsonMappingEvent event = new JsonMappingEvent();
+        event.begin();
+        Object value = read(body, context);
+        event.end();
+        if (event.shouldCommit()) {
+            event.direction = "deserialize";
+            event.type = context.getType().getTypeName();
+            event.bytes = body.length;
+            event.testMethod = JfrFilter.testMethod();
+            event.commit();
+        }
+        return value;
+    }
+
+    /**
+     * Serialization time left on this thread since the last call, in nanoseconds; resets it.
+     */
+    static long takeSerializationNanos() {
+        long[] pending = PENDING_SERIALIZATION.get();
+        long nanos = pending[0];
+        pending[0] = 0;
+        return nanos;
+    }
+
+    private static String write(Object body) {
+        try {
+            return JSON.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize " + body.getClass().getName(), e);
+        }
+    }
+
+    private static Object read(byte[] body, ObjectMapperDeserializationContext context) {
+        try {
+            return JSON.readValue(body, JSON.constructType(context.getType()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not deserialize " + context.getType().getTypeName(), e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package latency;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * High-dynamic-range latency histogram (microsecond resolution) for one endpoint.
+ */
+public class EndpointLatency {
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final String endpoint;
+    private final Histogram micros = new ConcurrentHistogram(3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicInteger firstErrorStatus = new AtomicInteger();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+    public EndpointLatency(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void record(long elapsedNanos, int statusCode) {
+        micros.recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (statusCode >= 400) {
+            errors.increment();
+            firstErrorStatus.compareAndSet(0, statusCode);
+        }
+    }
+
+    /**
+     * Counts a call that produced no response at all (connection or timeout failure), keeping the first cause.
+     */
+    public void recordFailure(Throwable cause) {
+        errors.increment();
+        failures.increment();
+        firstFailure.compareAndSet(null, cause);
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getCount() {
+        return micros.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Calls that produced no response, and so are not in the histogram.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * The first error status answered, or 0 if every response was a success.
+     */
+    public int getFirstErrorStatus() {
+        return firstErrorStatus.get();
+    }
+
+    /**
+     * Why the first call without a response failed, or {@code null} if every call was answered.
+     */
+    public Throwable getFirstFailure() {
+        return firstFailure.get();
+    }
+
+    public double percentileMillis(double percentile) {
+        return micros.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public String table() {
+        StringBuilder out = new StringBuilder(String.format("%s — %d samples, %d errors%n", endpoint, getCount(), getErrors()));
+        for (double percentile : REPORTED_PERCENTILES) {
+            out.append(String.format("  %-6s %10.2f ms%n", label(percentile), percentileMillis(percentile)));
+        }
+        out.append(String.format("  max    %10.2f ms%n", micros.getMaxValue() / 1000.0));
+        return out.toString();
+    }
+
+    public static String label(double percentile) {
+        return percentile == Math.rint(percentile) ? "p" + (long) percentile : "p" + percentile;
+    }
+
+    /**
+     * HdrHistogram percentile distribution in milliseconds, suitable for plotting.
+     */
+    public String distribution() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+            micros.outputPercentileDistribution(out, 1000.0);
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+}
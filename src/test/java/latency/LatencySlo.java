@@ -0,0 +1,166 @@
+package latency;
+
+import base.Config;
+import io.qameta.allure.Allure;
+import io.restassured.response.Response;
+import org.testng.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Latency objective for one endpoint, checked over many samples instead of a single response:
+ * <pre>
+ * LatencySlo.forEndpoint("GET /categories")
+ *         .percentile(95, Duration.ofMillis(300))
+ *         .verify(() -> RestAssured.given(Spec).get("/categories"));
+ * </pre>
+ * Sample count, warm-up calls and concurrency default to {@code slo.samples}, {@code slo.warmup}
+ * and {@code slo.concurrency}. The percentile table and distribution are attached to Allure.
+ */
+public class LatencySlo {
+    private final String endpoint;
+    private final Map<Double, Duration> objectives = new TreeMap<>();
+    private int samples = Config.integer("slo.samples", 200);
+    private int warmup = Config.integer("slo.warmup", 10);
+    private int concurrency = Config.integer("slo.concurrency", 4);
+
+    private LatencySlo(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public static LatencySlo forEndpoint(String endpoint) {
+        return new LatencySlo(endpoint);
+    }
+
+    public LatencySlo percentile(double percentile, Duration bound) {
+        objectives.put(percentile, bound);
+        return this;
+    }
+
+    public LatencySlo samples(int samples) {
+        this.samples = samples;
+        return this;
+    }
+
+    public LatencySlo warmup(int warmup) {
+        this.warmup = warmup;
+        return this;
+    }
+
+    public LatencySlo concurrency(int concurrency) {
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public EndpointLatency verify(Supplier<Response> call) {
+        return verify(call, response -> {
+        });
+    }
+
+    /**
+     * Samples a call that creates state; {@code cleanup} runs after each sample and is not timed.
+     */
+    public EndpointLatency verify(Supplier<Response> call, Consumer<Response> cleanup) {
+        for (int i = 0; i < warmup; i++) {
+            cleanup.accept(call.get());
+        }
+        EndpointLatency latency = sample(call, cleanup);
+        Allure.addAttachment(endpoint + " latency", "text/plain", latency.table(), ".txt");
+        Allure.addAttachment(endpoint + " latency distribution", "text/plain", latency.distribution(), ".hgrm");
+
+        List<String> violations = new ArrayList<>();
+        objectives.forEach((percentile, bound) -> {
+            double actual = latency.percentileMillis(percentile);
+            if (actual >= bound.toMillis()) {
+                violations.add(String.format("%s = %.2f ms (objective < %d ms)", EndpointLatency.label(percentile), actual, bound.toMillis()));
+            }
+        });
+        if (latency.getErrors() > 0) {
+            throw errorsWhileSampling(latency);
+        }
+        Assert.assertTrue(violations.isEmpty(), endpoint + " missed its latency objectives: " + violations + "\n" + latency.table());
+        return latency;
+    }
+
+    private AssertionError errorsWhileSampling(EndpointLatency latency) {
+        StringBuilder message = new StringBuilder(endpoint + " returned " + latency.getErrors() + " errors while sampling");
+        if (latency.getFirstErrorStatus() != 0) {
+            message.append("; first error status ").append(latency.getFirstErrorStatus());
+        }
+        Throwable failure = latency.getFirstFailure();
+        if (failure != null) {
+            message.append("; first failure: ").append(failure);
+        }
+        return new AssertionError(message.toString(), failure);
+    }
+
+    private EndpointLatency sample(Supplier<Response> call, Consumer<Response> cleanup) {
+        EndpointLatency latency = new EndpointLatency(endpoint);
+        AtomicInteger remaining = new AtomicInteger(samples);
+        AtomicInteger cleanupFailures = new AtomicInteger();
+        AtomicReference<Throwable> firstCleanupFailure = new AtomicReference<>();
+        List<Future<?>> running = new ArrayList<>();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < Math.max(concurrency, 1); worker++) {
+                running.add(workers.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        Response response = timedCall(call, latency);
+                        if (response == null) {
+                            continue;
+                        }
+                        try {
+                            cleanup.accept(response);
+                        } catch (Exception e) {
+                            cleanupFailures.incrementAndGet();
+                            firstCleanupFailure.compareAndSet(null, e);
+                        }
+                    }
+                }));
+            }
+        }
+        for (Future<?> worker : running) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                throw new AssertionError(endpoint + " sampling worker died", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sampling " + endpoint, e);
+            }
+        }
+        Assert.assertEquals(latency.getCount() + latency.getFailures(), samples,
+                endpoint + " recorded a different number of samples than it took");
+        if (cleanupFailures.get() > 0) {
+            throw new AssertionError(endpoint + " could not clean up after " + cleanupFailures.get() + " samples; first failure: "
+                    + firstCleanupFailure.get(), firstCleanupFailure.get());
+        }
+        return latency;
+    }
+
+    /**
+     * Times one call. A call that throws, checked exceptions included, is recorded as a failure and yields {@code null}.
+     */
+    private static Response timedCall(Supplier<Response> call, EndpointLatency latency) {
+        long started = System.nanoTime();
+        try {
+            Response response = call.get();
+            latency.record(System.nanoTime() - started, response.getStatusCode());
+            return response;
+        } catch (Exception e) {
+            latency.recordFailure(e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package load;
+
+import e2e.EndToEndTest;
+
+import java.util.List;
+
+/**
+ * The {@link EndToEndTest} user → category → product transaction as an ordered list of load steps. Run them on
+ * {@link EndToEndTest#stepByStep()} scenarios, so each step's latency covers its own request.
+ */
+public final class EndToEndFlow {
+
+    private EndToEndFlow() {
+    }
+
+    public static List<LoadStep<EndToEndTest>> steps() {
+        return List.of(
+                new LoadStep<>("createUser", EndToEndTest::createUser),
+                new LoadStep<>("loginUser", EndToEndTest::loginUser),
+                new LoadStep<>("getUserProfile", EndToEndTest::getUserProfile),
+                new LoadStep<>("updateUser", EndToEndTest::updateUser),
+                new LoadStep<>("createCategory", EndToEndTest::createCategory),
+                new LoadStep<>("createProduct", EndToEndTest::createProduct),
+                new LoadStep<>("getProduct", EndToEndTest::getProduct),
+                new LoadStep<>("partiallyUpdateProduct", EndToEndTest::partiallyUpdateProduct),
+                new LoadStep<>("fullyUpdateProduct", EndToEndTest::fullyUpdateProduct),
+                new LoadStep<>("filterProductsByCategoryId", EndToEndTest::filterProductsByCategoryId),
+                new LoadStep<>("deleteProduct", EndToEndTest::deleteProduct),
+                new LoadStep<>("verifyProductDeleted", EndToEndTest::verifyProductDeleted),
+                new LoadStep<>("deleteCategory", EndToEndTest::deleteCategory),
+                new LoadStep<>("deleteUser", EndToEndTest::deleteUser));
+    }
+}
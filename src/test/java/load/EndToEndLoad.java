@@ -0,0 +1,32 @@
+package load;
+
+import base.BaseTest;
+import base.Config;
+import e2e.EndToEndTest;
+import io.qameta.allure.*;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Epic("Load Testing")
+@Feature("End-to-End flow under concurrent virtual users")
+public class EndToEndLoad extends BaseTest {
+
+    @Test
+    @Story("User-Category-Product flow under load")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Run the End-to-End flow as concurrent virtual users and report throughput and per-step latency percentiles")
+    public void endToEndFlowUnderLoad() {
+        LoadReport report = new LoadDriver<>(LoadProfile.fromSystemProperties(), EndToEndFlow.steps())
+                .run(EndToEndTest::stepByStep);
+
+        System.out.println(report.table());
+        Allure.addAttachment("Load report", "text/plain", report.table(), ".txt");
+
+        double maxErrorRate = Config.doubleValue("load.maxErrorRate", 0.01);
+        Assert.assertTrue(report.iterations() > 0, "No flow iteration completed");
+        Assert.assertTrue(report.allUsersFinished(), "Virtual users stopped early: " + report.usersFinished() + " of "
+                + report.profile().virtualUsers() + " finished, first cause " + report.firstUserFailure());
+        Assert.assertTrue(report.errorRate() <= maxErrorRate,
+                "Error rate " + report.errorRate() + " exceeds " + maxErrorRate);
+    }
+}
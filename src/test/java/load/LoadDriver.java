@@ -0,0 +1,104 @@
+package load;
+
+import org.testng.SkipException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs a flow of steps as concurrent virtual users, one virtual thread each. Every user repeats
+ * the whole flow against a fresh scenario object until the run duration is over; an iteration
+ * that has started always runs to the end so its cleanup steps execute. Step statistics and the iteration count
+ * are live while the run goes on, so a monitor can sample them from another thread. A step that throws is counted
+ * as an error and the user carries on; a user that stops early anyway is reported as not finished.
+ */
+public class LoadDriver<S> {
+    private final LoadProfile profile;
+    private final List<LoadStep<S>> steps;
+    private final Map<String, StepStats> stats = new LinkedHashMap<>();
+    private final LongAdder iterations = new LongAdder();
+
+    public LoadDriver(LoadProfile profile, List<LoadStep<S>> steps) {
+        this.profile = profile;
+        this.steps = List.copyOf(steps);
+        steps.forEach(step -> stats.put(step.name(), new StepStats(step.name())));
+    }
+
+    public List<StepStats> stats() {
+        return List.copyOf(stats.values());
+    }
+
+    public long iterations() {
+        return iterations.sum();
+    }
+
+    public LoadReport run(Supplier<S> scenarios) {
+        long start = System.nanoTime();
+        long deadline = start + profile.duration().toNanos();
+        List<Future<?>> running = new ArrayList<>();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < profile.virtualUsers(); user++) {
+                long startAt = start + profile.rampUp().toNanos() * user / profile.virtualUsers();
+                running.add(users.submit(() -> {
+                    runUser(startAt, deadline, scenarios);
+                    return null;
+                }));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        int finished = 0;
+        Throwable firstUserFailure = null;
+        for (Future<?> user : running) {
+            try {
+                user.get();
+                finished++;
+            } catch (ExecutionException e) {
+                firstUserFailure = firstUserFailure == null ? e.getCause() : firstUserFailure;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                firstUserFailure = firstUserFailure == null ? e : firstUserFailure;
+            }
+        }
+        return new LoadReport(profile, elapsed, iterations.sum(), finished, firstUserFailure, List.copyOf(stats.values()));
+    }
+
+    private void runUser(long startAt, long deadline, Supplier<S> scenarios) throws InterruptedException {
+        pause(startAt - System.nanoTime());
+        while (System.nanoTime() < deadline) {
+            S scenario = scenarios.get();
+            for (LoadStep<S> step : steps) {
+                execute(step, scenario, stats.get(step.name()));
+                pause(profile.thinkTime().toNanos());
+            }
+            iterations.increment();
+        }
+    }
+
+    private static <S> void execute(LoadStep<S> step, S scenario, StepStats stats) {
+        long started = System.nanoTime();
+        try {
+            step.action().accept(scenario);
+            stats.recordSuccess(System.nanoTime() - started);
+        } catch (SkipException e) {
+            stats.recordSkip();
+        } catch (Exception | AssertionError e) {
+            // Exception rather than RuntimeException: RestAssured rethrows checked transport failures undeclared.
+            stats.recordError(System.nanoTime() - started, e);
+        }
+    }
+
+    private static void pause(long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            Thread.sleep(Duration.ofNanos(nanos));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package load;
+
+import base.Config;
+
+import java.time.Duration;
+
+/**
+ * Shape of a load run: how many virtual users, how fast they arrive, how long they keep going
+ * and how long each one pauses between steps.
+ */
+public record LoadProfile(int virtualUsers, Duration rampUp, Duration duration, Duration thinkTime) {
+
+    public LoadProfile {
+        if (virtualUsers < 1) {
+            throw new IllegalArgumentException("virtualUsers must be at least 1, was " + virtualUsers);
+        }
+    }
+
+    /**
+     * Reads {@code load.users}, {@code load.rampUpSeconds}, {@code load.durationSeconds} and {@code load.thinkTimeMillis}.
+     */
+    public static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Config.integer("load.users", 10),
+                Duration.ofSeconds(Config.longValue("load.rampUpSeconds", 5)),
+                Duration.ofSeconds(Config.longValue("load.durationSeconds", 30)),
+                Duration.ofMillis(Config.longValue("load.thinkTimeMillis", 0)));
+    }
+}
@@ -0,0 +1,56 @@
+package load;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Result of a load run: completed flow iterations plus per-step throughput and latency percentiles. Also counts the
+ * virtual users that ran until the end, with the reason the first one that did not stopped.
+ */
+public record LoadReport(LoadProfile profile, Duration elapsed, long iterations, int usersFinished,
+                         Throwable firstUserFailure, List<StepStats> steps) {
+
+    public boolean allUsersFinished() {
+        return usersFinished == profile.virtualUsers();
+    }
+
+    public double iterationsPerSecond() {
+        return iterations / seconds();
+    }
+
+    public long requests() {
+        return steps.stream().mapToLong(StepStats::getCount).sum();
+    }
+
+    public double errorRate() {
+        long requests = requests();
+        return requests == 0 ? 0.0 : steps.stream().mapToLong(StepStats::getErrors).sum() / (double) requests;
+    }
+
+    public String table() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%d virtual users (%d finished), ramp-up %ss, think time %dms, elapsed %.1fs%n",
+                profile.virtualUsers(), usersFinished, profile.rampUp().toSeconds(), profile.thinkTime().toMillis(), seconds()));
+        out.append(String.format("%d flow iterations (%.1f/s), %d requests (%.1f/s), error rate %.2f%%%n%n",
+                iterations, iterationsPerSecond(), requests(), requests() / seconds(), errorRate() * 100));
+        out.append(String.format("%-28s %8s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                "step", "count", "errors", "skipped", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (StepStats step : steps) {
+            out.append(String.format("%-28s %8d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    step.getName(), step.getCount(), step.getErrors(), step.getSkipped(), step.getCount() / seconds(),
+                    step.percentileMillis(50), step.percentileMillis(95), step.percentileMillis(99),
+                    step.percentileMillis(99.9), step.maxMillis()));
+        }
+        steps.stream()
+                .filter(step -> step.getFirstError() != null)
+                .forEach(step -> out.append(String.format("%nfirst error in %s: %s", step.getName(), step.getFirstError())));
+        if (firstUserFailure != null) {
+            out.append(String.format("%nfirst virtual user to stop early: %s", firstUserFailure));
+        }
+        return out.toString();
+    }
+
+    private double seconds() {
+        return Math.max(elapsed.toNanos(), 1) / 1e9;
+    }
+}
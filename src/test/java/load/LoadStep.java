@@ -0,0 +1,9 @@
+package load;
+
+import java.util.function.Consumer;
+
+/**
+ * One named step of a flow, executed against the virtual user's own scenario object.
+ */
+public record LoadStep<S>(String name, Consumer<S> action) {
+}
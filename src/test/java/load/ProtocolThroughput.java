@@ -0,0 +1,133 @@
+package load;
+
+import base.BaseTest;
+import base.Config;
+import client.AsyncClient;
+import client.SuiteClient;
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import server.FakeStoreServer;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Epic("Load Testing")
+@Feature("HTTP/2 multiplexing against HTTP/1.1 pooling")
+public class ProtocolThroughput extends BaseTest {
+
+    /**
+     * One transport's run: request count, failures, wall time, per-request latency and connections the local
+     * server accepted for it, warm-up included ({@code -1} against a remote API).
+     */
+    record Result(String transport, long requests, long errors, long nanos, Histogram micros, long connections) {
+
+        double perSecond() {
+            return requests / (nanos / 1e9);
+        }
+
+        String row() {
+            return String.format("%-26s %8d %7d %10.0f %9.2f %9.2f %9.2f %12s", transport, requests, errors, perSecond(),
+                    micros.getValueAtPercentile(50) / 1000.0, micros.getValueAtPercentile(99) / 1000.0,
+                    micros.getMaxValue() / 1000.0, connections < 0 ? "n/a" : String.valueOf(connections));
+        }
+    }
+
+    @Test
+    @Story("Throughput per transport")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Send the same GETs over the pooled HTTP/1.1 spec, the async client on HTTP/1.1 and the async client on multiplexed HTTP/2, and compare throughput, latency and connections")
+    public void compareHttp11PoolingWithHttp2() {
+        int requests = Config.integer("protocols.requests", 5000);
+        int concurrency = Config.integer("protocols.concurrency", 100);
+        int warmup = Config.integer("protocols.warmup", 500);
+        String path = System.getProperty("protocols.path", "/products?offset=0&limit=10");
+
+        List<Result> results = new ArrayList<>();
+        results.add(measure("RestAssured pool HTTP/1.1", connectionsOpened(), warmup, requests, concurrency, () -> pooled(path)));
+        for (HttpClient.Version version : List.of(HttpClient.Version.HTTP_1_1, HttpClient.Version.HTTP_2)) {
+            long connectionsBefore = connectionsOpened();
+            try (AsyncClient client = SuiteClient.get().async().withVersion(version)) {
+                results.add(measure("Async " + (version == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1"),
+                        connectionsBefore, warmup, requests, concurrency, () -> client.get(path)));
+                if (version == HttpClient.Version.HTTP_2 && Config.isLocal()) {
+                    Assert.assertEquals(client.negotiated(), HttpClient.Version.HTTP_2, "The local server should upgrade to h2c");
+                }
+            }
+        }
+
+        StringBuilder table = new StringBuilder(String.format("%d x GET %s, %d concurrent%n", requests, path, concurrency))
+                .append(String.format("%-26s %8s %7s %10s %9s %9s %9s %12s%n",
+                        "transport", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms", "connections"));
+        results.forEach(result -> table.append(result.row()).append(System.lineSeparator()));
+        Result http11 = results.get(0);
+        Result http2 = results.get(2);
+        table.append(String.format("HTTP/2 vs pooled HTTP/1.1: %.2fx throughput", http2.perSecond() / http11.perSecond()));
+        System.out.println(table);
+        Allure.addAttachment("Protocol comparison", "text/plain", table.toString(), ".txt");
+
+        for (Result result : results) {
+            Assert.assertEquals(result.errors(), 0, result.transport() + " had failed requests");
+        }
+    }
+
+    private CompletableFuture<Response> pooled(String path) {
+        try {
+            return CompletableFuture.completedFuture(RestAssured.given(Spec).get(path));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Sends {@code warmup} untimed requests, then {@code requests} timed ones, keeping {@code concurrency} in flight.
+     * Requests start on {@code concurrency} platform threads, so the blocking spec and the async client are driven
+     * alike; on virtual threads RestAssured pins its carriers and stalls once every one waits for a pooled connection.
+     */
+    private static Result measure(String transport, long connectionsBefore, int warmup, int requests, int concurrency,
+                                  Supplier<CompletableFuture<Response>> request) {
+        run(warmup, concurrency, request, new ConcurrentHistogram(3), new LongAdder());
+        Histogram micros = new ConcurrentHistogram(3);
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        run(requests, concurrency, request, micros, errors);
+        long nanos = System.nanoTime() - start;
+        long connections = Config.isLocal() ? connectionsOpened() - connectionsBefore : -1;
+        return new Result(transport, requests, errors.sum(), nanos, micros, connections);
+    }
+
+    private static long connectionsOpened() {
+        return Config.isLocal() ? FakeStoreServer.shared().connectionsOpened() : -1;
+    }
+
+    private static void run(int count, int concurrency, Supplier<CompletableFuture<Response>> request,
+                            Histogram micros, LongAdder errors) {
+        Semaphore window = new Semaphore(concurrency);
+        try (ExecutorService senders = Executors.newFixedThreadPool(concurrency)) {
+            for (int i = 0; i < count; i++) {
+                window.acquireUninterruptibly();
+                long begin = System.nanoTime();
+                senders.execute(() -> request.get().whenComplete((response, failure) -> {
+                    micros.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - begin));
+                    if (failure != null || response.getStatusCode() != 200) {
+                        errors.increment();
+                    }
+                    window.release();
+                }));
+            }
+            window.acquireUninterruptibly(concurrency);
+        }
+    }
+}
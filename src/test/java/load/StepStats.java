@@ -0,0 +1,85 @@
+package load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds) and outcome counters for one step, shared by all virtual users. A second,
+ * resettable recorder gives the latency of the last interval for runs that sample over time.
+ */
+public class StepStats {
+    private final String name;
+    private final Histogram latencyMicros = new ConcurrentHistogram(3);
+    private final Recorder intervalMicros = new Recorder(3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private volatile String firstError;
+
+    public StepStats(String name) {
+        this.name = name;
+    }
+
+    void recordSuccess(long elapsedNanos) {
+        record(elapsedNanos);
+    }
+
+    void recordError(long elapsedNanos, Throwable error) {
+        record(elapsedNanos);
+        errors.increment();
+        if (firstError == null) {
+            firstError = error.getClass().getSimpleName() + ": " + error.getMessage();
+        }
+    }
+
+    private void record(long elapsedNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+        latencyMicros.recordValue(micros);
+        intervalMicros.recordValue(micros);
+    }
+
+    void recordSkip() {
+        skipped.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return latencyMicros.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    public String getFirstError() {
+        return firstError;
+    }
+
+    /**
+     * Latency at the given percentile (0-100) in milliseconds.
+     */
+    public double percentileMillis(double percentile) {
+        return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Latencies (microseconds) recorded since the previous call; each call starts a new interval.
+     */
+    public Histogram intervalHistogram() {
+        return intervalMicros.getIntervalHistogram();
+    }
+
+    public double maxMillis() {
+        return latencyMicros.getMaxValue() / 1000.0;
+    }
+}
@@ -0,0 +1,62 @@
+package logging;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One request/response pair as seen by {@link ExchangeLog}. Bodies are the buffers RestAssured already holds;
+ * nothing is copied or formatted on the test thread.
+ */
+public record Exchange(String method, String uri, int status, long elapsedMicros, String requestBody, byte[] responseBody) {
+
+    public String format(int maxBodyBytes) {
+        StringBuilder text = new StringBuilder(256)
+                .append(method).append(' ').append(uri).append(" -> ").append(status)
+                .append(" (").append(elapsedMicros / 1000.0).append(" ms)\n");
+        if (requestBody != null) {
+            text.append(">> ").append(truncate(requestBody.getBytes(StandardCharsets.UTF_8), maxBodyBytes)).append('\n');
+        }
+        if (responseBody != null && responseBody.length > 0) {
+            text.append("<< ").append(truncate(responseBody, maxBodyBytes)).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Method and path with ids and slugs folded, e.g. {@code GET /products/{id}}, so timings of the same endpoint
+     * group together across tests and runs.
+     */
+    public String endpoint() {
+        return endpoint(method, uri);
+    }
+
+    public static String endpoint(String method, String uri) {
+        return method + ' ' + pathTemplate(uri);
+    }
+
+    /**
+     * The path of {@code uri} with ids and slugs folded, e.g. {@code /products/{id}}.
+     */
+    public static String pathTemplate(String uri) {
+        String[] segments = URI.create(uri).getRawPath().replaceFirst("^/api/v\\d+", "").split("/");
+        StringBuilder template = new StringBuilder();
+        for (int i = 1; i < segments.length; i++) {
+            template.append('/');
+            if (segments[i].chars().allMatch(Character::isDigit)) {
+                template.append("{id}");
+            } else if (segments[i - 1].equals("slug")) {
+                template.append("{slug}");
+            } else {
+                template.append(segments[i]);
+            }
+        }
+        return segments.length <= 1 ? "/" : template.toString();
+    }
+
+    private static String truncate(byte[] body, int maxBytes) {
+        if (body.length <= maxBytes) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        return new String(body, 0, maxBytes, StandardCharsets.UTF_8) + "... [" + (body.length - maxBytes) + " more bytes]";
+    }
+}
@@ -0,0 +1,174 @@
+package logging;
+
+import base.Config;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replaces {@code response.prettyPrint()}.
+ * <ul>
+ *     <li>The filter only queues a reference to each exchange.</li>
+ *     <li>A background thread samples the queue ({@code log.sampleRate}; error responses are always kept),
+ *     truncates bodies to {@code log.maxBodyBytes} and appends them to {@code log.file}.</li>
+ *     <li>The queue is lock-free and bounded by {@code log.queueCapacity}. When it is full, exchanges are
+ *     dropped rather than slowing tests down.</li>
+ *     <li>The test thread's most recent exchanges are kept untruncated, and {@link ExchangeLogListener}
+ *     attaches them to Allure when the test fails.</li>
+ * </ul>
+ */
+public final class ExchangeLog implements Filter {
+    private static final ExchangeLog SHARED = new ExchangeLog();
+
+    private final double sampleRate = Config.doubleValue("log.sampleRate", 0.05);
+    private final int maxBodyBytes = Config.integer("log.maxBodyBytes", 2048);
+    private final int capacity = Config.integer("log.queueCapacity", 4096);
+    private final int keptPerTest = Config.integer("log.failureExchanges", 20);
+    private final Path file = Path.of(System.getProperty("log.file", "target/http-exchanges.log"));
+
+    private final Queue<Exchange> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ThreadLocal<Deque<Exchange>> recent = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ThreadLocal<Map<String, long[]>> timings = ThreadLocal.withInitial(HashMap::new);
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private ExchangeLog() {
+        writer = Thread.ofPlatform().daemon().name("exchange-log-writer").start(this::drain);
+    }
+
+    public static ExchangeLog shared() {
+        return SHARED;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification responseSpec, FilterContext context) {
+        long start = System.nanoTime();
+        Response response = context.next(request, responseSpec);
+        Object body = request.getBody();
+        Exchange exchange = new Exchange(request.getMethod(), request.getURI(), response.getStatusCode(),
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), body == null ? null : body.toString(),
+                response.asByteArray());
+        captured.increment();
+
+        Deque<Exchange> kept = recent.get();
+        if (kept.size() == keptPerTest) {
+            kept.removeFirst();
+        }
+        kept.addLast(exchange);
+        long[] timing = timings.get().computeIfAbsent(exchange.endpoint(), endpoint -> new long[2]);
+        timing[0]++;
+        timing[1] += exchange.elapsedMicros();
+
+        enqueue(exchange);
+        return response;
+    }
+
+    /**
+     * Queues an exchange made outside RestAssured, such as one completed by {@link client.AsyncClient}. It is
+     * written out like any other, but not kept for the current test's failure attachments: it completes on a
+     * client thread, not the test's.
+     */
+    public void record(Exchange exchange) {
+        captured.increment();
+        enqueue(exchange);
+    }
+
+    private void enqueue(Exchange exchange) {
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            dropped.increment();
+        } else {
+            queue.offer(exchange);
+        }
+    }
+
+    /**
+     * Forgets the calling thread's kept exchanges; called before each test method.
+     */
+    void startTest() {
+        recent.get().clear();
+        timings.get().clear();
+    }
+
+    /**
+     * The calling thread's exchanges since {@link #startTest}, untruncated.
+     */
+    List<Exchange> testExchanges() {
+        return new ArrayList<>(recent.get());
+    }
+
+    /**
+     * Call count and total microseconds per {@link Exchange#endpoint()} for the calling thread's exchanges
+     * since {@link #startTest}. Unlike {@link #testExchanges()}, this covers every exchange, not just the last few.
+     */
+    Map<String, long[]> testTimings() {
+        return timings.get();
+    }
+
+    /**
+     * Writes out whatever is still queued and stops the writer.
+     */
+    public void flush() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public String summary() {
+        return String.format("Exchange log: %d captured, %d written to %s, %d dropped (queue full)",
+                captured.sum(), written.sum(), file, dropped.sum());
+    }
+
+    private void drain() {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                while (running || !queue.isEmpty()) {
+                    Exchange exchange = queue.poll();
+                    if (exchange == null) {
+                        out.flush();
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+                        continue;
+                    }
+                    queued.decrementAndGet();
+                    if (exchange.status() >= 400 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                        out.write(exchange.format(maxBodyBytes));
+                        written.increment();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the exchange log to " + file, e);
+        }
+    }
+}
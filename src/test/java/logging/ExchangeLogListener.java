@@ -0,0 +1,52 @@
+package logging;
+
+import context.TestData;
+import io.qameta.allure.Allure;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Attaches a failed test's HTTP exchanges, with full bodies, to its Allure result. This runs in
+ * {@code afterInvocation}, before Allure closes the test case.
+ * <p>
+ * Every result also gets a {@code runId} label and one {@code endpoint} label per endpoint the test called,
+ * e.g. {@code GET /products/{id} 3x 4.150ms}, which {@code trend.TrendIndexer} reads back.
+ */
+public class ExchangeLogListener implements IInvokedMethodListener {
+    public static final String RUN_ID_LABEL = "runId";
+    public static final String ENDPOINT_LABEL = "endpoint";
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            ExchangeLog.shared().startTest();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        Allure.label(RUN_ID_LABEL, TestData.runId());
+        for (Map.Entry<String, long[]> timing : ExchangeLog.shared().testTimings().entrySet()) {
+            long[] callsAndMicros = timing.getValue();
+            Allure.label(ENDPOINT_LABEL, String.format(Locale.ROOT, "%s %dx %.3fms", timing.getKey(), callsAndMicros[0],
+                    callsAndMicros[1] / 1000.0 / callsAndMicros[0]));
+        }
+        if (testResult.getStatus() != ITestResult.FAILURE) {
+            return;
+        }
+        List<Exchange> exchanges = ExchangeLog.shared().testExchanges();
+        for (int i = 0; i < exchanges.size(); i++) {
+            Exchange exchange = exchanges.get(i);
+            Allure.addAttachment(String.format("HTTP %d: %s %s -> %d", i + 1, exchange.method(), exchange.uri(), exchange.status()),
+                    "text/plain", exchange.format(Integer.MAX_VALUE));
+        }
+    }
+}
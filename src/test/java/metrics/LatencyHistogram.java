@@ -0,0 +1,44 @@
+package metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram in the Prometheus layout. Every bucket is its own {@link LongAdder}, so concurrent
+ * recorders contend on neither a lock nor a shared cache line; counts are kept per bucket and only made cumulative
+ * when read.
+ */
+final class LatencyHistogram {
+    private final long[] upperBoundsNanos;
+    private final LongAdder[] buckets;
+    private final LongAdder sumNanos = new LongAdder();
+
+    LatencyHistogram(double[] upperBoundsSeconds) {
+        upperBoundsNanos = Arrays.stream(upperBoundsSeconds).mapToLong(seconds -> Math.round(seconds * 1e9)).toArray();
+        buckets = new LongAdder[upperBoundsNanos.length + 1];
+        Arrays.setAll(buckets, i -> new LongAdder());
+    }
+
+    void record(long nanos) {
+        int index = Arrays.binarySearch(upperBoundsNanos, nanos);
+        buckets[index >= 0 ? index : -index - 1].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Observations at or below each upper bound, followed by the total ({@code le="+Inf"}).
+     */
+    long[] cumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            counts[i] = running;
+        }
+        return counts;
+    }
+
+    double sumSeconds() {
+        return sumNanos.sum() / 1e9;
+    }
+}
@@ -0,0 +1,40 @@
+package metrics;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import logging.Exchange;
+
+/**
+ * Feeds every exchange sent through the suite spec into a {@link MetricsRegistry}. It runs just inside the JFR
+ * filter, so the recorded time covers the cache, retries and schema checks the test waited for, as the test saw it.
+ */
+public final class MetricsFilter implements OrderedFilter {
+    private final MetricsRegistry registry;
+
+    public MetricsFilter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE + 1;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification responseSpec, FilterContext context) {
+        registry.begin();
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            response = context.next(request, responseSpec);
+            return response;
+        } finally {
+            long bytes = response == null ? 0 : response.asByteArray().length;
+            registry.end(request.getMethod(), Exchange.pathTemplate(request.getURI()),
+                    response == null ? 0 : response.getStatusCode(), System.nanoTime() - start, bytes);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package metrics;
+
+import base.Config;
+import context.TestData;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * In-process metrics for the suite's HTTP traffic, exported in the OpenMetrics or Prometheus text format. Series are
+ * keyed by method, endpoint template ({@code /products/{id}}) and status class ({@code 2xx}, or {@code error} when
+ * no response came back), so their number stays bounded however many ids a run creates. Recording is lock-free: a
+ * series is found with a {@link ConcurrentHashMap} read and updated through striped {@link LongAdder}s.
+ * <p>
+ * Gauges are read when the metrics are written; registering one under a name already in use replaces it, so a
+ * recreated client takes over its predecessor's gauges.
+ */
+public final class MetricsRegistry {
+    private static final double[] DEFAULT_BUCKETS_SECONDS =
+            {0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final MetricsRegistry SHARED = new MetricsRegistry(bucketsFromSystemProperties());
+
+    private final double[] bucketsSeconds;
+    private final Map<Series, Counters> series = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentSkipListMap<>();
+    private final LongAdder inFlight = new LongAdder();
+
+    private record Series(String method, String endpoint, String status) {
+    }
+
+    private record Gauge(String help, DoubleSupplier value) {
+    }
+
+    private final class Counters {
+        final LongAdder requests = new LongAdder();
+        final LongAdder responseBytes = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram(bucketsSeconds);
+    }
+
+    /**
+     * The text formats this registry writes.
+     */
+    public enum Format {
+        OPENMETRICS("application/openmetrics-text; version=1.0.0; charset=utf-8"),
+        PROMETHEUS("text/plain; version=0.0.4; charset=utf-8");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+    }
+
+    MetricsRegistry(double[] bucketsSeconds) {
+        this.bucketsSeconds = bucketsSeconds.clone();
+        gauge("platzi_http_in_flight", "Requests sent and not yet answered.", inFlight::sum);
+    }
+
+    /**
+     * The suite-wide registry. {@code metrics.bucketsMillis} (comma-separated upper bounds) replaces the default
+     * latency buckets, which run from 0.5 ms to 10 s.
+     */
+    public static MetricsRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Marks a request as sent; pair with {@link #end}.
+     */
+    public void begin() {
+        inFlight.increment();
+    }
+
+    /**
+     * Records an answered or failed request.
+     *
+     * @param status the response status, or {@code 0} when the request failed without one
+     */
+    public void end(String method, String endpoint, int status, long nanos, long responseBytes) {
+        inFlight.decrement();
+        Series key = new Series(method, endpoint, statusClass(status));
+        Counters counters = series.get(key);
+        if (counters == null) {
+            counters = series.computeIfAbsent(key, k -> new Counters());
+        }
+        counters.requests.increment();
+        counters.responseBytes.add(responseBytes);
+        counters.latency.record(nanos);
+    }
+
+    public void gauge(String name, String help, DoubleSupplier value) {
+        gauges.put(name, new Gauge(help, value));
+    }
+
+    public long requests() {
+        return series.values().stream().mapToLong(counters -> counters.requests.sum()).sum();
+    }
+
+    /**
+     * Writes every metric, families in a fixed order and series sorted, so two exports can be diffed.
+     */
+    public void write(Writer out, Format format) throws IOException {
+        List<Map.Entry<Series, Counters>> sorted = series.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(Series::endpoint)
+                        .thenComparing(Series::method).thenComparing(Series::status)))
+                .toList();
+        boolean openMetrics = format == Format.OPENMETRICS;
+
+        if (openMetrics) {
+            family(out, "platzi_run", "info", "The suite run these metrics belong to.");
+        } else {
+            family(out, "platzi_run_info", "gauge", "The suite run these metrics belong to.");
+        }
+        out.write("platzi_run_info{run_id=\"" + escape(TestData.runId()) + "\",base_uri=\"" + escape(Config.baseUri()) + "\"} 1\n");
+
+        family(out, openMetrics ? "platzi_http_requests" : "platzi_http_requests_total", "counter",
+                "HTTP requests by endpoint template and status class.");
+        for (Map.Entry<Series, Counters> entry : sorted) {
+            out.write("platzi_http_requests_total" + labels(entry.getKey(), null) + " " + entry.getValue().requests.sum() + "\n");
+        }
+
+        family(out, openMetrics ? "platzi_http_response_bytes" : "platzi_http_response_bytes_total", "counter",
+                "Response body bytes received.");
+        for (Map.Entry<Series, Counters> entry : sorted) {
+            out.write("platzi_http_response_bytes_total" + labels(entry.getKey(), null) + " " + entry.getValue().responseBytes.sum() + "\n");
+        }
+
+        family(out, "platzi_http_request_duration_seconds", "histogram", "Time from sending a request to its buffered response.");
+        for (Map.Entry<Series, Counters> entry : sorted) {
+            LatencyHistogram latency = entry.getValue().latency;
+            // Summed before the buckets, so a request recorded mid-write never leaves the sum ahead of the count.
+            double sum = latency.sumSeconds();
+            long[] counts = latency.cumulativeCounts();
+            for (int i = 0; i < counts.length; i++) {
+                String le = i < bucketsSeconds.length ? Double.toString(bucketsSeconds[i]) : "+Inf";
+                out.write("platzi_http_request_duration_seconds_bucket" + labels(entry.getKey(), le) + " " + counts[i] + "\n");
+            }
+            out.write("platzi_http_request_duration_seconds_count" + labels(entry.getKey(), null) + " " + counts[counts.length - 1] + "\n");
+            out.write("platzi_http_request_duration_seconds_sum" + labels(entry.getKey(), null) + " " + number(sum) + "\n");
+        }
+
+        for (Map.Entry<String, Gauge> gauge : gauges.entrySet()) {
+            family(out, gauge.getKey(), "gauge", gauge.getValue().help());
+            out.write(gauge.getKey() + " " + number(gauge.getValue().value().getAsDouble()) + "\n");
+        }
+        if (openMetrics) {
+            out.write("# EOF\n");
+        }
+    }
+
+    /**
+     * Writes {@code metrics-<runId>.prom} under {@code metrics.output} (default {@code target/metrics}), in
+     * {@code metrics.format} ({@code openmetrics} by default, or {@code prometheus}).
+     *
+     * @return the file written
+     */
+    public Path export() {
+        Path file = Path.of(System.getProperty("metrics.output", "target/metrics"), "metrics-" + TestData.runId() + ".prom");
+        Format format = Format.valueOf(System.getProperty("metrics.format", "openmetrics").toUpperCase(Locale.ROOT));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                write(out, format);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write metrics to " + file, e);
+        }
+        return file;
+    }
+
+    public String summary() {
+        return String.format("Metrics: %d requests in %d series", requests(), series.size());
+    }
+
+    private static void family(Writer out, String name, String type, String help) throws IOException {
+        out.write("# TYPE " + name + " " + type + "\n");
+        out.write("# HELP " + name + " " + help + "\n");
+    }
+
+    private static String labels(Series series, String le) {
+        StringBuilder labels = new StringBuilder("{method=\"").append(escape(series.method()))
+                .append("\",endpoint=\"").append(escape(series.endpoint()))
+                .append("\",status=\"").append(series.status()).append('"');
+        if (le != null) {
+            labels.append(",le=\"").append(le).append('"');
+        }
+        return labels.append('}').toString();
+    }
+
+    private static String statusClass(int status) {
+        return status < 100 || status > 599 ? "error" : status / 100 + "xx";
+    }
+
+    private static String number(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static double[] bucketsFromSystemProperties() {
+        String millis = System.getProperty("metrics.bucketsMillis");
+        if (millis == null) {
+            return DEFAULT_BUCKETS_SECONDS;
+        }
+        return Arrays.stream(millis.split(",")).map(String::trim).mapToDouble(bound -> Double.parseDouble(bound) / 1000)
+                .sorted().distinct().toArray();
+    }
+}
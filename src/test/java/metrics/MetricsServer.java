@@ -0,0 +1,88 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.eclipse.jetty.http.spi.JettyHttpServer;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.ContextHandlerCollection;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves a {@link MetricsRegistry} at {@code /metrics} while the suite runs, so Prometheus can scrape test and load
+ * runs live. Scrapers that accept {@code application/openmetrics-text} get OpenMetrics, others the Prometheus text
+ * format. Runs on a small daemon pool of its own, apart from the fake store's server.
+ */
+public final class MetricsServer implements AutoCloseable {
+    private final MetricsRegistry registry;
+    private final HttpServer server;
+
+    public MetricsServer(MetricsRegistry registry, String host, int port) {
+        this.registry = registry;
+        QueuedThreadPool threads = new QueuedThreadPool(4, 1);
+        threads.setName("metrics");
+        threads.setDaemon(true);
+        Server jetty = new Server(threads);
+        jetty.setHandler(new ContextHandlerCollection());
+        server = new JettyHttpServer(jetty, false);
+        try {
+            server.bind(new InetSocketAddress(host, port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not bind the metrics server to " + host + ":" + port, e);
+        }
+        server.createContext("/metrics", this::handle);
+        server.start();
+    }
+
+    /**
+     * Starts a server on {@code metrics.port}, bound to {@code metrics.host} (default {@code 127.0.0.1}), or returns
+     * {@code null} when no port is set.
+     */
+    public static MetricsServer fromSystemProperties(MetricsRegistry registry) {
+        int port = Integer.getInteger("metrics.port", 0);
+        return port <= 0 ? null : new MetricsServer(registry, System.getProperty("metrics.host", "127.0.0.1"), port);
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String accept = exchange.getRequestHeaders().getFirst("Accept");
+            MetricsRegistry.Format format = accept != null && accept.contains("application/openmetrics-text")
+                    ? MetricsRegistry.Format.OPENMETRICS
+                    : MetricsRegistry.Format.PROMETHEUS;
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(body, StandardCharsets.UTF_8)) {
+                registry.write(writer, format);
+            }
+            exchange.getResponseHeaders().set("Content-Type", format.contentType());
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                body.writeTo(out);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
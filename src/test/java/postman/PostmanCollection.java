@@ -0,0 +1,90 @@
+package postman;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Postman v2.1 collection and environment export, parsed into folders, requests and variable maps.
+ */
+public record PostmanCollection(String name, List<Item> items, String preRequestScript, String testScript,
+                                Map<String, String> collectionVariables, Map<String, String> environment) {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * A folder (with {@code items}) or a request (with {@code request}), plus its own scripts.
+     */
+    public record Item(String name, List<Item> items, JsonNode request, String preRequestScript, String testScript) {
+
+        public boolean isFolder() {
+            return request == null;
+        }
+    }
+
+    public static PostmanCollection load(Path collection, Path environment) {
+        try {
+            JsonNode root = MAPPER.readTree(collection.toFile());
+            Map<String, String> environmentValues = new LinkedHashMap<>();
+            if (environment != null && environment.toFile().exists()) {
+                for (JsonNode value : MAPPER.readTree(environment.toFile()).path("values")) {
+                    if (value.path("enabled").asBoolean(true)) {
+                        environmentValues.put(value.path("key").asText(), value.path("value").asText());
+                    }
+                }
+            }
+            return new PostmanCollection(root.path("info").path("name").asText(collection.getFileName().toString()),
+                    items(root.path("item")), script(root, "prerequest"), script(root, "test"),
+                    variables(root.path("variable")), environmentValues);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the Postman collection " + collection, e);
+        }
+    }
+
+    /**
+     * Top-level folder by name.
+     */
+    public Item folder(String name) {
+        return items.stream()
+                .filter(item -> item.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No folder '" + name + "' in " + this.name));
+    }
+
+    private static List<Item> items(JsonNode array) {
+        List<Item> items = new ArrayList<>();
+        for (JsonNode node : array) {
+            items.add(new Item(node.path("name").asText(),
+                    node.has("item") ? items(node.path("item")) : List.of(),
+                    node.has("request") ? node.get("request") : null,
+                    script(node, "prerequest"), script(node, "test")));
+        }
+        return items;
+    }
+
+    private static String script(JsonNode node, String listen) {
+        StringBuilder source = new StringBuilder();
+        for (JsonNode event : node.path("event")) {
+            if (listen.equals(event.path("listen").asText())) {
+                event.path("script").path("exec").forEach(line -> source.append(line.asText()).append('\n'));
+            }
+        }
+        return source.toString().isBlank() ? null : source.toString();
+    }
+
+    private static Map<String, String> variables(JsonNode array) {
+        Map<String, String> variables = new LinkedHashMap<>();
+        for (JsonNode variable : array) {
+            if (!variable.path("disabled").asBoolean(false)) {
+                variables.put(variable.path("key").asText(), variable.path("value").asText());
+            }
+        }
+        return variables;
+    }
+}
@@ -0,0 +1,95 @@
+package postman;
+
+import base.BaseTest;
+import base.Config;
+import client.SuiteClient;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+import org.junit.jupiter.api.DisplayName;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import replay.Traffic;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Epic("Postman Collection")
+@Feature("PlatziFakeStore.postman_collection.json")
+public class PostmanCollectionTest extends BaseTest {
+    private static final PostmanCollection COLLECTION = PostmanCollection.load(
+            Config.projectFile("postman.collection", "PlatziFakeStore.postman_collection.json"),
+            Config.projectFile("postman.environment", "UAT.postman_environment.json"));
+    private static final ScriptSandbox SANDBOX = new ScriptSandbox();
+    private static final KnownFailures KNOWN_FAILURES = KnownFailures.load();
+
+    @DataProvider(name = "folders", parallel = true)
+    public Object[][] folders() {
+        String selected = System.getProperty("postman.folders");
+        List<String> names = selected == null
+                ? COLLECTION.items().stream().filter(PostmanCollection.Item::isFolder).map(PostmanCollection.Item::name).toList()
+                : Arrays.stream(selected.split(",")).map(String::trim).toList();
+        return names.stream().map(name -> new Object[]{name}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "folders")
+    @DisplayName("Run Postman Folder")
+    @Description("Run every request of a collection folder in order and verify its pm.test assertions")
+    @Severity(SeverityLevel.NORMAL)
+    public void runFolder(String folder) {
+        // Recorded and replayed runs must build the same request bodies, so their scripts get a pinned clock and seed.
+        Traffic traffic = SuiteClient.get().traffic();
+        ScriptEntropy entropy = traffic == null ? ScriptEntropy.live() : ScriptEntropy.pinned(traffic.recordingRunId(), folder);
+        PostmanRunner runner = new PostmanRunner(COLLECTION, SANDBOX, Spec, Map.of("base_url", Config.baseUri()), entropy);
+        List<RequestResult> results = runner.runFolder(folder);
+        results.forEach(PostmanCollectionTest::report);
+
+        String failures = results.stream()
+                .map(PostmanCollectionTest::describeFailure)
+                .filter(failure -> !failure.isEmpty())
+                .collect(Collectors.joining("\n"));
+        Assert.assertTrue(failures.isEmpty(), "Failed requests in folder '" + folder + "':\n" + failures);
+    }
+
+    private static void report(RequestResult result) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.startStep(uuid, new StepResult().setName(result.path() + ": " + result.method() + " " + result.url()
+                + " -> " + result.status() + " (" + result.millis() + " ms)"));
+        if (result.error() != null) {
+            Allure.step(result.error(), Status.BROKEN);
+        }
+        for (ScriptAssertion assertion : result.assertions()) {
+            Allure.step(assertion.passed() ? assertion.name() : assertion.name() + ": " + assertion.message(), statusOf(result, assertion));
+        }
+        lifecycle.updateStep(uuid, step -> step.setStatus(describeFailure(result).isEmpty() ? Status.PASSED : Status.FAILED));
+        lifecycle.stopStep(uuid);
+    }
+
+    private static Status statusOf(RequestResult result, ScriptAssertion assertion) {
+        if (assertion.passed()) {
+            return Status.PASSED;
+        }
+        return KNOWN_FAILURES.contains(result, assertion) ? Status.BROKEN : Status.FAILED;
+    }
+
+    private static String describeFailure(RequestResult result) {
+        if (result.error() != null) {
+            return "  " + result.path() + ": " + result.error();
+        }
+        return result.assertions().stream()
+                .filter(assertion -> statusOf(result, assertion) == Status.FAILED)
+                .map(assertion -> "  " + result.path() + " [" + result.status() + "] " + assertion.name() + ": " + assertion.message())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,143 @@
+package postman;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the requests of one collection folder in order, the way the Postman runner does.
+ * <ul>
+ *     <li>Pre-request scripts run, then {@code {{variables}}} are resolved in URL, headers, body and bearer
+ *     auth. The request goes out through the suite spec, and then the test scripts run.</li>
+ *     <li>Scripts from the collection and every enclosing folder run before the request's own.</li>
+ *     <li>Each folder run works on its own copy of the variables, so independent folders can run concurrently.</li>
+ * </ul>
+ */
+public class PostmanRunner {
+    private final PostmanCollection collection;
+    private final ScriptSandbox sandbox;
+    private final RequestSpecification spec;
+    private final Map<String, String> overrides;
+    private final ScriptEntropy entropy;
+
+    /**
+     * @param overrides environment values that win over the environment file, e.g. {@code base_url}
+     * @param entropy   time and random values for scripts and dynamic variables
+     */
+    public PostmanRunner(PostmanCollection collection, ScriptSandbox sandbox, RequestSpecification spec, Map<String, String> overrides,
+                         ScriptEntropy entropy) {
+        this.collection = collection;
+        this.sandbox = sandbox;
+        this.spec = spec;
+        this.overrides = overrides;
+        this.entropy = entropy;
+    }
+
+    public List<RequestResult> runFolder(String name) {
+        Map<String, String> environment = new LinkedHashMap<>(collection.environment());
+        environment.putAll(overrides);
+        Variables variables = new Variables(collection.collectionVariables(), environment, entropy);
+        List<RequestResult> results = new ArrayList<>();
+        List<PostmanCollection.Item> ancestors = new ArrayList<>();
+        run(collection.folder(name), name, ancestors, variables, results);
+        return results;
+    }
+
+    private void run(PostmanCollection.Item item, String path, List<PostmanCollection.Item> ancestors,
+                     Variables variables, List<RequestResult> results) {
+        if (item.isFolder()) {
+            ancestors.add(item);
+            for (PostmanCollection.Item child : item.items()) {
+                run(child, path + " / " + child.name(), ancestors, variables, results);
+            }
+            ancestors.removeLast();
+            return;
+        }
+        results.add(send(item, path, ancestors, variables));
+    }
+
+    private RequestResult send(PostmanCollection.Item item, String path, List<PostmanCollection.Item> ancestors, Variables variables) {
+        JsonNode request = item.request();
+        String method = request.path("method").asText("GET");
+        List<ScriptAssertion> assertions = new ArrayList<>();
+
+        String rawUrl = request.path("url").isTextual() ? request.path("url").asText() : request.path("url").path("raw").asText();
+        Map<String, String> rawHeaders = headers(request);
+        String rawBody = "raw".equals(request.path("body").path("mode").asText()) ? request.path("body").path("raw").asText() : null;
+        ScriptHost preRequest = new ScriptHost("prerequest", item.name(), method, variables.resolve(rawUrl),
+                resolve(rawHeaders, variables), variables.resolve(rawBody), null, 0, variables, assertions);
+        scripts(item, ancestors, true).forEach(source -> sandbox.run(item.name() + " (pre-request)", source, preRequest, entropy));
+
+        String url = variables.resolve(rawUrl);
+        Map<String, String> headers = resolve(rawHeaders, variables);
+        String body = variables.resolve(rawBody);
+        String token = bearerToken(request.path("auth"), variables);
+        if (token != null) {
+            headers.putIfAbsent("Authorization", "Bearer " + token);
+        }
+        if (body != null && !body.isBlank() && headers.keySet().stream().noneMatch("Content-Type"::equalsIgnoreCase)) {
+            headers.put("Content-Type", "application/json");
+        }
+
+        RequestSpecification call = RestAssured.given(spec).urlEncodingEnabled(false).headers(headers);
+        if (body != null && !body.isBlank()) {
+            call.body(body);
+        }
+        Response response;
+        try {
+            response = call.request(method, url);
+        } catch (RuntimeException e) {
+            return new RequestResult(path, method, url, 0, 0, assertions, e.toString());
+        }
+        // RestAssured times the HTTP exchange alone, which is what Postman reports, not the filter chain around it.
+        long millis = response.timeIn(TimeUnit.MILLISECONDS);
+
+        ScriptHost test = new ScriptHost("test", item.name(), method, url, headers, body, response, millis, variables, assertions);
+        scripts(item, ancestors, false).forEach(source -> sandbox.run(item.name(), source, test, entropy));
+        return new RequestResult(path, method, url, response.getStatusCode(), millis, assertions, null);
+    }
+
+    private List<String> scripts(PostmanCollection.Item item, List<PostmanCollection.Item> ancestors, boolean preRequest) {
+        List<String> scripts = new ArrayList<>();
+        scripts.add(preRequest ? collection.preRequestScript() : collection.testScript());
+        ancestors.forEach(folder -> scripts.add(preRequest ? folder.preRequestScript() : folder.testScript()));
+        scripts.add(preRequest ? item.preRequestScript() : item.testScript());
+        scripts.removeIf(source -> source == null);
+        return scripts;
+    }
+
+    private static Map<String, String> headers(JsonNode request) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (JsonNode header : request.path("header")) {
+            if (!header.path("disabled").asBoolean(false)) {
+                headers.put(header.path("key").asText(), header.path("value").asText());
+            }
+        }
+        return headers;
+    }
+
+    private static Map<String, String> resolve(Map<String, String> headers, Variables variables) {
+        Map<String, String> resolved = new LinkedHashMap<>();
+        headers.forEach((name, value) -> resolved.put(variables.resolve(name), variables.resolve(value)));
+        return resolved;
+    }
+
+    private static String bearerToken(JsonNode auth, Variables variables) {
+        if (!"bearer".equals(auth.path("type").asText())) {
+            return null;
+        }
+        for (JsonNode entry : auth.path("bearer")) {
+            if ("token".equals(entry.path("key").asText())) {
+                return variables.resolve(entry.path("value").asText());
+            }
+        }
+        return null;
+    }
+}
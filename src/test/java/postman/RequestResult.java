@@ -0,0 +1,15 @@
+package postman;
+
+import java.util.List;
+
+/**
+ * One executed request of a collection run: where it sits in the folder tree, what was sent, what came back
+ * and the outcome of its test script. {@code error} is set when the request could not be sent at all.
+ */
+public record RequestResult(String path, String method, String url, int status, long millis,
+                            List<ScriptAssertion> assertions, String error) {
+
+    public boolean passed() {
+        return error == null && assertions.stream().allMatch(ScriptAssertion::passed);
+    }
+}
@@ -0,0 +1,7 @@
+package postman;
+
+/**
+ * Outcome of one {@code pm.test(...)} block, or of a script that threw outside of one.
+ */
+public record ScriptAssertion(String name, boolean passed, String message) {
+}
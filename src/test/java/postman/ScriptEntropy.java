@@ -0,0 +1,66 @@
+package postman;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Where a folder run's scripts ({@code Date}, {@code Math.random}) and dynamic variables ({@code {{$timestamp}}},
+ * {@code {{$guid}}}, {@code {{$randomInt}}}) take the time and random values from. Live by default. While traffic
+ * is recorded or replayed it is pinned instead: seeded from the recording's run id and the folder, with a clock
+ * that starts at a time drawn from the same seed and advances a millisecond per reading. A replay then builds the
+ * bodies the recording sent, while separate recordings still generate different names.
+ */
+public final class ScriptEntropy {
+    private static final long EARLIEST = 1_600_000_000_000L;
+    private static final long SPAN = 200_000_000_000L;
+
+    private final Random random;
+    private final AtomicLong clock;
+
+    private ScriptEntropy(Random random, AtomicLong clock) {
+        this.random = random;
+        this.clock = clock;
+    }
+
+    public static ScriptEntropy live() {
+        return new ScriptEntropy(null, null);
+    }
+
+    public static ScriptEntropy pinned(String runId, String folder) {
+        Random random = new Random(((long) runId.hashCode() << 32) ^ folder.hashCode());
+        return new ScriptEntropy(random, new AtomicLong(EARLIEST + Math.floorMod(random.nextLong(), SPAN)));
+    }
+
+    public boolean isPinned() {
+        return random != null;
+    }
+
+    /**
+     * Milliseconds since the epoch, as {@code Date.now()} returns them.
+     */
+    public long now() {
+        return clock == null ? System.currentTimeMillis() : clock.getAndIncrement();
+    }
+
+    /**
+     * A value in {@code [0, 1)}, as {@code Math.random()} returns it.
+     */
+    public synchronized double random() {
+        return random == null ? ThreadLocalRandom.current().nextDouble() : random.nextDouble();
+    }
+
+    public synchronized int nextInt(int bound) {
+        return random == null ? ThreadLocalRandom.current().nextInt(bound) : random.nextInt(bound);
+    }
+
+    public synchronized UUID uuid() {
+        if (random == null) {
+            return UUID.randomUUID();
+        }
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return UUID.nameUUIDFromBytes(bytes);
+    }
+}
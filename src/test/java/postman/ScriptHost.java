@@ -0,0 +1,136 @@
+package postman;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.restassured.response.Response;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the {@code pm} object in {@code pm-sandbox.js} can see and do: the resolved request, the response
+ * (absent in pre-request scripts), the variable scopes and the list of {@code pm.test} results.
+ * Public because Rhino calls it reflectively.
+ */
+public class ScriptHost {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String eventName;
+    private final String requestName;
+    private final String method;
+    private final String url;
+    private final Map<String, String> requestHeaders;
+    private final String requestBody;
+    private final Response response;
+    private final long responseMillis;
+    private final Variables variables;
+    private final List<ScriptAssertion> results;
+
+    public ScriptHost(String eventName, String requestName, String method, String url, Map<String, String> requestHeaders,
+                      String requestBody, Response response, long responseMillis, Variables variables, List<ScriptAssertion> results) {
+        this.eventName = eventName;
+        this.requestName = requestName;
+        this.method = method;
+        this.url = url;
+        this.requestHeaders = requestHeaders;
+        this.requestBody = requestBody;
+        this.response = response;
+        this.responseMillis = responseMillis;
+        this.variables = variables;
+        this.results = results;
+    }
+
+    public String eventName() {
+        return eventName;
+    }
+
+    public String requestName() {
+        return requestName;
+    }
+
+    public String requestMethod() {
+        return method;
+    }
+
+    public String requestUrl() {
+        return url;
+    }
+
+    public String requestBody() {
+        return requestBody;
+    }
+
+    public String requestHeader(String name) {
+        return requestHeaders.entrySet().stream()
+                .filter(header -> header.getKey().equalsIgnoreCase(name))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Query parameters as a JSON array of {@code {key, value}} objects, in URL order.
+     */
+    public String requestQuery() {
+        ArrayNode params = MAPPER.createArrayNode();
+        String query = url == null ? null : URI.create(url.replace(" ", "%20")).getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                params.addObject()
+                        .put("key", URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8))
+                        .put("value", eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params.toString();
+    }
+
+    public boolean hasResponse() {
+        return response != null;
+    }
+
+    public int status() {
+        return response.getStatusCode();
+    }
+
+    public String statusText() {
+        String line = response.getStatusLine();
+        String[] parts = line == null ? new String[0] : line.split(" ", 3);
+        return parts.length == 3 ? parts[2] : "";
+    }
+
+    public long responseTime() {
+        return responseMillis;
+    }
+
+    public int responseSize() {
+        return response.asByteArray().length;
+    }
+
+    public String responseText() {
+        return response.asString();
+    }
+
+    public String responseHeader(String name) {
+        return response.getHeader(name);
+    }
+
+    public Object get(String scope, String key) {
+        return variables.get(scope, key);
+    }
+
+    public void set(String scope, String key, Object value) {
+        variables.set(scope, key, value);
+    }
+
+    public void pass(String name) {
+        results.add(new ScriptAssertion(name, true, null));
+    }
+
+    public void fail(String name, String message) {
+        results.add(new ScriptAssertion(name, false, message));
+    }
+}
@@ -0,0 +1,83 @@
+package postman;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs collection scripts on Rhino. The standard library and the {@code pm} prelude live in one sealed,
+ * shared scope. Each script gets its own scope on top of it, so top-level {@code const}s never clash and
+ * folders can run on separate threads. Compiled scripts are cached by source. With a pinned {@link ScriptEntropy},
+ * that scope also shadows {@code Date} and {@code Math} with versions that read the time and random values from it.
+ */
+public class ScriptSandbox {
+    private static final String PRELUDE = "/postman/pm-sandbox.js";
+
+    private final ScriptableObject shared;
+    private final Map<String, Script> compiled = new ConcurrentHashMap<>();
+
+    public ScriptSandbox() {
+        Context cx = enter();
+        try {
+            shared = cx.initSafeStandardObjects();
+            cx.evaluateString(shared, prelude(), PRELUDE, 1, null);
+            shared.sealObject();
+        } finally {
+            Context.exit();
+        }
+    }
+
+    /**
+     * Runs {@code source} with {@code pm} bound to {@code host}. A script that throws outside {@code pm.test}
+     * is recorded as a failed assertion rather than propagated.
+     */
+    public void run(String name, String source, ScriptHost host, ScriptEntropy entropy) {
+        Context cx = enter();
+        try {
+            Scriptable scope = cx.newObject(shared);
+            scope.setPrototype(shared);
+            scope.setParentScope(null);
+            Function createPm = (Function) shared.get("createPm", shared);
+            scope.put("pm", scope, createPm.call(cx, scope, scope, new Object[]{Context.javaToJS(host, scope)}));
+            if (entropy.isPinned()) {
+                Object[] pinned = {Context.javaToJS(entropy, scope)};
+                scope.put("Date", scope, ((Function) shared.get("pinnedDate", shared)).call(cx, scope, scope, pinned));
+                scope.put("Math", scope, ((Function) shared.get("pinnedMath", shared)).call(cx, scope, scope, pinned));
+            }
+            compiled.computeIfAbsent(source, key -> cx.compileString(key, name, 1, null)).exec(cx, scope);
+        } catch (RhinoException e) {
+            host.fail(name, e.details() + " (line " + e.lineNumber() + ")");
+        } finally {
+            Context.exit();
+        }
+    }
+
+    private static Context enter() {
+        Context cx = Context.enter();
+        cx.setLanguageVersion(Context.VERSION_ES6);
+        cx.setInterpretedMode(true);
+        cx.getWrapFactory().setJavaPrimitiveWrap(false);
+        return cx;
+    }
+
+    private static String prelude() {
+        try (InputStream in = ScriptSandbox.class.getResourceAsStream(PRELUDE)) {
+            if (in == null) {
+                throw new IllegalStateException(PRELUDE + " is missing from the test classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
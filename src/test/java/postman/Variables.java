@@ -0,0 +1,101 @@
+package postman;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Postman variable scopes for one folder run. {@code {{name}}} resolves local, then environment, then collection,
+ * then globals, as Postman does; {@code {{$timestamp}}}, {@code {{$guid}}} and {@code {{$randomInt}}} are generated
+ * from the run's {@link ScriptEntropy}.
+ * Values keep the type a script set them with, so an id stored from a response still compares as a number.
+ */
+public class Variables {
+    private static final Pattern REFERENCE = Pattern.compile("\\{\\{([^{}]+)}}");
+
+    private final Map<String, Object> globals = new ConcurrentHashMap<>();
+    private final Map<String, Object> collection;
+    private final Map<String, Object> environment;
+    private final Map<String, Object> local = new ConcurrentHashMap<>();
+    private final ScriptEntropy entropy;
+
+    public Variables(Map<String, String> collection, Map<String, String> environment, ScriptEntropy entropy) {
+        this.collection = new ConcurrentHashMap<>(collection);
+        this.environment = new ConcurrentHashMap<>(environment);
+        this.entropy = entropy;
+    }
+
+    public Object get(String scope, String key) {
+        return switch (scope) {
+            case "variables" -> lookup(key);
+            default -> scope(scope).get(key);
+        };
+    }
+
+    /**
+     * Sets or, with a {@code null} value, removes a variable.
+     */
+    public void set(String scope, String key, Object value) {
+        Map<String, Object> target = scope(scope);
+        if (value == null) {
+            target.remove(key);
+        } else {
+            target.put(key, value);
+        }
+    }
+
+    public String resolve(String template) {
+        if (template == null || !template.contains("{{")) {
+            return template;
+        }
+        Matcher matcher = REFERENCE.matcher(template);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            Object value = value(matcher.group(1).trim());
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(value == null ? matcher.group() : text(value)));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    private Object value(String name) {
+        return switch (name) {
+            case "$timestamp" -> Long.toString(entropy.now() / 1000);
+            case "$guid", "$randomUUID" -> entropy.uuid().toString();
+            case "$randomInt" -> Integer.toString(entropy.nextInt(1001));
+            default -> lookup(name);
+        };
+    }
+
+    private Object lookup(String key) {
+        for (Map<String, Object> scope : List.of(local, environment, collection, globals)) {
+            Object value = scope.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Script numbers arrive as doubles; ids set from a response must still substitute as {@code 4}, not {@code 4.0}.
+     */
+    private static String text(Object value) {
+        if (value instanceof Double number && number == Math.rint(number) && !Double.isInfinite(number)) {
+            return Long.toString(number.longValue());
+        }
+        return String.valueOf(value);
+    }
+
+    private Map<String, Object> scope(String name) {
+        return switch (name) {
+            case "environment" -> environment;
+            case "collection" -> collection;
+            case "globals" -> globals;
+            case "variables" -> local;
+            default -> throw new IllegalArgumentException("Unknown variable scope " + name);
+        };
+    }
+}
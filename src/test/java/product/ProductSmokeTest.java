@@ -1,40 +1,44 @@
 package product;
 
 import base.BaseTest;
+import base.Config;
 import POJO.Category;
 import POJO.Product;
 import io.qameta.allure.*;
+import client.ResponseCache;
+import context.TestData;
+import crawler.CatalogCrawler;
+import crawler.CrawlStats;
+import fixture.Fixtures;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import latency.LatencySlo;
 import org.junit.jupiter.api.DisplayName;
 import org.testng.Assert;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
+import validation.StreamingArrayAssertion;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Epic("Product Management")
 @Feature("Product CRUD Operations")
 public class ProductSmokeTest extends BaseTest {
 
-    int productId;
-    Product productObject;
-    String productSlug;
-    int categoryId;
-
     @Test(priority = 1)
     @Story("Get all products")
     @Description("Verify that all products are returned as a JSON array with valid properties")
     @Severity(SeverityLevel.NORMAL)
     @DisplayName("Get All Products")
     public void getAllProductsTest() {
-        Response response = RestAssured.given(Spec).contentType(ContentType.JSON).get("/products");
-        response.prettyPrint();
-        Assert.assertEquals(response.getStatusCode(), 200);
-        Assert.assertTrue(response.time() < 2000);
-        List<Object> products = response.jsonPath().getList("");
-        Assert.assertNotNull(products, "Response is not an array");
-        Assert.assertFalse(products.isEmpty(), "Array is empty");
+        StreamingArrayAssertion.elementsOf(Product.class)
+                .notEmpty()
+                .each("id is set", product -> product.getId() > 0)
+                .each("title is set", product -> product.getTitle() != null)
+                .verifyGet("/products");
     }
 
     @Test(dependsOnMethods = "getAllProductsTest")
@@ -43,25 +47,18 @@ public class ProductSmokeTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Create Product")
     public void createProductTest() {
-        Response response = RestAssured.given(Spec).get("/categories");
-        Assert.assertEquals(response.getStatusCode(), 200);
-        List<Category> categories = response.jsonPath().getList("", Category.class);
-        Assert.assertFalse(categories.isEmpty(), "No categories returned");
+        Category category = Fixtures.get().categories().checkout();
+        scenario.put("category", category);
+        scenario.put("categoryId", category.getId());
+        Product product = new Product("Cat", 100, "Egyptian Cat", category.getId(), List.of("cat1.png", "cat2.png"));
 
-        Category firstCategory = categories.getFirst();
-        categoryId = firstCategory.getId();
-        Product product = new Product("Cat", 100, "Egyptian Cat", categoryId, List.of("cat1.png", "cat2.png"));
-
-        response = RestAssured.given(Spec).contentType(ContentType.JSON).body(product).post("/products/");
-        response.prettyPrint();
+        Response response = RestAssured.given(Spec).contentType(ContentType.JSON).body(product).post("/products/");
         Product responseProduct = response.as(Product.class);
 
-        productId = responseProduct.getId();
-        productObject = responseProduct;
-        productSlug = responseProduct.getSlug();
+        scenario.put("productId", responseProduct.getId());
+        scenario.put("productSlug", responseProduct.getSlug());
 
         Assert.assertEquals(response.getStatusCode(), 201);
-        Assert.assertTrue(response.time() < 3000);
         Assert.assertEquals(responseProduct.getTitle(), "Cat");
         Assert.assertEquals(responseProduct.getDescription(), "Egyptian Cat");
     }
@@ -72,11 +69,9 @@ public class ProductSmokeTest extends BaseTest {
     @Severity(SeverityLevel.NORMAL)
     @DisplayName("Get Product by ID")
     public void getProductByIdTest() {
-        Response response = RestAssured.given(Spec).contentType(ContentType.JSON).get("/products/" + productId);
-        response.prettyPrint();
+        Response response = RestAssured.given(Spec).contentType(ContentType.JSON).get("/products/" + scenario.get("productId"));
         Product responseProduct = response.as(Product.class);
         Assert.assertEquals(response.getStatusCode(), 200);
-        Assert.assertTrue(response.time() < 2000);
         Assert.assertEquals(responseProduct.getTitle(), "Cat");
         Assert.assertEquals(responseProduct.getDescription(), "Egyptian Cat");
     }
@@ -87,16 +82,14 @@ public class ProductSmokeTest extends BaseTest {
     @Severity(SeverityLevel.NORMAL)
     @DisplayName("Get Product by Slug")
     public void getProductBySlugTest() {
-        Response response = RestAssured.given(Spec).contentType(ContentType.JSON).get("/products/slug/" + productSlug);
-        response.prettyPrint();
+        Response response = RestAssured.given(Spec).contentType(ContentType.JSON).get("/products/slug/" + scenario.get("productSlug"));
         Product responseProduct = response.as(Product.class);
         Assert.assertEquals(response.getStatusCode(), 200);
-        Assert.assertTrue(response.time() < 2000);
         Assert.assertEquals(responseProduct.getTitle(), "Cat");
         Assert.assertEquals(responseProduct.getDescription(), "Egyptian Cat");
     }
 
-    @Test(dependsOnMethods = "createProductTest")
+    @Test(dependsOnMethods = {"getProductByIdTest", "getProductBySlugTest"})
     @Story("Update product")
     @Description("Update the full product information")
     @Severity(SeverityLevel.CRITICAL)
@@ -107,11 +100,10 @@ public class ProductSmokeTest extends BaseTest {
                 "https://placehold1.co/600x400",
                 "https://placehold2.co/600x400"
         );
-        product.fullyUpdateProduct("Change title", 250, "Changed Description", categoryId, images);
+        product.fullyUpdateProduct("Change title", 250, "Changed Description", scenario.get("categoryId"), images);
 
         Response response = RestAssured.given(Spec).contentType(ContentType.JSON)
-                .body(product).put("/products/" + productId);
-        response.prettyPrint();
+                .body(product).put("/products/" + scenario.get("productId"));
         Product responseProduct = response.as(Product.class);
 
         Assert.assertEquals(response.statusCode(), 200);
@@ -127,9 +119,83 @@ public class ProductSmokeTest extends BaseTest {
     @Severity(SeverityLevel.BLOCKER)
     @DisplayName("Delete Product")
     public void deleteProductTest() {
-        Response response = RestAssured.given(Spec).delete("/products/" + productId);
-        response.prettyPrint();
+        Response response = RestAssured.given(Spec).delete("/products/" + scenario.get("productId"));
         Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
         Assert.assertEquals(response.getBody().asString(), "true", "Response body should be 'true'");
     }
+
+    @AfterClass(alwaysRun = true)
+    public void releaseCategory() {
+        // Returned here rather than after the delete step, so a failed or skipped step does not leak the category.
+        if (scenario.has("category")) {
+            Fixtures.get().categories().checkin(scenario.get("category"));
+            scenario.put("category", null);
+        }
+    }
+
+    @Test(dependsOnMethods = "getAllProductsTest")
+    @Story("Product latency SLO")
+    @Description("Sample GET /products and GET /products/{id} repeatedly and verify their p95/p99 latency objectives")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Products Latency SLO")
+    public void productsLatencySloTest() {
+        LatencySlo.forEndpoint("GET /products")
+                .percentile(95, Duration.ofMillis(2000))
+                .percentile(99, Duration.ofMillis(3000))
+                .verify(() -> RestAssured.given(Spec).header(ResponseCache.NO_CACHE).get("/products"));
+
+        Product pooled = Fixtures.get().products().checkout();
+        try {
+            LatencySlo.forEndpoint("GET /products/{id}")
+                    .percentile(95, Duration.ofMillis(2000))
+                    .percentile(99, Duration.ofMillis(3000))
+                    .verify(() -> RestAssured.given(Spec).header(ResponseCache.NO_CACHE).get("/products/" + pooled.getId()));
+        } finally {
+            Fixtures.get().products().checkin(pooled);
+        }
+    }
+
+    @Test(dependsOnMethods = "createProductTest")
+    @Story("Product latency SLO")
+    @Description("Sample POST /products/ repeatedly, deleting each created product, and verify its p95 latency objective")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Create Product Latency SLO")
+    public void createProductLatencySlo() {
+        Category category = Fixtures.get().categories().checkout();
+        try {
+            LatencySlo.forEndpoint("POST /products")
+                    .samples(50)
+                    .percentile(95, Duration.ofMillis(2000))
+                    .verify(() -> RestAssured.given(Spec)
+                                    .contentType(ContentType.JSON)
+                                    .body(new Product(TestData.uniqueName("product"), 100, "Latency sample", category.getId(),
+                                            List.of("https://placehold.co/600x400")))
+                                    .post("/products/"),
+                            created -> RestAssured.given(Spec).delete("/products/" + created.jsonPath().getInt("id")));
+        } finally {
+            Fixtures.get().categories().checkin(category);
+        }
+    }
+
+    @Test(dependsOnMethods = "getAllProductsTest")
+    @Story("Crawl product catalog")
+    @Description("Page through /products with concurrent offset/limit requests; against the local stand-in, verify pages do not overlap")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Crawl Product Catalog")
+    public void crawlProductCatalogTest() {
+        CatalogCrawler<Product> crawler = CatalogCrawler.of("/products", Product.class, Product::getId).pageSize(10);
+        long crawled;
+        try (Stream<Product> products = crawler.stream()) {
+            crawled = products.filter(product -> product.getTitle() != null).count();
+        }
+        CrawlStats stats = crawler.stats();
+        Allure.addAttachment("Crawl stats", stats.toString());
+
+        Assert.assertTrue(crawled > 0, "No products crawled");
+        // Only the local stand-in lists by ascending id, so creates during the crawl append past it; the shared API
+        // moves under the crawler. Gaps and items skipped after a delete are reported in the stats, not asserted.
+        if (Config.isLocal()) {
+            Assert.assertEquals(stats.duplicates(), 0, "Pages overlap: " + stats);
+        }
+    }
 }
@@ -0,0 +1,164 @@
+package replay;
+
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only view of an archive written by {@link ArchiveWriter}. Both files are memory-mapped. A lookup
+ * binary-searches the index for the key's hash, then confirms the key stored in the record itself.
+ */
+public class ArchiveReader implements AutoCloseable {
+    private final Path base;
+    private final MappedByteBuffer data;
+    private final LongBuffer index;
+    private final String runId;
+
+    public ArchiveReader(Path base) {
+        this.base = base;
+        try (FileChannel dataChannel = FileChannel.open(dataFile(base), StandardOpenOption.READ);
+             FileChannel indexChannel = FileChannel.open(indexFile(base), StandardOpenOption.READ)) {
+            data = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, dataChannel.size());
+            index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size()).asLongBuffer();
+            if (data.getLong(0) != ArchiveWriter.MAGIC) {
+                throw new IllegalStateException(dataFile(base) + " is not a traffic archive");
+            }
+            runId = input(data.slice(Long.BYTES, data.limit() - Long.BYTES)).readUTF();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the traffic archive " + base
+                    + " (record it first with -Dtraffic.mode=record)", e);
+        }
+    }
+
+    static Path dataFile(Path base) {
+        return base.resolveSibling(base.getFileName() + ".bin");
+    }
+
+    static Path indexFile(Path base) {
+        return base.resolveSibling(base.getFileName() + ".idx");
+    }
+
+    /**
+     * 64-bit FNV-1a of the key's UTF-8 bytes.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * {@link context.TestData#runId()} of the recording run. Names it generated come back in replayed responses.
+     */
+    public String runId() {
+        return runId;
+    }
+
+    public int size() {
+        return index.limit() / 2;
+    }
+
+    /**
+     * Record offsets for {@code key} in recording order.
+     */
+    public List<Long> offsets(String key) {
+        long hash = hash(key);
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (index.get(mid * 2) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<Long> offsets = new ArrayList<>();
+        for (int i = low; i < size() && index.get(i * 2) == hash; i++) {
+            long offset = index.get(i * 2 + 1);
+            if (key.equals(keyAt(offset))) {
+                offsets.add(offset);
+            }
+        }
+        return offsets;
+    }
+
+    public RecordedExchange read(long offset) {
+        try {
+            DataInputStream record = record(offset);
+            return new RecordedExchange(record.readUTF(), record.readUTF(), record.readUTF(), readHeaders(record),
+                    readBytes(record), record.readUnsignedShort(), record.readLong(), readHeaders(record), readBytes(record));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt record at offset " + offset + " in " + base, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        // Mapped buffers are released by the garbage collector.
+    }
+
+    private String keyAt(long offset) {
+        try {
+            return record(offset).readUTF();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt record at offset " + offset + " in " + base, e);
+        }
+    }
+
+    private DataInputStream record(long offset) {
+        int length = data.getInt((int) offset);
+        return input(data.slice((int) offset + Integer.BYTES, length));
+    }
+
+    private static DataInputStream input(ByteBuffer buffer) {
+        return new DataInputStream(new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int off, int len) {
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(len, buffer.remaining());
+                buffer.get(bytes, off, count);
+                return count;
+            }
+        });
+    }
+
+    private static Headers readHeaders(DataInputStream record) throws IOException {
+        int count = record.readUnsignedShort();
+        List<Header> headers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            headers.add(new Header(record.readUTF(), record.readUTF()));
+        }
+        return new Headers(headers);
+    }
+
+    private static byte[] readBytes(DataInputStream record) throws IOException {
+        byte[] bytes = new byte[record.readInt()];
+        record.readFully(bytes);
+        return bytes;
+    }
+}
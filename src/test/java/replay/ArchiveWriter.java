@@ -0,0 +1,114 @@
+package replay;
+
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends exchanges to {@code <archive>.bin} and, on close, writes {@code <archive>.idx}: a sorted table of
+ * (key hash, record offset) pairs that {@link ArchiveReader} memory-maps and binary-searches.
+ * <p>
+ * Data file: the magic number, the recording run id, then length-prefixed records. Each record holds
+ * key, method, URI, request headers and body, status, elapsed micros, response headers and body.
+ */
+public class ArchiveWriter implements AutoCloseable {
+    static final long MAGIC = 0x5046535452414631L;
+
+    private final Path base;
+    private final DataOutputStream out;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<long[]> index = new ArrayList<>();
+    private long offset;
+
+    public ArchiveWriter(Path base, String runId) {
+        this.base = base;
+        try {
+            Files.createDirectories(base.toAbsolutePath().getParent());
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(ArchiveReader.dataFile(base)), 1 << 16));
+            out.writeLong(MAGIC);
+            out.writeUTF(runId);
+            offset = out.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the traffic archive " + base, e);
+        }
+    }
+
+    public void append(RecordedExchange exchange) {
+        // Serialize outside the lock; only the append itself is ordered.
+        byte[] record = encode(exchange);
+        lock.lock();
+        try {
+            index.add(new long[]{ArchiveReader.hash(exchange.key()), offset});
+            out.writeInt(record.length);
+            out.write(record);
+            offset += Integer.BYTES + record.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the traffic archive " + base, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try (out; DataOutputStream idx = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(ArchiveReader.indexFile(base))))) {
+            index.sort(Comparator.<long[]>comparingLong(entry -> entry[0]).thenComparingLong(entry -> entry[1]));
+            for (long[] entry : index) {
+                idx.writeLong(entry[0]);
+                idx.writeLong(entry[1]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the traffic index " + base, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] encode(RecordedExchange exchange) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + exchange.responseBody().length);
+        try (DataOutputStream record = new DataOutputStream(bytes)) {
+            record.writeUTF(exchange.key());
+            record.writeUTF(exchange.method());
+            record.writeUTF(exchange.uri());
+            writeHeaders(record, exchange.requestHeaders());
+            writeBytes(record, exchange.requestBody());
+            record.writeShort(exchange.status());
+            record.writeLong(exchange.elapsedMicros());
+            writeHeaders(record, exchange.responseHeaders());
+            writeBytes(record, exchange.responseBody());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeHeaders(DataOutputStream record, Headers headers) throws IOException {
+        record.writeShort(headers.size());
+        for (Header header : headers) {
+            record.writeUTF(header.getName());
+            record.writeUTF(header.getValue());
+        }
+    }
+
+    private static void writeBytes(DataOutputStream record, byte[] body) throws IOException {
+        record.writeInt(body.length);
+        record.write(body);
+    }
+}
@@ -0,0 +1,10 @@
+package replay;
+
+import io.restassured.http.Headers;
+
+/**
+ * One archived request/response pair. {@code key} is the normalized request it is replayed for.
+ */
+public record RecordedExchange(String key, String method, String uri, Headers requestHeaders, byte[] requestBody,
+                               int status, long elapsedMicros, Headers responseHeaders, byte[] responseBody) {
+}
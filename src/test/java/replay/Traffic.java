@@ -0,0 +1,203 @@
+package replay;
+
+import client.PooledHttpClient;
+import context.TestData;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Record/replay of the suite's HTTP traffic, selected with {@code -Dtraffic.mode=record|replay}.
+ * <ul>
+ *     <li>{@code record} appends every exchange to the archive at {@code traffic.archive}.</li>
+ *     <li>{@code replay} serves every exchange from that archive and never opens a connection.</li>
+ * </ul>
+ * Requests are matched on method, path relative to the API base, sorted query, and hashes of the
+ * {@code Authorization} header and the request body. When replaying, this run's {@link TestData#runId()} is
+ * rewritten to the recording's in the URI and body, so a generated name matches the one it replaces and every
+ * entity keeps a key of its own. The n-th identical request gets the n-th recorded response, which keeps
+ * sequential replays deterministic. With
+ * {@code traffic.timing=recorded} each replayed response is delayed by its recorded latency divided by
+ * {@code traffic.speedup}.
+ */
+public final class Traffic implements OrderedFilter, AutoCloseable {
+    private final Mode mode;
+    private final String basePath;
+    private final ArchiveWriter writer;
+    private final ArchiveReader reader;
+    private final String recordedRunId;
+    private final boolean recordedTiming = "recorded".equalsIgnoreCase(System.getProperty("traffic.timing", "none"));
+    private final double speedup = Double.parseDouble(System.getProperty("traffic.speedup", "1"));
+    private final Map<String, AtomicInteger> occurrences = new ConcurrentHashMap<>();
+    private final LongAdder served = new LongAdder();
+    private final LongAdder missed = new LongAdder();
+
+    public enum Mode {
+        OFF, RECORD, REPLAY
+    }
+
+    private Traffic(Mode mode, String baseUri, Path archive) {
+        this.mode = mode;
+        this.basePath = stripTrailingSlash(URI.create(baseUri).getPath());
+        this.writer = mode == Mode.RECORD ? new ArchiveWriter(archive, TestData.runId()) : null;
+        this.reader = mode == Mode.REPLAY ? new ArchiveReader(archive) : null;
+        this.recordedRunId = reader == null ? null : reader.runId();
+    }
+
+    public static Mode mode() {
+        return Mode.valueOf(System.getProperty("traffic.mode", "off").toUpperCase());
+    }
+
+    /**
+     * Opens the archive for the configured mode, or returns {@code null} when record/replay is off.
+     */
+    public static Traffic fromSystemProperties(String baseUri) {
+        Mode mode = mode();
+        return mode == Mode.OFF ? null
+                : new Traffic(mode, baseUri, Path.of(System.getProperty("traffic.archive", "target/traffic/suite")));
+    }
+
+    public boolean replaying() {
+        return mode == Mode.REPLAY;
+    }
+
+    /**
+     * The run the archive belongs to: this one while recording, the recording run while replaying.
+     */
+    public String recordingRunId() {
+        return reader == null ? TestData.runId() : reader.runId();
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification responseSpec, FilterContext context) {
+        Object body = request.getBody();
+        byte[] requestBody = body == null ? new byte[0]
+                : body instanceof byte[] bytes ? bytes : body.toString().getBytes(StandardCharsets.UTF_8);
+        String key = key(request.getMethod(), request.getURI(), requestBody)
+                + authorization(request.getHeaders().getValue("Authorization"));
+        if (mode == Mode.REPLAY) {
+            RecordedExchange recorded = next(key);
+            return new ResponseBuilder()
+                    .setStatusCode(recorded.status())
+                    .setStatusLine("HTTP/1.1 " + recorded.status())
+                    .setHeaders(recorded.responseHeaders())
+                    .setContentType(String.valueOf(recorded.responseHeaders().getValue("Content-Type")))
+                    .setBody(recorded.responseBody())
+                    .build();
+        }
+        long start = System.nanoTime();
+        Response response = context.next(request, responseSpec);
+        writer.append(new RecordedExchange(key, request.getMethod(), request.getURI(), request.getHeaders(), requestBody,
+                response.getStatusCode(), TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                response.getHeaders(), response.asByteArray()));
+        return response;
+    }
+
+    /**
+     * Runs after every other filter, including per-request ones such as the bearer-token filter, so it sees the
+     * request exactly as it goes on the wire.
+     */
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    /**
+     * {@link PooledHttpClient#stream} through the archive: recorded GETs are buffered once, replayed ones are
+     * served from the mapped record.
+     */
+    public <R> R stream(PooledHttpClient pool, String uri, PooledHttpClient.StreamHandler<R> handler) throws IOException {
+        String key = key("GET", uri, new byte[0]);
+        if (mode == Mode.REPLAY) {
+            RecordedExchange recorded = next(key);
+            return handler.handle(recorded.status(), new ByteArrayInputStream(recorded.responseBody()));
+        }
+        long start = System.nanoTime();
+        return pool.stream(uri, (status, body) -> {
+            byte[] bytes = body.readAllBytes();
+            writer.append(new RecordedExchange(key, "GET", uri, new Headers(new Header("Accept", "application/json")),
+                    new byte[0], status, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                    new Headers(new Header("Content-Type", "application/json; charset=utf-8")), bytes));
+            return handler.handle(status, new ByteArrayInputStream(bytes));
+        });
+    }
+
+    public String summary() {
+        return mode == Mode.RECORD
+                ? String.format("Traffic archive: recorded %d exchanges", writer.size())
+                : String.format("Traffic archive: replayed %d of %d recorded exchanges, %d unmatched requests",
+                served.sum(), reader.size(), missed.sum());
+    }
+
+    @Override
+    public void close() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private RecordedExchange next(String key) {
+        List<Long> offsets = reader.offsets(key);
+        if (offsets.isEmpty()) {
+            missed.increment();
+            throw new IllegalStateException("No recorded exchange for " + key);
+        }
+        int occurrence = occurrences.computeIfAbsent(key, ignored -> new AtomicInteger()).getAndIncrement();
+        RecordedExchange recorded = reader.read(offsets.get(Math.min(occurrence, offsets.size() - 1)));
+        served.increment();
+        if (recordedTiming) {
+            LockSupport.parkNanos((long) (TimeUnit.MICROSECONDS.toNanos(recorded.elapsedMicros()) / speedup));
+        }
+        return recorded;
+    }
+
+    private String key(String method, String uri, byte[] body) {
+        URI parsed = URI.create(asRecorded(uri));
+        String path = stripTrailingSlash(parsed.getRawPath());
+        if (path.startsWith(basePath)) {
+            path = path.substring(basePath.length());
+        }
+        String query = parsed.getRawQuery() == null ? ""
+                : "?" + String.join("&", Arrays.stream(parsed.getRawQuery().split("&")).sorted().toList());
+        if (body.length == 0) {
+            return method.toUpperCase() + " " + path + query;
+        }
+        String recordedBody = asRecorded(new String(body, StandardCharsets.UTF_8));
+        return method.toUpperCase() + " " + path + query + " #" + Long.toHexString(ArchiveReader.hash(recordedBody));
+    }
+
+    /**
+     * The text as the recording run sent it. Names that came back in replayed responses, such as a pooled user's
+     * email, already carry the recording's run id and are left alone.
+     */
+    private String asRecorded(String text) {
+        return recordedRunId == null ? text : text.replace(TestData.runId() + "x", recordedRunId + "x");
+    }
+
+    private static String authorization(String header) {
+        return header == null ? "" : " auth#" + Long.toHexString(ArchiveReader.hash(header));
+    }
+
+    private static String stripTrailingSlash(String path) {
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+}
@@ -0,0 +1,53 @@
+package resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-host breaker. After {@code failures} consecutive transport errors or gateway responses it opens and rejects
+ * calls for {@code openNanos}; then a single probe is let through, which closes it again or reopens it.
+ */
+final class CircuitBreaker {
+    private static final long CLOSED = 0;
+    private static final long PROBING = -1;
+
+    private final int failures;
+    private final long openNanos;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    /**
+     * {@link #CLOSED}, {@link #PROBING}, or the {@code System.nanoTime()} at which an open breaker allows a probe.
+     */
+    private final AtomicLong state = new AtomicLong(CLOSED);
+
+    CircuitBreaker(int failures, long openNanos) {
+        this.failures = failures;
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * Whether a call may go ahead now. While open, the first caller after the open period becomes the probe.
+     */
+    boolean allow() {
+        long current = state.get();
+        if (current == CLOSED) {
+            return true;
+        }
+        return current != PROBING && System.nanoTime() - current >= 0 && state.compareAndSet(current, PROBING);
+    }
+
+    void success() {
+        consecutiveFailures.set(0);
+        state.set(CLOSED);
+    }
+
+    /**
+     * @return whether this failure opened the breaker
+     */
+    boolean failure() {
+        long current = state.get();
+        if (current == PROBING || (consecutiveFailures.incrementAndGet() >= failures && current == CLOSED)) {
+            return state.compareAndSet(current, System.nanoTime() + openNanos);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,14 @@
+package resilience;
+
+import java.io.IOException;
+
+/**
+ * A call rejected without touching the network because its host's {@link CircuitBreaker} is open.
+ */
+public class CircuitOpenException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String host) {
+        super("Circuit open for " + host + ": failing fast after repeated transport errors");
+    }
+}
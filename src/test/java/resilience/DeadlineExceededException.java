@@ -0,0 +1,14 @@
+package resilience;
+
+import java.io.InterruptedIOException;
+
+/**
+ * A call abandoned at its deadline: the per-request timeout or the end of the suite's time budget, whichever is sooner.
+ */
+public class DeadlineExceededException extends InterruptedIOException {
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,41 @@
+package resilience;
+
+import base.Config;
+
+import java.time.Duration;
+
+/**
+ * Limits the client applies to every request: how long the whole suite and each request may take, how idempotent
+ * calls are retried, when a slow GET is hedged and when a failing host is cut off.
+ */
+public record ResiliencePolicy(Duration suiteBudget, Duration requestTimeout,
+                               int maxRetries, Duration retryBase, Duration retryCap,
+                               boolean hedging, int hedgeMinSamples, Duration hedgeMinDelay,
+                               int breakerFailures, Duration breakerOpen) {
+
+    public ResiliencePolicy {
+        if (maxRetries < 0 || breakerFailures < 1) {
+            throw new IllegalArgumentException("maxRetries must be at least 0 and breakerFailures at least 1");
+        }
+    }
+
+    /**
+     * Reads {@code resilience.suiteBudgetSeconds}, {@code resilience.requestTimeoutMillis},
+     * {@code resilience.retries}, {@code resilience.retryBaseMillis}, {@code resilience.retryCapMillis},
+     * {@code resilience.hedge}, {@code resilience.hedge.minSamples}, {@code resilience.hedge.minDelayMillis},
+     * {@code resilience.breaker.failures} and {@code resilience.breaker.openMillis}.
+     */
+    public static ResiliencePolicy fromSystemProperties() {
+        return new ResiliencePolicy(
+                Duration.ofSeconds(Config.longValue("resilience.suiteBudgetSeconds", 1800)),
+                Duration.ofMillis(Config.longValue("resilience.requestTimeoutMillis", 30_000)),
+                Config.integer("resilience.retries", 2),
+                Duration.ofMillis(Config.longValue("resilience.retryBaseMillis", 100)),
+                Duration.ofMillis(Config.longValue("resilience.retryCapMillis", 2_000)),
+                Boolean.getBoolean("resilience.hedge"),
+                Config.integer("resilience.hedge.minSamples", 20),
+                Duration.ofMillis(Config.longValue("resilience.hedge.minDelayMillis", 20)),
+                Config.integer("resilience.breaker.failures", 5),
+                Duration.ofMillis(Config.longValue("resilience.breaker.openMillis", 5_000)));
+    }
+}
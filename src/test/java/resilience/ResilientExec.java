@@ -0,0 +1,388 @@
+package resilience;
+
+import logging.Exchange;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.http.Header;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpExecutionAware;
+import org.apache.http.client.methods.HttpRequestWrapper;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.Cancellable;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.execchain.ClientExecChain;
+import org.apache.http.protocol.BasicHttpContext;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The stage of the pooled client's exec chain that bounds how long any one call can hold up a test. It sits just
+ * above the protocol stage, so every attempt below it gets the full request processing and its own connection lease.
+ * <ul>
+ *     <li>Every call has a deadline: {@link ResiliencePolicy#requestTimeout()} from its start, but never past the end
+ *     of the suite's {@link ResiliencePolicy#suiteBudget()}. Pool waits, connects and reads time out at the
+ *     deadline, and a watchdog aborts whatever is still running then.</li>
+ *     <li>Idempotent calls are retried after transport errors and 502/503/504 responses, with full-jitter
+ *     exponential backoff that never sleeps past the deadline.</li>
+ *     <li>A GET still waiting at its endpoint's p95 latency is hedged: a duplicate goes out on another connection,
+ *     the first response wins and the other request is aborted.</li>
+ *     <li>Consecutive failures open a per-host {@link CircuitBreaker}; calls then fail fast with
+ *     {@link CircuitOpenException} until a probe succeeds.</li>
+ * </ul>
+ * Every decision is counted and reported by {@link #summary()}.
+ */
+public final class ResilientExec {
+    private static final Set<String> IDEMPOTENT = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE");
+    private static final Set<Integer> GATEWAY_ERRORS = Set.of(502, 503, 504);
+
+    private final ResiliencePolicy policy;
+    private final long suiteDeadline;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> endpointMicros = new ConcurrentHashMap<>();
+    private final Histogram callMicros = new ConcurrentHistogram(3);
+    private final ScheduledThreadPoolExecutor timer;
+    private final ExecutorService hedges;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder pastDeadline = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    public ResilientExec(ResiliencePolicy policy) {
+        this.policy = policy;
+        suiteDeadline = System.nanoTime() + policy.suiteBudget().toNanos();
+        timer = new ScheduledThreadPoolExecutor(1, task -> Thread.ofPlatform().daemon().name("resilience-timer").unstarted(task));
+        timer.setRemoveOnCancelPolicy(true);
+        AtomicInteger hedgeIds = new AtomicInteger();
+        hedges = Executors.newCachedThreadPool(task -> Thread.ofPlatform().daemon()
+                .name("hedge-" + hedgeIds.incrementAndGet()).unstarted(task));
+    }
+
+    /**
+     * Wraps the protocol stage of an exec chain. Retries are decided here, with backoff and a deadline, so the
+     * client should be built with HttpClient's own immediate resend disabled.
+     */
+    public ClientExecChain decorate(ClientExecChain next) {
+        return (route, request, context, execAware) -> execute(next, route, request, context, execAware);
+    }
+
+    private CloseableHttpResponse execute(ClientExecChain next, HttpRoute route, HttpRequestWrapper request,
+                                          HttpClientContext context, HttpExecutionAware execAware) throws IOException, HttpException {
+        calls.increment();
+        long start = System.nanoTime();
+        long deadline = Math.min(start + policy.requestTimeout().toNanos(), suiteDeadline);
+        String host = route.getTargetHost().toHostString();
+        CircuitBreaker breaker = breakers.computeIfAbsent(host,
+                key -> new CircuitBreaker(policy.breakerFailures(), policy.breakerOpen().toNanos()));
+        // The stages below rewrite the URI and add headers, so each retry starts again from the request as it came in.
+        URI uri = request.getURI();
+        Header[] headers = request.getAllHeaders();
+        String requestLine = request.getMethod() + " " + (request.getOriginal() instanceof HttpUriRequest original ? original.getURI() : uri);
+        String endpoint = Exchange.endpoint(request.getMethod(), uri.toString());
+        boolean retryable = retryable(request);
+        IOException lastFailure = null;
+
+        for (int attempt = 0; ; attempt++) {
+            if (deadline - System.nanoTime() <= 0) {
+                pastDeadline.increment();
+                throw new DeadlineExceededException(requestLine + " has no time left: "
+                        + (deadline == suiteDeadline ? "the suite budget of " + policy.suiteBudget() + " is spent" : "request timeout reached"));
+            }
+            if (!breaker.allow()) {
+                rejected.increment();
+                CircuitOpenException open = new CircuitOpenException(host);
+                if (lastFailure != null) {
+                    // Retrying into an open circuit: report what actually went wrong.
+                    lastFailure.addSuppressed(open);
+                    throw lastFailure;
+                }
+                throw open;
+            }
+            if (attempt > 0) {
+                request.setURI(uri);
+                request.setHeaders(headers);
+            }
+            long attemptStart = System.nanoTime();
+            CloseableHttpResponse response;
+            try {
+                response = attempt(next, route, request, context, execAware, requestLine, endpoint, deadline);
+            } catch (IOException e) {
+                if (breaker.failure()) {
+                    opened.increment();
+                }
+                long pause = retryable && !(e instanceof DeadlineExceededException) ? retryPause(attempt, deadline) : -1;
+                if (pause < 0) {
+                    throw e;
+                }
+                lastFailure = e;
+                pauseBeforeRetry(requestLine, pause);
+                continue;
+            }
+            if (GATEWAY_ERRORS.contains(response.getStatusLine().getStatusCode())) {
+                if (breaker.failure()) {
+                    opened.increment();
+                }
+                long pause = retryable ? retryPause(attempt, deadline) : -1;
+                if (pause >= 0) {
+                    closeQuietly(response);
+                    pauseBeforeRetry(requestLine, pause);
+                    continue;
+                }
+                return response;
+            }
+            breaker.success();
+            long now = System.nanoTime();
+            endpointMicros.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(3))
+                    .recordValue(TimeUnit.NANOSECONDS.toMicros(now - attemptStart));
+            callMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(now - start));
+            return response;
+        }
+    }
+
+    public String summary() {
+        return String.format("Resilience: %d calls, %d retries, %d hedges (%d won), %d past deadline, %d rejected by an open circuit "
+                        + "(%d opened), call p50=%.2f ms p99=%.2f ms max=%.2f ms, suite budget left %ds",
+                calls.sum(), retries.sum(), hedgesSent.sum(), hedgesWon.sum(), pastDeadline.sum(), rejected.sum(), opened.sum(),
+                callMicros.getValueAtPercentile(50) / 1000.0, callMicros.getValueAtPercentile(99) / 1000.0,
+                callMicros.getMaxValue() / 1000.0, Math.max(0, TimeUnit.NANOSECONDS.toSeconds(suiteDeadline - System.nanoTime())));
+    }
+
+    public void close() {
+        timer.shutdownNow();
+        hedges.shutdownNow();
+    }
+
+    /**
+     * One try, hedged when the endpoint's latency is known, with every timeout set to the time left.
+     */
+    private CloseableHttpResponse attempt(ClientExecChain next, HttpRoute route, HttpRequestWrapper request, HttpClientContext context,
+                                          HttpExecutionAware execAware, String requestLine, String endpoint, long deadline)
+            throws IOException, HttpException {
+        long remaining = deadline - System.nanoTime();
+        int timeoutMillis = (int) Math.max(1, Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(remaining)));
+        context.setRequestConfig(RequestConfig.copy(context.getRequestConfig())
+                .setSocketTimeout(timeoutMillis)
+                .setConnectTimeout(timeoutMillis)
+                .setConnectionRequestTimeout(timeoutMillis)
+                .build());
+
+        Abortable primary = new Abortable(execAware);
+        AtomicBoolean expired = new AtomicBoolean();
+        ScheduledFuture<?> watchdog = timer.schedule(() -> {
+            expired.set(true);
+            primary.cancel();
+        }, remaining, TimeUnit.NANOSECONDS);
+        try {
+            long hedgeDelay = hedgeDelay(request, endpoint, deadline);
+            return hedgeDelay < 0
+                    ? next.execute(route, request, context, primary)
+                    : hedged(next, route, request, context, primary, hedgeDelay);
+        } catch (IOException e) {
+            if (expired.get() || e instanceof InterruptedIOException && deadline - System.nanoTime() <= 0) {
+                pastDeadline.increment();
+                throw (DeadlineExceededException) new DeadlineExceededException(
+                        requestLine + " exceeded its deadline of " + timeoutMillis + " ms").initCause(e);
+            }
+            throw e;
+        } finally {
+            watchdog.cancel(false);
+        }
+    }
+
+    /**
+     * Nanoseconds to wait before hedging, or {@code -1} for calls that are not hedged: anything but GET, endpoints
+     * with fewer than {@link ResiliencePolicy#hedgeMinSamples()} timings, or when the hedge would start after the deadline.
+     */
+    private long hedgeDelay(HttpRequestWrapper request, String endpoint, long deadline) {
+        if (!policy.hedging() || !"GET".equals(request.getMethod())) {
+            return -1;
+        }
+        Histogram micros = endpointMicros.get(endpoint);
+        if (micros == null || micros.getTotalCount() < policy.hedgeMinSamples()) {
+            return -1;
+        }
+        long delay = Math.max(TimeUnit.MICROSECONDS.toNanos(micros.getValueAtPercentile(95)), policy.hedgeMinDelay().toNanos());
+        return System.nanoTime() + delay < deadline ? delay : -1;
+    }
+
+    private CloseableHttpResponse hedged(ClientExecChain next, HttpRoute route, HttpRequestWrapper request, HttpClientContext context,
+                                         Abortable primary, long delayNanos) throws IOException, HttpException {
+        Hedge hedge = new Hedge(next, route, request, context, primary);
+        ScheduledFuture<?> trigger = timer.schedule(() -> hedges.execute(hedge), delayNanos, TimeUnit.NANOSECONDS);
+        CloseableHttpResponse response;
+        try {
+            response = next.execute(route, request, context, primary);
+        } catch (IOException e) {
+            trigger.cancel(false);
+            // The hedge aborts the primary when it wins, so the primary's failure may just be that.
+            if (hedge.winner.get() == Hedge.HEDGE) {
+                return hedge.response;
+            }
+            hedge.lose();
+            throw e;
+        }
+        trigger.cancel(false);
+        if (hedge.winner.compareAndSet(Hedge.NONE, Hedge.PRIMARY)) {
+            hedge.lose();
+            return response;
+        }
+        closeQuietly(response);
+        return hedge.response;
+    }
+
+    /**
+     * A duplicate of a slow GET, sent down the same chain in a child context. Whichever of it and the primary
+     * completes first claims {@link #winner}; the hedge stores its response before claiming, so the primary can
+     * always hand it on.
+     */
+    private final class Hedge implements Runnable {
+        static final int NONE = 0;
+        static final int PRIMARY = 1;
+        static final int HEDGE = 2;
+
+        final AtomicInteger winner = new AtomicInteger(NONE);
+        private final ClientExecChain next;
+        private final HttpRoute route;
+        private final HttpRequestWrapper duplicate;
+        private final HttpClientContext context;
+        private final Abortable primary;
+        private final Abortable abortable = new Abortable(null);
+        volatile CloseableHttpResponse response;
+
+        Hedge(ClientExecChain next, HttpRoute route, HttpRequestWrapper request, HttpClientContext context, Abortable primary) {
+            this.next = next;
+            this.route = route;
+            this.duplicate = HttpRequestWrapper.wrap(request.getOriginal(), request.getTarget());
+            duplicate.setURI(request.getURI());
+            duplicate.setHeaders(request.getAllHeaders());
+            this.context = HttpClientContext.adapt(new BasicHttpContext(context));
+            this.primary = primary;
+        }
+
+        @Override
+        public void run() {
+            if (winner.get() != NONE) {
+                return;
+            }
+            hedgesSent.increment();
+            try {
+                CloseableHttpResponse hedged = next.execute(route, duplicate, context, abortable);
+                response = hedged;
+                if (winner.compareAndSet(NONE, HEDGE)) {
+                    hedgesWon.increment();
+                    primary.cancel();
+                } else {
+                    closeQuietly(hedged);
+                }
+            } catch (IOException | HttpException | RuntimeException e) {
+                // Aborted because the primary won, or failed on its own: either way the primary decides.
+            }
+        }
+
+        /**
+         * Stops the hedge after the primary completed or failed first.
+         */
+        void lose() {
+            winner.compareAndSet(NONE, PRIMARY);
+            abortable.cancel();
+        }
+    }
+
+    /**
+     * The abort handle of one attempt. The stages below register their connection lease or connection on it, so
+     * cancelling it aborts just this attempt; it is registered on the caller's request in turn, so aborting that
+     * request still aborts whatever attempt is running.
+     */
+    private static final class Abortable implements HttpExecutionAware, Cancellable {
+        private final HttpExecutionAware caller;
+        private volatile Cancellable current;
+        private volatile boolean aborted;
+
+        Abortable(HttpExecutionAware caller) {
+            this.caller = caller;
+            if (caller != null) {
+                caller.setCancellable(this);
+            }
+        }
+
+        @Override
+        public boolean isAborted() {
+            return aborted || caller != null && caller.isAborted();
+        }
+
+        @Override
+        public void setCancellable(Cancellable cancellable) {
+            current = cancellable;
+            if (aborted) {
+                cancellable.cancel();
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            aborted = true;
+            Cancellable cancellable = current;
+            return cancellable == null || cancellable.cancel();
+        }
+    }
+
+    /**
+     * Full-jitter backoff for the given attempt in nanoseconds, or {@code -1} when retries are used up or the pause
+     * would run into the deadline.
+     */
+    private long retryPause(int attempt, long deadline) {
+        if (attempt >= policy.maxRetries()) {
+            return -1;
+        }
+        long ceiling = Math.min(policy.retryCap().toNanos(), policy.retryBase().toNanos() << Math.min(attempt, 20));
+        long pause = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        return System.nanoTime() + pause < deadline ? pause : -1;
+    }
+
+    private void pauseBeforeRetry(String requestLine, long pauseNanos) throws InterruptedIOException {
+        retries.increment();
+        try {
+            TimeUnit.NANOSECONDS.sleep(pauseNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off before retrying " + requestLine);
+        }
+    }
+
+    private static boolean retryable(HttpRequestWrapper request) {
+        if (!IDEMPOTENT.contains(request.getMethod())) {
+            return false;
+        }
+        return !(request instanceof HttpEntityEnclosingRequest enclosing)
+                || enclosing.getEntity() == null || enclosing.getEntity().isRepeatable();
+    }
+
+    private static void closeQuietly(CloseableHttpResponse response) {
+        try {
+            response.close();
+        } catch (IOException ignored) {
+            // The connection is discarded either way.
+        }
+    }
+}
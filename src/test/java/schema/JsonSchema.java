@@ -0,0 +1,50 @@
+package schema;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A compiled schema. Immutable once built and shared by every thread through {@link Schemas}.
+ */
+public final class JsonSchema {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final String name;
+    private final SchemaNode root;
+
+    JsonSchema(String name, SchemaNode root) {
+        this.name = name;
+        this.root = root;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Checks a response body in one pass over its tokens, without building a tree or binding a POJO.
+     *
+     * @throws SchemaViolation at the first value that breaks the schema
+     */
+    public void validate(byte[] body) {
+        try (JsonParser parser = JSON.createParser(body)) {
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                throw new SchemaViolation("empty body").in(name);
+            }
+            root.validate(parser, first);
+        } catch (SchemaViolation violation) {
+            throw violation.in(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the body validated against " + name, e);
+        }
+    }
+
+    SchemaNode root() {
+        return root;
+    }
+}
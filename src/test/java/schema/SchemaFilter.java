@@ -0,0 +1,51 @@
+package schema;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import logging.Exchange;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks every successful response of a known endpoint against its schema before the test sees it, so a contract
+ * break fails the call that received it. Error responses and endpoints without a schema pass through untouched.
+ */
+public final class SchemaFilter implements Filter {
+    private final Schemas schemas;
+    private final LongAdder validated = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    public SchemaFilter(Schemas schemas) {
+        this.schemas = schemas;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification responseSpec, FilterContext context) {
+        Response response = context.next(request, responseSpec);
+        if (response.getStatusCode() / 100 == 2) {
+            check(request.getMethod(), request.getURI(), response.asByteArray());
+        }
+        return response;
+    }
+
+    /**
+     * Validates a successful response body received outside RestAssured, such as by {@link client.AsyncClient}.
+     *
+     * @throws SchemaViolation if the body breaks the endpoint's schema
+     */
+    public void check(String method, String uri, byte[] body) {
+        JsonSchema schema = schemas.forEndpoint(Exchange.endpoint(method, uri));
+        if (schema != null) {
+            schema.validate(body);
+            validated.increment();
+            bytes.add(body.length);
+        }
+    }
+
+    public String summary() {
+        return String.format("Schema validation: %d responses, %.1f KB checked", validated.sum(), bytes.sum() / 1024.0);
+    }
+}
@@ -0,0 +1,172 @@
+package schema;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * One compiled (sub)schema. Everything a keyword needs is resolved when the schema is compiled: property lookups
+ * are a hash map, required properties a bit mask, formats precompiled patterns. Validation only walks parser tokens.
+ */
+final class SchemaNode {
+    static final int OBJECT = 1;
+    static final int ARRAY = 1 << 1;
+    static final int STRING = 1 << 2;
+    static final int INTEGER = 1 << 3;
+    static final int NUMBER = 1 << 4;
+    static final int BOOLEAN = 1 << 5;
+    static final int NULL = 1 << 6;
+    static final int ANY = -1;
+
+    private static final List<String> TYPE_NAMES = List.of("object", "array", "string", "integer", "number", "boolean", "null");
+
+    int types = ANY;
+    Supplier<SchemaNode> ref;
+    final Map<String, Property> properties = new HashMap<>();
+    long requiredMask;
+    List<String> requiredNames = List.of();
+    boolean additionalProperties = true;
+    SchemaNode items;
+    int minItems;
+    int minLength;
+    Pattern format;
+    String formatName;
+    Set<String> enumValues;
+    Double minimum;
+    Double exclusiveMinimum;
+
+    record Property(SchemaNode schema, long bit) {
+    }
+
+    /**
+     * Validates the value starting at {@code token}, leaving the parser on its last token.
+     */
+    void validate(JsonParser parser, JsonToken token) throws IOException {
+        if (ref != null) {
+            ref.get().validate(parser, token);
+            return;
+        }
+        int kind = kindOf(parser, token);
+        if (types != ANY && (types & kind) == 0 && !(kind == INTEGER && (types & NUMBER) != 0)) {
+            throw new SchemaViolation("expected " + typeNames(types) + " but was " + typeNames(kind));
+        }
+        switch (kind) {
+            case OBJECT -> validateObject(parser);
+            case ARRAY -> validateArray(parser);
+            case STRING -> validateString(parser.getText());
+            case INTEGER, NUMBER -> validateNumber(parser.getDoubleValue());
+            default -> {
+            }
+        }
+    }
+
+    private void validateObject(JsonParser parser) throws IOException {
+        long seen = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            Property property = properties.get(name);
+            if (property != null) {
+                try {
+                    property.schema().validate(parser, value);
+                } catch (SchemaViolation violation) {
+                    throw violation.at(name);
+                }
+                seen |= property.bit();
+            } else if (!additionalProperties) {
+                throw new SchemaViolation("unexpected property '" + name + "'").at(name);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if ((seen & requiredMask) != requiredMask) {
+            for (String name : requiredNames) {
+                if ((seen & properties.get(name).bit()) == 0) {
+                    throw new SchemaViolation("missing required property '" + name + "'");
+                }
+            }
+        }
+    }
+
+    private void validateArray(JsonParser parser) throws IOException {
+        if (items == null && minItems == 0) {
+            parser.skipChildren();
+            return;
+        }
+        int index = 0;
+        for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY; element = parser.nextToken()) {
+            if (items == null) {
+                parser.skipChildren();
+            } else {
+                try {
+                    items.validate(parser, element);
+                } catch (SchemaViolation violation) {
+                    throw violation.at(index);
+                }
+            }
+            index++;
+        }
+        if (index < minItems) {
+            throw new SchemaViolation("expected at least " + minItems + " items but found " + index);
+        }
+    }
+
+    private void validateString(String value) {
+        if (value.length() < minLength) {
+            throw new SchemaViolation("expected at least " + minLength + " characters but found " + value.length());
+        }
+        if (format != null && !format.matcher(value).matches()) {
+            throw new SchemaViolation("'" + value + "' is not a valid " + formatName);
+        }
+        if (enumValues != null && !enumValues.contains(value)) {
+            throw new SchemaViolation("'" + value + "' is not one of " + enumValues);
+        }
+    }
+
+    private void validateNumber(double value) {
+        if (minimum != null && value < minimum) {
+            throw new SchemaViolation(value + " is below the minimum " + minimum);
+        }
+        if (exclusiveMinimum != null && value <= exclusiveMinimum) {
+            throw new SchemaViolation(value + " is not above " + exclusiveMinimum);
+        }
+    }
+
+    private static int kindOf(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case START_OBJECT -> OBJECT;
+            case START_ARRAY -> ARRAY;
+            case VALUE_STRING -> STRING;
+            case VALUE_NUMBER_INT -> INTEGER;
+            case VALUE_NUMBER_FLOAT -> NUMBER;
+            case VALUE_TRUE, VALUE_FALSE -> BOOLEAN;
+            case VALUE_NULL -> NULL;
+            default -> throw new IOException("Unexpected token " + token + " at " + parser.currentLocation());
+        };
+    }
+
+    static int typeBit(String name) {
+        int index = TYPE_NAMES.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown JSON schema type " + name);
+        }
+        return 1 << index;
+    }
+
+    private static String typeNames(int mask) {
+        StringBuilder names = new StringBuilder();
+        for (int i = 0; i < TYPE_NAMES.size(); i++) {
+            if ((mask & (1 << i)) != 0) {
+                names.append(names.isEmpty() ? "" : " or ").append(TYPE_NAMES.get(i));
+            }
+        }
+        return names.toString();
+    }
+}
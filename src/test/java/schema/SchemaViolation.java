@@ -0,0 +1,41 @@
+package schema;
+
+/**
+ * First place a response breaks its schema. The JSON path is collected on the way out of the validator, so the
+ * passing case never builds one.
+ */
+public class SchemaViolation extends AssertionError {
+    private static final long serialVersionUID = 1L;
+
+    private final String problem;
+    private final StringBuilder path = new StringBuilder();
+    private String schema;
+
+    SchemaViolation(String problem) {
+        this.problem = problem;
+    }
+
+    SchemaViolation in(String schemaName) {
+        schema = schemaName;
+        return this;
+    }
+
+    SchemaViolation at(String property) {
+        path.insert(0, "." + property);
+        return this;
+    }
+
+    SchemaViolation at(int index) {
+        path.insert(0, "[" + index + "]");
+        return this;
+    }
+
+    public String path() {
+        return "$" + path;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Response does not match schema " + schema + " at " + path() + ": " + problem;
+    }
+}
@@ -0,0 +1,154 @@
+package schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static java.util.Map.entry;
+
+/**
+ * Suite-wide cache of compiled schemas, loaded from {@code schemas/<name>.schema.json} on the test classpath.
+ * A name ending in {@code []} is an array of that schema. Schemas are compiled on first use and then reused.
+ * <p>
+ * Supported keywords: {@code type}, {@code properties}, {@code required}, {@code additionalProperties} (boolean),
+ * {@code items}, {@code minItems}, {@code minLength}, {@code enum} (strings), {@code minimum},
+ * {@code exclusiveMinimum}, {@code format} ({@code date-time}, {@code uri}, {@code email}) and {@code $ref}
+ * to another schema file.
+ */
+public final class Schemas {
+    private static final Schemas SHARED = new Schemas();
+    private static final Map<String, Pattern> FORMATS = Map.of(
+            "date-time", Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?(Z|[+-]\\d{2}:\\d{2})"),
+            "uri", Pattern.compile("[a-zA-Z][a-zA-Z0-9+.-]*:\\S+"),
+            "email", Pattern.compile("[^@\\s]+@[^@\\s]+"));
+    private static final Map<String, String> ENDPOINTS = Map.ofEntries(
+            entry("GET /categories", "category[]"),
+            entry("POST /categories", "category"),
+            entry("GET /categories/{id}", "category"),
+            entry("GET /categories/slug/{slug}", "category"),
+            entry("PUT /categories/{id}", "category"),
+            entry("GET /categories/{id}/products", "product[]"),
+            entry("GET /products", "product[]"),
+            entry("POST /products", "product"),
+            entry("GET /products/{id}", "product"),
+            entry("GET /products/slug/{slug}", "product"),
+            entry("PUT /products/{id}", "product"),
+            entry("GET /users", "user[]"),
+            entry("POST /users", "user"),
+            entry("GET /users/{id}", "user"),
+            entry("PUT /users/{id}", "user"),
+            entry("GET /auth/profile", "user"));
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, JsonSchema> compiled = new ConcurrentHashMap<>();
+
+    private Schemas() {
+    }
+
+    public static Schemas shared() {
+        return SHARED;
+    }
+
+    public JsonSchema get(String name) {
+        JsonSchema schema = compiled.get(name);
+        if (schema != null) {
+            return schema;
+        }
+        // Not computeIfAbsent: compiling an array schema looks up its element schema in the same map.
+        JsonSchema built = compile(name);
+        JsonSchema raced = compiled.putIfAbsent(name, built);
+        return raced != null ? raced : built;
+    }
+
+    /**
+     * The schema for a successful response of an endpoint template such as {@code GET /products/{id}}, or {@code null}.
+     */
+    public JsonSchema forEndpoint(String endpoint) {
+        String name = ENDPOINTS.get(endpoint);
+        return name == null ? null : get(name);
+    }
+
+    private JsonSchema compile(String name) {
+        if (name.endsWith("[]")) {
+            String element = name.substring(0, name.length() - 2);
+            SchemaNode array = new SchemaNode();
+            array.types = SchemaNode.ARRAY;
+            array.items = get(element).root();
+            return new JsonSchema(name, array);
+        }
+        String resource = "schemas/" + name + ".schema.json";
+        try (InputStream in = Schemas.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No schema " + resource + " on the classpath");
+            }
+            return new JsonSchema(name, node(mapper.readTree(in)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + resource, e);
+        }
+    }
+
+    private SchemaNode node(JsonNode schema) {
+        SchemaNode node = new SchemaNode();
+        if (schema.has("$ref")) {
+            // Resolved on first validation, so schemas may refer to each other in any order.
+            String target = schema.get("$ref").asText().replace(".schema.json", "");
+            node.ref = () -> get(target).root();
+            return node;
+        }
+        JsonNode type = schema.path("type");
+        if (type.isTextual()) {
+            node.types = SchemaNode.typeBit(type.asText());
+        } else if (type.isArray()) {
+            node.types = 0;
+            type.forEach(name -> node.types |= SchemaNode.typeBit(name.asText()));
+        }
+
+        List<String> names = new ArrayList<>();
+        schema.path("properties").fieldNames().forEachRemaining(names::add);
+        if (names.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Schemas are limited to " + Long.SIZE + " properties per object");
+        }
+        for (int i = 0; i < names.size(); i++) {
+            node.properties.put(names.get(i), new SchemaNode.Property(node(schema.path("properties").get(names.get(i))), 1L << i));
+        }
+        List<String> required = new ArrayList<>();
+        for (JsonNode name : schema.path("required")) {
+            SchemaNode.Property property = node.properties.computeIfAbsent(name.asText(),
+                    key -> new SchemaNode.Property(new SchemaNode(), 1L << node.properties.size()));
+            node.requiredMask |= property.bit();
+            required.add(name.asText());
+        }
+        node.requiredNames = List.copyOf(required);
+        node.additionalProperties = schema.path("additionalProperties").asBoolean(true);
+
+        if (schema.has("items")) {
+            node.items = node(schema.get("items"));
+        }
+        node.minItems = schema.path("minItems").asInt(0);
+        node.minLength = schema.path("minLength").asInt(0);
+        if (schema.has("format")) {
+            node.formatName = schema.get("format").asText();
+            node.format = FORMATS.get(node.formatName);
+        }
+        if (schema.has("enum")) {
+            node.enumValues = new HashSet<>();
+            schema.get("enum").forEach(value -> node.enumValues.add(value.asText()));
+        }
+        if (schema.has("minimum")) {
+            node.minimum = schema.get("minimum").asDouble();
+        }
+        if (schema.has("exclusiveMinimum")) {
+            node.exclusiveMinimum = schema.get("exclusiveMinimum").asDouble();
+        }
+        return node;
+    }
+}
@@ -0,0 +1,124 @@
+package seed;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Concurrency limit that finds the rate the API sustains, additive-increase/multiplicative-decrease style:
+ * <ul>
+ *     <li>after a full limit's worth of fast answers, one more request may be in flight;</li>
+ *     <li>an overload signal (a 429, a 5xx or an I/O error) halves the limit;</li>
+ *     <li>latency trims it by a tenth once the smoothed round trip exceeds {@code latencyTolerance} times the best
+ *     one seen. Queues building up at the server show up here before errors do. The baseline creeps up slowly, so a
+ *     lasting change in the network is learned rather than fought.</li>
+ * </ul>
+ * A decrease happens at most once per round trip, since one burst of errors is one signal. With {@code maxRate} set,
+ * sends are also spaced to at most that many per second.
+ */
+final class AdaptiveLimit {
+    private final int min;
+    private final int max;
+    private final double latencyTolerance;
+    private final long intervalNanos;
+    private int limit;
+    private int inFlight;
+    private int successes;
+    private double smoothedNanos;
+    private double baselineNanos;
+    private long lastDecrease = System.nanoTime();
+    private long nextSend = System.nanoTime();
+    private int lowest;
+    private int highest;
+    private int decreases;
+
+    AdaptiveLimit(int initial, int min, int max, double latencyTolerance, double maxRate) {
+        this.min = min;
+        this.max = max;
+        this.latencyTolerance = latencyTolerance;
+        this.intervalNanos = maxRate > 0 ? (long) (1e9 / maxRate) : 0;
+        limit = initial;
+        lowest = initial;
+        highest = initial;
+    }
+
+    /**
+     * Waits for a free slot and, with a rate cap, for the send time reserved for this request.
+     */
+    void acquire() throws InterruptedException {
+        long sendAt;
+        synchronized (this) {
+            while (inFlight >= limit) {
+                wait();
+            }
+            inFlight++;
+            sendAt = Math.max(System.nanoTime(), nextSend);
+            nextSend = sendAt + intervalNanos;
+        }
+        for (long wait = sendAt - System.nanoTime(); wait > 0; wait = sendAt - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+            if (Thread.interrupted()) {
+                release();
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * Frees the slot of a request that was answered in {@code nanos}.
+     *
+     * @param overloaded whether the answer says the API is overloaded
+     */
+    synchronized void release(long nanos, boolean overloaded) {
+        inFlight--;
+        long now = System.nanoTime();
+        if (!overloaded) {
+            smoothedNanos = smoothedNanos == 0 ? nanos : smoothedNanos + (nanos - smoothedNanos) / 16;
+            baselineNanos = baselineNanos == 0 || smoothedNanos < baselineNanos
+                    ? smoothedNanos
+                    : baselineNanos + (smoothedNanos - baselineNanos) / 1024;
+        }
+        boolean slow = !overloaded && smoothedNanos > latencyTolerance * baselineNanos;
+        if (overloaded || slow) {
+            if (now - lastDecrease >= Math.max(smoothedNanos, TimeUnit.MILLISECONDS.toNanos(1))) {
+                limit = Math.max(min, (int) (limit * (overloaded ? 0.5 : 0.9)));
+                lowest = Math.min(lowest, limit);
+                lastDecrease = now;
+                decreases++;
+                successes = 0;
+            }
+        } else if (++successes >= limit) {
+            successes = 0;
+            limit = Math.min(max, limit + 1);
+            highest = Math.max(highest, limit);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Forgets the latency baseline, keeping the limit, for requests of a different cost than those before.
+     */
+    synchronized void resetLatency() {
+        smoothedNanos = 0;
+        baselineNanos = 0;
+    }
+
+    /**
+     * Frees a slot without a measurement, for a request that was never sent.
+     */
+    synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    synchronized int limit() {
+        return limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    synchronized String summary() {
+        return String.format("limit %d (range %d-%d, %d decreases)", limit, lowest, highest, decreases);
+    }
+}
@@ -0,0 +1,141 @@
+package seed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Which entities of a seed exist already, so an interrupted seed can resume. Per kind, a bit set marks the created
+ * indices; categories also keep their server ids, which resumed products are spread over, and products keep theirs
+ * so a seed can be verified by id. Saved as JSON through a
+ * temporary file and an atomic move, so a seed killed mid-write leaves the previous checkpoint intact.
+ * <p>
+ * A checkpoint only applies to the seed and base URI it was written for. Requests still in flight when a seed
+ * stops are not marked, so at most that many entities are created twice on resume.
+ */
+final class SeedCheckpoint {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Path file;
+    private final long randomSeed;
+    private final String baseUri;
+    private final Map<SeedEntity, BitSet> created = new EnumMap<>(SeedEntity.class);
+    private int[] categoryIds;
+    private int[] productIds = new int[0];
+    private long lastSave = System.nanoTime();
+
+    record State(long randomSeed, String baseUri, int[] categoryIds, int[] productIds, Map<SeedEntity, String> created) {
+    }
+
+    private SeedCheckpoint(Path file, long randomSeed, String baseUri, int categories) {
+        this.file = file;
+        this.randomSeed = randomSeed;
+        this.baseUri = baseUri;
+        this.categoryIds = new int[categories];
+        for (SeedEntity entity : SeedEntity.values()) {
+            created.put(entity, new BitSet());
+        }
+    }
+
+    /**
+     * Loads {@code file} when it belongs to this seed and base URI, or starts empty and says why.
+     */
+    static SeedCheckpoint open(Path file, long randomSeed, String baseUri, int categories, boolean resume) {
+        SeedCheckpoint checkpoint = new SeedCheckpoint(file, randomSeed, baseUri, categories);
+        if (!resume || !Files.exists(file)) {
+            return checkpoint;
+        }
+        State state;
+        try {
+            state = JSON.readValue(file.toFile(), State.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read seed checkpoint " + file, e);
+        }
+        if (state.randomSeed() != randomSeed || !baseUri.equals(state.baseUri())) {
+            System.out.println("Seed checkpoint " + file + " is for seed " + state.randomSeed() + " against "
+                    + state.baseUri() + ", starting over");
+            return checkpoint;
+        }
+        checkpoint.categoryIds = Arrays.copyOf(state.categoryIds(), Math.max(categories, state.categoryIds().length));
+        checkpoint.productIds = state.productIds() == null ? new int[0] : state.productIds();
+        state.created().forEach((entity, bits) -> checkpoint.created.put(entity, BitSet.valueOf(Base64.getDecoder().decode(bits))));
+        return checkpoint;
+    }
+
+    synchronized boolean isCreated(SeedEntity entity, int index) {
+        return created.get(entity).get(index);
+    }
+
+    synchronized void created(SeedEntity entity, int index) {
+        created.get(entity).set(index);
+    }
+
+    synchronized void categoryCreated(int index, int id) {
+        categoryIds[index] = id;
+        created.get(SeedEntity.CATEGORIES).set(index);
+    }
+
+    synchronized void productCreated(int index, int id) {
+        if (index >= productIds.length) {
+            productIds = Arrays.copyOf(productIds, Math.max(index + 1, productIds.length * 2));
+        }
+        productIds[index] = id;
+        created.get(SeedEntity.PRODUCTS).set(index);
+    }
+
+    /**
+     * Server id of seeded product {@code index}, or 0 if it was not recorded.
+     */
+    synchronized int productId(int index) {
+        return index < productIds.length ? productIds[index] : 0;
+    }
+
+    /**
+     * Ids of the first {@code categories} seeded categories that exist, in index order.
+     */
+    synchronized int[] categoryIds(int categories) {
+        return Arrays.stream(categoryIds, 0, Math.min(categories, categoryIds.length)).filter(id -> id > 0).toArray();
+    }
+
+    synchronized int createdBelow(SeedEntity entity, int count) {
+        return created.get(entity).get(0, count).cardinality();
+    }
+
+    Path file() {
+        return file;
+    }
+
+    synchronized void saveIfDue(long intervalNanos) {
+        if (System.nanoTime() - lastSave >= intervalNanos) {
+            save();
+        }
+    }
+
+    /**
+     * Writes the checkpoint. Held under the lock, so a save from the shutdown hook cannot interleave with one from
+     * the seeder; the file grows by about 170 bytes per thousand entities, plus the product ids.
+     */
+    synchronized void save() {
+        Map<SeedEntity, String> bits = new EnumMap<>(SeedEntity.class);
+        created.forEach((entity, set) -> bits.put(entity, Base64.getEncoder().encodeToString(set.toByteArray())));
+        State state = new State(randomSeed, baseUri, categoryIds, productIds, bits);
+        lastSave = System.nanoTime();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            JSON.writeValue(temp.toFile(), state);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write seed checkpoint " + file, e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package seed;
+
+import java.util.Locale;
+
+/**
+ * What the seeder creates, in the order it creates them: products need the ids of the categories before them.
+ */
+public enum SeedEntity {
+    CATEGORIES("/categories/", 'c'),
+    USERS("/users/", 'u'),
+    PRODUCTS("/products/", 'p');
+
+    private final String path;
+    private final char tag;
+
+    SeedEntity(String path, char tag) {
+        this.path = path;
+        this.tag = tag;
+    }
+
+    String path() {
+        return path;
+    }
+
+    /**
+     * Identifies one generated entity, e.g. {@code sd42-p1a} for product 46 of seed 42; emails and image URLs carry it.
+     */
+    String code(long randomSeed, int index) {
+        return "sd" + randomSeed + "-" + tag + Integer.toString(index, 36);
+    }
+
+    /**
+     * The {@link #code} in parentheses, as it appears in names and titles: the parentheses keep one entity's marker
+     * from matching another's in a {@code ?title=} search.
+     */
+    String tag(long randomSeed, int index) {
+        return "(" + code(randomSeed, index) + ")";
+    }
+
+    String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
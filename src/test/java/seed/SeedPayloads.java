@@ -0,0 +1,107 @@
+package seed;
+
+import POJO.Category;
+import POJO.Product;
+import POJO.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates seed entities from a seed alone. Each entity draws from a generator keyed by the seed, its kind and its
+ * index, so entity {@code i} is the same whichever order, thread or run produces it, and a resumed seed picks up
+ * exactly where the interrupted one stopped.
+ * <p>
+ * Prices are log-uniform between 5 and 2000 and end in 9, and products favour the first categories, so
+ * {@code price_min}/{@code price_max} and {@code categoryId} queries see a long tail rather than even buckets.
+ */
+final class SeedPayloads {
+    private static final String[] DEPARTMENTS = {"Electronics", "Clothes", "Furniture", "Shoes", "Toys", "Books",
+            "Garden", "Sports", "Beauty", "Grocery", "Automotive", "Jewelry", "Music", "Health", "Kitchen", "Office"};
+    private static final String[] ADJECTIVES = {"Sleek", "Rustic", "Ergonomic", "Handmade", "Refined", "Compact",
+            "Vintage", "Modern", "Durable", "Lightweight", "Premium", "Classic", "Portable", "Elegant", "Practical"};
+    private static final String[] MATERIALS = {"Cotton", "Steel", "Wooden", "Leather", "Ceramic", "Bamboo", "Granite",
+            "Plastic", "Wool", "Glass", "Bronze", "Linen", "Rubber", "Marble", "Aluminium"};
+    private static final String[] NOUNS = {"Chair", "Keyboard", "Jacket", "Lamp", "Backpack", "Sneakers", "Watch",
+            "Table", "Headphones", "Mug", "Blanket", "Bottle", "Wallet", "Speaker", "Shelf", "Gloves", "Bicycle"};
+    private static final String[] FIRST_NAMES = {"Amira", "Omar", "Lucia", "Kenji", "Fatima", "Noah", "Ingrid",
+            "Mateo", "Aisha", "Liam", "Yara", "Hugo", "Mei", "Karim", "Sofia", "Ravi", "Elena", "Tomas", "Nadia", "Jonas"};
+    private static final String[] LAST_NAMES = {"Hassan", "Garcia", "Tanaka", "Okafor", "Novak", "Silva", "Berg",
+            "Kowalski", "Haddad", "Murphy", "Rossi", "Chen", "Dubois", "Mensah", "Ivanova", "Patel", "Larsen"};
+    private static final String[] PHRASES = {"Built to last through daily use.", "Designed with comfort in mind.",
+            "A favourite for gifting.", "Easy to clean and maintain.", "Made from responsibly sourced materials.",
+            "Ships in recyclable packaging.", "Pairs well with the rest of the collection.", "Backed by a two-year warranty."};
+    private static final char[] ALPHANUMERIC = "abcdefghijkmnpqrstuvwxyzABCDEFGHJKLMNPQRSTUVWXYZ23456789".toCharArray();
+    private static final double LOG_MIN_PRICE = Math.log(5);
+    private static final double LOG_MAX_PRICE = Math.log(2000);
+
+    private final long randomSeed;
+
+    SeedPayloads(long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    Category category(int index) {
+        SplittableRandom random = random(SeedEntity.CATEGORIES, index);
+        return new Category(pick(random, DEPARTMENTS) + " " + SeedEntity.CATEGORIES.tag(randomSeed, index),
+                "https://picsum.photos/seed/" + SeedEntity.CATEGORIES.code(randomSeed, index) + "/640/480");
+    }
+
+    User user(int index) {
+        SplittableRandom random = random(SeedEntity.USERS, index);
+        String first = pick(random, FIRST_NAMES);
+        String last = pick(random, LAST_NAMES);
+        StringBuilder password = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            password.append(ALPHANUMERIC[random.nextInt(ALPHANUMERIC.length)]);
+        }
+        String code = SeedEntity.USERS.code(randomSeed, index);
+        return new User((first + "." + last + "." + code + "@example.com").toLowerCase(Locale.ROOT), password.toString(),
+                first + " " + last + " " + SeedEntity.USERS.tag(randomSeed, index), "https://i.pravatar.cc/300?u=" + code);
+    }
+
+    /**
+     * @param categoryIds ids of the categories to spread products over, most popular first; not empty
+     */
+    Product product(int index, int[] categoryIds) {
+        SplittableRandom random = random(SeedEntity.PRODUCTS, index);
+        String material = pick(random, MATERIALS);
+        String noun = pick(random, NOUNS);
+        String title = pick(random, ADJECTIVES) + " " + material + " " + noun + " " + SeedEntity.PRODUCTS.tag(randomSeed, index);
+        int price = price(random);
+        double popularity = random.nextDouble();
+        int categoryId = categoryIds[(int) (categoryIds.length * popularity * popularity)];
+        String description = "The " + material.toLowerCase(Locale.ROOT) + " " + noun.toLowerCase(Locale.ROOT) + ". "
+                + pick(random, PHRASES) + " " + pick(random, PHRASES);
+        List<String> images = new ArrayList<>();
+        String code = SeedEntity.PRODUCTS.code(randomSeed, index);
+        for (int i = 0, count = 1 + random.nextInt(3); i < count; i++) {
+            images.add("https://picsum.photos/seed/" + code + "-" + i + "/640/480");
+        }
+        return new Product(title, price, description, categoryId, images);
+    }
+
+    private static int price(SplittableRandom random) {
+        int price = (int) Math.exp(LOG_MIN_PRICE + random.nextDouble() * (LOG_MAX_PRICE - LOG_MIN_PRICE));
+        return price / 10 * 10 + 9;
+    }
+
+    private SplittableRandom random(SeedEntity entity, int index) {
+        return new SplittableRandom(mix(randomSeed ^ mix(((long) entity.ordinal() << 32) | index)));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Stafford's variant 13 of the MurmurHash3 finalizer: nearby inputs give unrelated generator seeds.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
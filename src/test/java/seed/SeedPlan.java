@@ -0,0 +1,73 @@
+package seed;
+
+import base.Config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * What to seed and how hard to push: entity counts, the seed they are generated from, the bounds of the adaptive
+ * concurrency limit and where progress is checkpointed. With {@code categories} at 0, products go into the
+ * categories the API already has. Seeding is refused against anything but the local stand-in unless
+ * {@code allowRemote} is set, as seeded entities are never deleted.
+ */
+public record SeedPlan(long randomSeed, int categories, int users, int products, int initialConcurrency,
+                       int minConcurrency, int maxConcurrency, double latencyTolerance, double maxRate,
+                       int maxAttempts, Path checkpoint, boolean resume, Duration checkpointInterval,
+                       Duration progressInterval, boolean allowRemote) {
+
+    public SeedPlan {
+        if (categories < 0 || users < 0 || products < 0) {
+            throw new IllegalArgumentException("Entity counts must not be negative");
+        }
+        if (minConcurrency < 1 || initialConcurrency < minConcurrency || maxConcurrency < initialConcurrency) {
+            throw new IllegalArgumentException("Expected 1 <= minConcurrency <= initialConcurrency <= maxConcurrency, was "
+                    + minConcurrency + ", " + initialConcurrency + ", " + maxConcurrency);
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1, was " + maxAttempts);
+        }
+    }
+
+    /**
+     * Whether this plan may seed the API the suite targets: always the local stand-in, a remote one only on request.
+     */
+    boolean mayTarget(boolean local) {
+        return local || allowRemote;
+    }
+
+    int count(SeedEntity entity) {
+        return switch (entity) {
+            case CATEGORIES -> categories;
+            case USERS -> users;
+            case PRODUCTS -> products;
+        };
+    }
+
+    /**
+     * Reads {@code seed.randomSeed}, {@code seed.categories}, {@code seed.users}, {@code seed.products},
+     * {@code seed.initialConcurrency}, {@code seed.minConcurrency}, {@code seed.maxConcurrency},
+     * {@code seed.latencyTolerance}, {@code seed.maxRate} (per second, 0 for none), {@code seed.maxAttempts},
+     * {@code seed.checkpoint}, {@code seed.resume}, {@code seed.checkpointSeconds}, {@code seed.progressSeconds} and
+     * {@code seed.allowRemote}.
+     */
+    public static SeedPlan fromSystemProperties() {
+        long randomSeed = Config.longValue("seed.randomSeed", 42);
+        return new SeedPlan(
+                randomSeed,
+                Config.integer("seed.categories", 20),
+                Config.integer("seed.users", 200),
+                Config.integer("seed.products", 2_000),
+                Config.integer("seed.initialConcurrency", 8),
+                Config.integer("seed.minConcurrency", 2),
+                Config.integer("seed.maxConcurrency", 64),
+                Config.doubleValue("seed.latencyTolerance", 2.0),
+                Config.doubleValue("seed.maxRate", 0),
+                Config.integer("seed.maxAttempts", 5),
+                Path.of(System.getProperty("seed.checkpoint", "target/seed/seed-" + randomSeed + ".json")),
+                Boolean.parseBoolean(System.getProperty("seed.resume", "true")),
+                Duration.ofSeconds(Config.longValue("seed.checkpointSeconds", 5)),
+                Duration.ofSeconds(Config.longValue("seed.progressSeconds", 10)),
+                Boolean.getBoolean("seed.allowRemote"));
+    }
+}
@@ -0,0 +1,53 @@
+package seed;
+
+import org.HdrHistogram.Histogram;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Outcome of a seed: per entity kind, how many were created now or by an earlier run, and how fast.
+ *
+ * @param errors the first few failures, for the log
+ */
+public record SeedReport(SeedPlan plan, String baseUri, List<Phase> phases, double seconds, String limit,
+                         Path checkpoint, List<String> errors) {
+
+    /**
+     * One entity kind. {@code seconds} and the latency cover only the entities created by this run.
+     */
+    public record Phase(SeedEntity entity, int planned, int alreadyCreated, long created, long failed, long retries,
+                        double seconds, Histogram latencyMicros) {
+
+        public double perSecond() {
+            return seconds > 0 ? created / seconds : 0;
+        }
+    }
+
+    public long created() {
+        return phases.stream().mapToLong(Phase::created).sum();
+    }
+
+    public long failed() {
+        return phases.stream().mapToLong(Phase::failed).sum();
+    }
+
+    public Phase phase(SeedEntity entity) {
+        return phases.stream().filter(phase -> phase.entity() == entity).findFirst().orElseThrow();
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format(
+                "Seed %d against %s: %d entities created in %.1f s (%.1f entities/s), %d failed, concurrency %s%n",
+                plan.randomSeed(), baseUri, created(), seconds, seconds > 0 ? created() / seconds : 0, failed(), limit));
+        for (Phase phase : phases) {
+            Histogram latency = phase.latencyMicros();
+            summary.append(String.format("  %-10s %7d created, %7d already there, %5d failed, %5d retries, %7.1f/s, p50=%.2f ms p99=%.2f ms%n",
+                    phase.entity().label(), phase.created(), phase.alreadyCreated(), phase.failed(), phase.retries(),
+                    phase.perSecond(), latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0));
+        }
+        summary.append("  checkpoint ").append(checkpoint);
+        errors.forEach(error -> summary.append(System.lineSeparator()).append("  ").append(error));
+        return summary.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package seed;
+
+import POJO.Product;
+import base.BaseTest;
+import base.Config;
+import client.SuiteClient;
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+@Epic("Load Testing")
+@Feature("Bulk data seeding")
+public class SeedTest extends BaseTest {
+
+    @Test
+    @Story("Seed categories, users and products at scale")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Seed deterministic entities with adaptive concurrency, then find sampled products by title, price and category")
+    public void seedCatalog() {
+        SeedPlan plan = SeedPlan.fromSystemProperties();
+        if (!plan.mayTarget(Config.isLocal())) {
+            throw new SkipException("Seeding " + Config.baseUri() + " needs -Dseed.allowRemote=true, as seeded entities are never deleted");
+        }
+        SeedReport report = new Seeder(plan, SuiteClient.get().async()).run();
+        System.out.println(report.summary());
+        Allure.addAttachment("Seed report", "text/plain", report.summary(), ".txt");
+
+        Assert.assertEquals(report.failed(), 0, "Entities could not be created:\n" + String.join("\n", report.errors()));
+        for (SeedReport.Phase phase : report.phases()) {
+            Assert.assertEquals(phase.alreadyCreated() + phase.created(), phase.planned(), phase.entity().label() + " seeded");
+        }
+
+        // Checked by the ids this seed recorded: a lost checkpoint or another seed with the same randomSeed may have
+        // left more products with the same tag.
+        SeedCheckpoint checkpoint = SeedCheckpoint.open(plan.checkpoint(), plan.randomSeed(), report.baseUri(), plan.categories(), true);
+        SeedPayloads payloads = new SeedPayloads(plan.randomSeed());
+        for (int sample = 0; sample < Math.min(plan.products(), 5); sample++) {
+            int index = (int) ((long) sample * plan.products() / Math.min(plan.products(), 5));
+            String tag = SeedEntity.PRODUCTS.tag(plan.randomSeed(), index);
+            int id = checkpoint.productId(index);
+            Assert.assertNotEquals(id, 0, "No id recorded for seeded product " + tag + " in " + plan.checkpoint()
+                    + "; reseed with -Dseed.resume=false");
+            Response response = RestAssured.given(Spec).get("/products/" + id);
+            Assert.assertEquals(response.getStatusCode(), 200, "Seeded product " + tag + " with id " + id);
+            Product product = response.as(Product.class);
+            // Everything but the category id is generated from the seed alone.
+            Product expected = payloads.product(index, new int[]{product.getCategory().getId()});
+            Assert.assertEquals(product.getTitle(), expected.getTitle());
+            Assert.assertEquals(product.getPrice(), expected.getPrice());
+            Assert.assertEquals(product.getDescription(), expected.getDescription());
+
+            List<Integer> byTitle = RestAssured.given(Spec).queryParam("title", tag).get("/products")
+                    .jsonPath().getList("id", Integer.class);
+            Assert.assertTrue(byTitle.contains(id), "Products titled " + tag + " should include " + id + ", were " + byTitle);
+            List<Integer> matching = RestAssured.given(Spec)
+                    .queryParam("title", tag)
+                    .queryParam("price_min", expected.getPrice())
+                    .queryParam("price_max", expected.getPrice())
+                    .queryParam("categoryId", product.getCategory().getId())
+                    .get("/products").jsonPath().getList("id", Integer.class);
+            Assert.assertTrue(matching.contains(id),
+                    "Products titled " + tag + " at " + expected.getPrice() + " in its category should include " + id + ", were " + matching);
+        }
+    }
+}
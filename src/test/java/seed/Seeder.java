@@ -0,0 +1,256 @@
+package seed;
+
+import base.Config;
+import client.AsyncClient;
+import client.SuiteClient;
+import io.restassured.response.Response;
+import logging.ExchangeLog;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import server.FakeStoreServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bulk-creates categories, users and products from a {@link SeedPlan}, for exercising {@code ?title=},
+ * {@code price_min}/{@code price_max} and {@code categoryId} filters at realistic scale.
+ * <ul>
+ *     <li>Payloads come from {@link SeedPayloads}, so the same seed always produces the same entities.</li>
+ *     <li>Requests go out on the {@link AsyncClient}, so a thread is held per request only while it is being sent.
+ *     An {@link AdaptiveLimit} bounds how many are in flight and follows what the API sustains.</li>
+ *     <li>429s, 5xx answers and I/O errors are retried with jittered exponential backoff (at least
+ *     {@code Retry-After}), up to {@code maxAttempts} tries. Other rejections fail the entity and are reported.</li>
+ *     <li>Every created entity is marked in a {@link SeedCheckpoint}, so a rerun skips what exists already.</li>
+ * </ul>
+ */
+public final class Seeder {
+    private static final int MAX_ERRORS = 10;
+    private static final long BASE_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final SeedPlan plan;
+    private final AsyncClient client;
+    private final String baseUri;
+    private final SeedPayloads payloads;
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+    private record Attempt(int index, int number, long dueNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    public Seeder(SeedPlan plan, AsyncClient client) {
+        if (!plan.mayTarget(Config.isLocal())) {
+            throw new IllegalStateException("Refusing to seed " + Config.baseUri() + ", as seeded entities are never deleted:"
+                    + " use -Dapi.target=local, or -Dseed.allowRemote=true to seed it anyway");
+        }
+        this.plan = plan;
+        this.client = client;
+        this.baseUri = Config.baseUri();
+        this.payloads = new SeedPayloads(plan.randomSeed());
+    }
+
+    /**
+     * Seeds categories, then users, then products, and saves the checkpoint whatever happens. The checkpoint is
+     * also saved if the JVM is stopped mid-seed.
+     */
+    public SeedReport run() {
+        long start = System.nanoTime();
+        SeedCheckpoint checkpoint = SeedCheckpoint.open(plan.checkpoint(), plan.randomSeed(), baseUri, plan.categories(), plan.resume());
+        AdaptiveLimit limit = new AdaptiveLimit(plan.initialConcurrency(), plan.minConcurrency(), plan.maxConcurrency(),
+                plan.latencyTolerance(), plan.maxRate());
+        Thread onExit = new Thread(checkpoint::save, "seed-checkpoint");
+        Runtime.getRuntime().addShutdownHook(onExit);
+        List<SeedReport.Phase> phases = new ArrayList<>();
+        try {
+            for (SeedEntity entity : SeedEntity.values()) {
+                int[] categoryIds = entity == SeedEntity.PRODUCTS ? categoryIds(checkpoint) : null;
+                phases.add(seed(entity, categoryIds, checkpoint, limit));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seeding was interrupted; rerun to resume from " + checkpoint.file(), e);
+        } finally {
+            checkpoint.save();
+            try {
+                Runtime.getRuntime().removeShutdownHook(onExit);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down and the hook is running.
+            }
+        }
+        return new SeedReport(plan, baseUri, phases, (System.nanoTime() - start) / 1e9, limit.summary(), checkpoint.file(),
+                List.copyOf(errors));
+    }
+
+    private SeedReport.Phase seed(SeedEntity entity, int[] categoryIds, SeedCheckpoint checkpoint, AdaptiveLimit limit)
+            throws InterruptedException {
+        int count = plan.count(entity);
+        int alreadyCreated = checkpoint.createdBelow(entity, count);
+        LongAdder created = new LongAdder();
+        LongAdder failed = new LongAdder();
+        LongAdder retried = new LongAdder();
+        Histogram latencyMicros = new ConcurrentHistogram(3);
+        AtomicInteger pending = new AtomicInteger();
+        DelayQueue<Attempt> retries = new DelayQueue<>();
+        limit.resetLatency();
+        long start = System.nanoTime();
+        long nextProgress = start + plan.progressInterval().toNanos();
+        int next = 0;
+        try {
+            while (true) {
+                Attempt send = retries.poll();
+                if (send == null && next < count) {
+                    int index = next++;
+                    if (!checkpoint.isCreated(entity, index)) {
+                        send = new Attempt(index, 1, 0);
+                    }
+                } else if (send == null) {
+                    if (pending.get() == 0 && retries.isEmpty()) {
+                        break;
+                    }
+                    send = retries.poll(50, TimeUnit.MILLISECONDS);
+                }
+                if (send != null) {
+                    Object body = switch (entity) {
+                        case CATEGORIES -> payloads.category(send.index());
+                        case USERS -> payloads.user(send.index());
+                        case PRODUCTS -> payloads.product(send.index(), categoryIds);
+                    };
+                    limit.acquire();
+                    pending.incrementAndGet();
+                    int index = send.index();
+                    int attempt = send.number();
+                    long begin = System.nanoTime();
+                    client.post(entity.path(), body).whenComplete((response, failure) -> {
+                        long nanos = System.nanoTime() - begin;
+                        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                        int status = response == null ? 0 : response.getStatusCode();
+                        boolean overloaded = cause instanceof IOException || cause instanceof UncheckedIOException || status == 429 || status >= 500;
+                        limit.release(nanos, overloaded);
+                        try {
+                            if (cause == null && status / 100 == 2) {
+                                latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+                                created.increment();
+                                if (entity == SeedEntity.CATEGORIES) {
+                                    checkpoint.categoryCreated(index, response.jsonPath().getInt("id"));
+                                } else if (entity == SeedEntity.PRODUCTS) {
+                                    checkpoint.productCreated(index, response.jsonPath().getInt("id"));
+                                } else {
+                                    checkpoint.created(entity, index);
+                                }
+                            } else if (overloaded && attempt < plan.maxAttempts()) {
+                                retried.increment();
+                                retries.add(new Attempt(index, attempt + 1, System.nanoTime() + backoffNanos(attempt, response)));
+                            } else {
+                                failed.increment();
+                                error(entity, index, attempt, cause, response);
+                            }
+                        } catch (RuntimeException e) {
+                            failed.increment();
+                            error(entity, index, attempt, e, response);
+                        } finally {
+                            // Decremented last, so the loop never sees no pending request while a retry is being queued.
+                            pending.decrementAndGet();
+                        }
+                    });
+                }
+                checkpoint.saveIfDue(plan.checkpointInterval().toNanos());
+                if (System.nanoTime() >= nextProgress) {
+                    nextProgress += plan.progressInterval().toNanos();
+                    long done = alreadyCreated + created.sum();
+                    System.out.printf("Seeding %s: %d/%d (%.1f%%), %.1f/s, %s, %d in flight%n", entity.label(), done, count,
+                            done * 100.0 / Math.max(count, 1), created.sum() / ((System.nanoTime() - start) / 1e9),
+                            limit.summary(), limit.inFlight());
+                }
+            }
+        } catch (InterruptedException e) {
+            // Lets the requests already sent be marked, so a resumed seed does not create them again.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (pending.get() > 0 && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+            throw e;
+        }
+        return new SeedReport.Phase(entity, count, alreadyCreated, created.sum(), failed.sum(), retried.sum(),
+                (System.nanoTime() - start) / 1e9, latencyMicros);
+    }
+
+    private int[] categoryIds(SeedCheckpoint checkpoint) {
+        int[] ids = plan.categories() > 0
+                ? checkpoint.categoryIds(plan.categories())
+                : client.get("/categories").join().jsonPath().getList("id", Integer.class).stream().mapToInt(Integer::intValue).toArray();
+        if (ids.length == 0 && plan.products() > 0) {
+            throw new IllegalStateException("No category to seed products into at " + baseUri);
+        }
+        return ids;
+    }
+
+    private static long backoffNanos(int attempt, Response response) {
+        long ceiling = Math.min(MAX_BACKOFF_NANOS, BASE_BACKOFF_NANOS << Math.min(attempt - 1, 20));
+        long backoff = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        String retryAfter = response == null ? null : response.getHeader("Retry-After");
+        if (retryAfter != null && retryAfter.chars().allMatch(Character::isDigit) && !retryAfter.isEmpty()) {
+            backoff = Math.max(backoff, TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter)));
+        }
+        return backoff;
+    }
+
+    private void error(SeedEntity entity, int index, int attempt, Throwable cause, Response response) {
+        if (errors.size() < MAX_ERRORS) {
+            String reason = cause instanceof HttpTimeoutException ? "timed out"
+                    : cause != null ? cause.toString()
+                    : response.getStatusCode() + " " + response.asString();
+            errors.add(entity.label() + " " + index + " failed after " + attempt + (attempt == 1 ? " attempt: " : " attempts: ") + reason);
+        }
+    }
+
+    /**
+     * Seeds from the command line, e.g. {@code --products=200000 --randomSeed=7} for {@code seed.products} and
+     * {@code seed.randomSeed}. A name with a dot, such as {@code --api.target=local}, is set as it is.
+     */
+    public static void main(String[] args) {
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, was " + arg);
+            }
+            String name = arg.substring(2, equals);
+            System.setProperty(name.contains(".") ? name : "seed." + name, arg.substring(equals + 1));
+        }
+        SeedReport report;
+        try {
+            report = new Seeder(SeedPlan.fromSystemProperties(), SuiteClient.get().async()).run();
+        } finally {
+            SuiteClient.shutdown();
+            ExchangeLog.shared().flush();
+            if (Config.isLocal()) {
+                FakeStoreServer.stopShared();
+            }
+        }
+        System.out.println(report.summary());
+        if (report.failed() > 0) {
+            throw new IllegalStateException(report.failed() + " entities could not be created");
+        }
+    }
+}
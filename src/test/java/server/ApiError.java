@@ -0,0 +1,76 @@
+package server;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Error raised by the stand-in store, carrying the same status and body shape the real API returns.
+ */
+public class ApiError extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final ObjectNode body;
+
+    private ApiError(int status, String message, ObjectNode body) {
+        super(message);
+        this.status = status;
+        this.body = body;
+    }
+
+    public static ApiError entityNotFound(String path, String entity, Object key) {
+        String message = "Could not find any entity of type \"" + entity + "\" matching: " + key;
+        ObjectNode body = JsonNodeFactory.instance.objectNode()
+                .put("path", path)
+                .put("timestamp", Instant.now().toString())
+                .put("name", "EntityNotFoundError")
+                .put("message", message);
+        return new ApiError(400, message, body);
+    }
+
+    public static ApiError notNumeric() {
+        return badRequest("Validation failed (numeric string is expected)");
+    }
+
+    public static ApiError badRequest(String message) {
+        ObjectNode body = JsonNodeFactory.instance.objectNode()
+                .put("message", message)
+                .put("error", "Bad Request")
+                .put("statusCode", 400);
+        return new ApiError(400, message, body);
+    }
+
+    public static ApiError validation(List<String> messages) {
+        ObjectNode body = JsonNodeFactory.instance.objectNode();
+        messages.forEach(body.putArray("message")::add);
+        body.put("error", "Bad Request").put("statusCode", 400);
+        return new ApiError(400, String.join(", ", messages), body);
+    }
+
+    public static ApiError unauthorized() {
+        ObjectNode body = JsonNodeFactory.instance.objectNode()
+                .put("message", "Unauthorized")
+                .put("statusCode", 401);
+        return new ApiError(401, "Unauthorized", body);
+    }
+
+    public static ApiError notFound(String method, String path) {
+        String message = "Cannot " + method + " " + path;
+        ObjectNode body = JsonNodeFactory.instance.objectNode()
+                .put("message", message)
+                .put("error", "Not Found")
+                .put("statusCode", 404);
+        return new ApiError(404, message, body);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public ObjectNode getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,533 @@
+package server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory, thread-safe copy of the Platzi Fake Store data model.
+ * Stored nodes are never mutated after they are published; updates replace them.
+ * Slugs are fixed at creation so lookups by slug stay valid while other requests update the entity.
+ */
+public final class FakeStore {
+    private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
+    private static final Pattern URL = Pattern.compile("^(https?://)?[\\w.-]+\\.[a-zA-Z]{2,}(:\\d+)?(/\\S*)?$");
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[a-zA-Z]{2,}$");
+    private static final Pattern PASSWORD = Pattern.compile("^[a-zA-Z0-9]{4,}$");
+
+    private final ConcurrentNavigableMap<Integer, ObjectNode> categories = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<Integer, ObjectNode> products = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<Integer, ObjectNode> users = new ConcurrentSkipListMap<>();
+    private final Map<String, Integer> categorySlugs = new ConcurrentHashMap<>();
+    private final Map<String, Integer> productSlugs = new ConcurrentHashMap<>();
+    private final AtomicInteger categoryIds = new AtomicInteger();
+    private final AtomicInteger productIds = new AtomicInteger();
+    private final AtomicInteger userIds = new AtomicInteger();
+    private final JwtTokens tokens = new JwtTokens(Duration.ofDays(20), Duration.ofHours(10));
+
+    public FakeStore() {
+        seed();
+    }
+
+    // ---- categories ----
+
+    public ArrayNode categories(Map<String, String> query) {
+        return page(categories.values().stream().map(ObjectNode::deepCopy).toList(), query);
+    }
+
+    public ObjectNode category(String id, String path) {
+        return existing(categories, parseId(id), "Category", path).deepCopy();
+    }
+
+    public ObjectNode categoryBySlug(String slug, String path) {
+        Integer id = categorySlugs.get(slug);
+        ObjectNode category = id == null ? null : categories.get(id);
+        if (category == null) {
+            throw ApiError.entityNotFound(path, "Category", "{ slug: \"" + slug + "\" }");
+        }
+        return category.deepCopy();
+    }
+
+    public ObjectNode createCategory(JsonNode body) {
+        List<String> errors = new ArrayList<>();
+        requireText(body, "name", errors);
+        requireUrl(body, "image", errors);
+        failOn(errors);
+
+        int id = categoryIds.incrementAndGet();
+        String now = Instant.now().toString();
+        ObjectNode category = JSON.objectNode()
+                .put("id", id)
+                .put("name", body.get("name").asText())
+                .put("slug", uniqueSlug(categorySlugs, body.get("name").asText(), id))
+                .put("image", body.get("image").asText())
+                .put("creationAt", now)
+                .put("updatedAt", now);
+        categories.put(id, category);
+        return category.deepCopy();
+    }
+
+    public ObjectNode updateCategory(String id, JsonNode body, String path) {
+        int key = parseId(id);
+        List<String> errors = new ArrayList<>();
+        optionalText(body, "name", errors);
+        optionalUrl(body, "image", errors);
+        failOn(errors);
+
+        ObjectNode updated = categories.computeIfPresent(key, (k, current) -> {
+            ObjectNode copy = current.deepCopy();
+            copyText(body, copy, "name");
+            copyText(body, copy, "image");
+            return copy.put("updatedAt", Instant.now().toString());
+        });
+        if (updated == null) {
+            throw ApiError.entityNotFound(path, "Category", "{ id: " + key + " }");
+        }
+        return updated.deepCopy();
+    }
+
+    public boolean deleteCategory(String id, String path) {
+        int key = parseId(id);
+        ObjectNode removed = categories.remove(key);
+        if (removed == null) {
+            throw ApiError.entityNotFound(path, "Category", "{ id: " + key + " }");
+        }
+        categorySlugs.remove(removed.path("slug").asText(), key);
+        products.values().removeIf(product -> {
+            boolean orphaned = product.path("categoryId").asInt() == key;
+            if (orphaned) {
+                productSlugs.remove(product.path("slug").asText(), product.path("id").asInt());
+            }
+            return orphaned;
+        });
+        return true;
+    }
+
+    // ---- products ----
+
+    public ArrayNode products(Map<String, String> query) {
+        String title = query.get("title");
+        Integer price = intParam(query, "price");
+        Integer priceMin = intParam(query, "price_min");
+        Integer priceMax = intParam(query, "price_max");
+        Integer categoryId = intParam(query, "categoryId");
+        String categorySlug = query.get("categorySlug");
+
+        List<ObjectNode> matches = products.values().stream()
+                .filter(p -> title == null || p.path("title").asText().toLowerCase(Locale.ROOT).contains(title.toLowerCase(Locale.ROOT)))
+                .filter(p -> price == null || p.path("price").asInt() == price)
+                .filter(p -> priceMin == null || p.path("price").asInt() >= priceMin)
+                .filter(p -> priceMax == null || p.path("price").asInt() <= priceMax)
+                .filter(p -> categoryId == null || p.path("categoryId").asInt() == categoryId)
+                .map(this::render)
+                .filter(p -> categorySlug == null || p.path("category").path("slug").asText().equals(categorySlug))
+                .toList();
+        return page(matches, query);
+    }
+
+    public ObjectNode product(String id, String path) {
+        return render(existing(products, parseId(id), "Product", path));
+    }
+
+    public ObjectNode productBySlug(String slug, String path) {
+        Integer id = productSlugs.get(slug);
+        ObjectNode product = id == null ? null : products.get(id);
+        if (product == null) {
+            throw ApiError.entityNotFound(path, "Product", "{ slug: \"" + slug + "\" }");
+        }
+        return render(product);
+    }
+
+    public ObjectNode createProduct(JsonNode body, String path) {
+        List<String> errors = new ArrayList<>();
+        requireText(body, "title", errors);
+        requireNotEmpty(body, "price", errors);
+        requirePositive(body, "price", errors);
+        requireText(body, "description", errors);
+        if (!body.path("categoryId").canConvertToInt()) {
+            errors.add("categoryId must be a number conforming to the specified constraints");
+        }
+        requireUrls(body, "images", errors);
+        failOn(errors);
+
+        int categoryId = body.get("categoryId").asInt();
+        existing(categories, categoryId, "Category", path);
+
+        int id = productIds.incrementAndGet();
+        String now = Instant.now().toString();
+        ObjectNode product = JSON.objectNode()
+                .put("id", id)
+                .put("title", body.get("title").asText())
+                .put("slug", uniqueSlug(productSlugs, body.get("title").asText(), id))
+                .put("price", body.get("price").asInt())
+                .put("description", body.get("description").asText())
+                .put("categoryId", categoryId);
+        product.set("images", body.get("images").deepCopy());
+        product.put("creationAt", now).put("updatedAt", now);
+        products.put(id, product);
+        return render(product);
+    }
+
+    public ObjectNode updateProduct(String id, JsonNode body, String path) {
+        int key = parseId(id);
+        List<String> errors = new ArrayList<>();
+        optionalText(body, "title", errors);
+        optionalText(body, "description", errors);
+        if (present(body, "price") && (!body.get("price").isNumber() || body.get("price").asInt() <= 0)) {
+            errors.add("price must be a positive number");
+        }
+        if (present(body, "categoryId") && !body.get("categoryId").canConvertToInt()) {
+            errors.add("categoryId must be a number conforming to the specified constraints");
+        }
+        if (present(body, "images")) {
+            requireUrls(body, "images", errors);
+        }
+        failOn(errors);
+
+        // The real API treats a falsy categoryId (0) as "not provided".
+        int categoryId = body.path("categoryId").asInt();
+        if (categoryId > 0) {
+            existing(categories, categoryId, "Category", path);
+        }
+
+        ObjectNode updated = products.computeIfPresent(key, (k, current) -> {
+            ObjectNode copy = current.deepCopy();
+            copyText(body, copy, "title");
+            copyText(body, copy, "description");
+            if (present(body, "price")) {
+                copy.put("price", body.get("price").asInt());
+            }
+            if (categoryId > 0) {
+                copy.put("categoryId", categoryId);
+            }
+            if (present(body, "images")) {
+                copy.set("images", body.get("images").deepCopy());
+            }
+            return copy.put("updatedAt", Instant.now().toString());
+        });
+        if (updated == null) {
+            throw ApiError.entityNotFound(path, "Product", "{ id: " + key + " }");
+        }
+        return render(updated);
+    }
+
+    public boolean deleteProduct(String id, String path) {
+        int key = parseId(id);
+        ObjectNode removed = products.remove(key);
+        if (removed == null) {
+            throw ApiError.entityNotFound(path, "Product", "{ id: " + key + " }");
+        }
+        productSlugs.remove(removed.path("slug").asText(), key);
+        return true;
+    }
+
+    // ---- users ----
+
+    public ArrayNode users(Map<String, String> query) {
+        return page(users.values().stream().map(ObjectNode::deepCopy).toList(), query);
+    }
+
+    public ObjectNode user(String id, String path) {
+        return existing(users, parseId(id), "User", path).deepCopy();
+    }
+
+    public ObjectNode createUser(JsonNode body) {
+        List<String> errors = new ArrayList<>();
+        requireText(body, "name", errors);
+        requireNotEmpty(body, "email", errors);
+        requireEmail(body, errors);
+        requireNotEmpty(body, "password", errors);
+        requirePassword(body, errors);
+        requireNotEmpty(body, "avatar", errors);
+        requireUrl(body, "avatar", errors);
+        failOn(errors);
+
+        int id = userIds.incrementAndGet();
+        String now = Instant.now().toString();
+        String role = present(body, "role") ? body.get("role").asText() : "customer";
+        ObjectNode user = JSON.objectNode()
+                .put("id", id)
+                .put("email", body.get("email").asText())
+                .put("password", body.get("password").asText())
+                .put("name", body.get("name").asText())
+                .put("role", role)
+                .put("avatar", body.get("avatar").asText())
+                .put("creationAt", now)
+                .put("updatedAt", now);
+        users.put(id, user);
+        return user.deepCopy();
+    }
+
+    public ObjectNode updateUser(String id, JsonNode body, String path) {
+        int key = parseId(id);
+        List<String> errors = new ArrayList<>();
+        optionalText(body, "name", errors);
+        if (present(body, "email")) {
+            requireEmail(body, errors);
+        }
+        if (present(body, "password")) {
+            requirePassword(body, errors);
+        }
+        optionalUrl(body, "avatar", errors);
+        failOn(errors);
+
+        ObjectNode updated = users.computeIfPresent(key, (k, current) -> {
+            ObjectNode copy = current.deepCopy();
+            for (String field : List.of("email", "password", "name", "role", "avatar")) {
+                copyText(body, copy, field);
+            }
+            return copy.put("updatedAt", Instant.now().toString());
+        });
+        if (updated == null) {
+            throw ApiError.entityNotFound(path, "User", "{ id: " + key + " }");
+        }
+        return updated.deepCopy();
+    }
+
+    public boolean deleteUser(String id, String path) {
+        int key = parseId(id);
+        if (users.remove(key) == null) {
+            throw ApiError.entityNotFound(path, "User", "{ id: " + key + " }");
+        }
+        return true;
+    }
+
+    // ---- auth ----
+
+    public ObjectNode login(JsonNode body) {
+        String email = body.path("email").asText(null);
+        String password = body.path("password").asText(null);
+        ObjectNode user = users.values().stream()
+                .filter(u -> u.path("email").asText().equals(email) && u.path("password").asText().equals(password))
+                .findFirst()
+                .orElseThrow(ApiError::unauthorized);
+        return tokensFor(user.path("id").asInt());
+    }
+
+    public ObjectNode refresh(JsonNode body) {
+        int userId = tokens.verify(body.path("refreshToken").asText(null), "refresh");
+        if (userId < 0 || !users.containsKey(userId)) {
+            throw ApiError.unauthorized();
+        }
+        return tokensFor(userId);
+    }
+
+    public ObjectNode profile(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            throw ApiError.unauthorized();
+        }
+        int userId = tokens.verify(authorization.substring("Bearer ".length()).trim(), "access");
+        ObjectNode user = userId < 0 ? null : users.get(userId);
+        if (user == null) {
+            throw ApiError.unauthorized();
+        }
+        return user.deepCopy();
+    }
+
+    private ObjectNode tokensFor(int userId) {
+        return JSON.objectNode()
+                .put("access_token", tokens.accessToken(userId))
+                .put("refresh_token", tokens.refreshToken(userId));
+    }
+
+    // ---- helpers ----
+
+    private ObjectNode render(ObjectNode stored) {
+        ObjectNode product = stored.deepCopy();
+        ObjectNode category = categories.get(product.remove("categoryId").asInt());
+        product.set("category", category == null ? JSON.nullNode() : category.deepCopy());
+        return product;
+    }
+
+    private static ArrayNode page(List<ObjectNode> items, Map<String, String> query) {
+        Integer offset = intParam(query, "offset");
+        Integer limit = intParam(query, "limit");
+        int from = Math.min(offset == null ? 0 : Math.max(offset, 0), items.size());
+        int to = limit == null ? items.size() : Math.min(from + Math.max(limit, 0), items.size());
+        ArrayNode array = JSON.arrayNode(to - from);
+        items.subList(from, to).forEach(array::add);
+        return array;
+    }
+
+    private static ObjectNode existing(Map<Integer, ObjectNode> table, int id, String entity, String path) {
+        ObjectNode node = table.get(id);
+        if (node == null) {
+            throw ApiError.entityNotFound(path, entity, "{ id: " + id + " }");
+        }
+        return node;
+    }
+
+    private static int parseId(String id) {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            throw ApiError.notNumeric();
+        }
+    }
+
+    private static Integer intParam(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw ApiError.notNumeric();
+        }
+    }
+
+    private static String uniqueSlug(Map<String, Integer> slugs, String text, int ownerId) {
+        String base = text.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("(^-|-$)", "");
+        if (slugs.putIfAbsent(base, ownerId) == null) {
+            return base;
+        }
+        String suffixed = base + "-" + ownerId;
+        slugs.put(suffixed, ownerId);
+        return suffixed;
+    }
+
+    private static boolean present(JsonNode body, String field) {
+        return body.hasNonNull(field);
+    }
+
+    private static void copyText(JsonNode from, ObjectNode to, String field) {
+        if (present(from, field)) {
+            to.put(field, from.get(field).asText());
+        }
+    }
+
+    private static void requireText(JsonNode body, String field, List<String> errors) {
+        if (!present(body, field) || !body.get(field).isTextual()) {
+            errors.add(field + " must be a string");
+        }
+        if (!present(body, field) || body.get(field).asText().isEmpty()) {
+            errors.add(field + " should not be empty");
+        }
+    }
+
+    /**
+     * class-validator reports {@code @IsNotEmpty} alongside the field's other constraints, not instead of them.
+     */
+    private static void requireNotEmpty(JsonNode body, String field, List<String> errors) {
+        if (!present(body, field) || body.get(field).isTextual() && body.get(field).asText().isEmpty()) {
+            errors.add(field + " should not be empty");
+        }
+    }
+
+    private static void optionalText(JsonNode body, String field, List<String> errors) {
+        if (present(body, field)) {
+            requireText(body, field, errors);
+        }
+    }
+
+    private static void requireUrl(JsonNode body, String field, List<String> errors) {
+        if (!present(body, field) || !URL.matcher(body.get(field).asText()).matches()) {
+            errors.add(field + " must be a URL address");
+        }
+    }
+
+    private static void optionalUrl(JsonNode body, String field, List<String> errors) {
+        if (present(body, field)) {
+            requireUrl(body, field, errors);
+        }
+    }
+
+    private static void requireUrls(JsonNode body, String field, List<String> errors) {
+        JsonNode values = body.path(field);
+        if (!values.isArray() || values.isEmpty()) {
+            errors.add(field + " must contain at least 1 elements");
+            return;
+        }
+        for (JsonNode value : values) {
+            if (!value.isTextual() || !URL.matcher(value.asText()).matches()) {
+                errors.add("each value in " + field + " must be a URL address");
+                return;
+            }
+        }
+    }
+
+    private static void requirePositive(JsonNode body, String field, List<String> errors) {
+        if (!present(body, field) || !body.get(field).isNumber() || body.get(field).asInt() <= 0) {
+            errors.add(field + " must be a positive number");
+        }
+    }
+
+    private static void requireEmail(JsonNode body, List<String> errors) {
+        if (!present(body, "email") || !EMAIL.matcher(body.get("email").asText()).matches()) {
+            errors.add("email must be an email");
+        }
+    }
+
+    private static void requirePassword(JsonNode body, List<String> errors) {
+        String password = body.path("password").asText("");
+        if (password.length() < 4) {
+            errors.add("password must be longer than or equal to 4 characters");
+        }
+        if (!PASSWORD.matcher(password).matches()) {
+            errors.add("password must contain only letters and numbers");
+        }
+    }
+
+    private static void failOn(List<String> errors) {
+        if (!errors.isEmpty()) {
+            throw ApiError.validation(errors);
+        }
+    }
+
+    private void seed() {
+        String[][] seedCategories = {
+                {"Clothes", "https://i.imgur.com/QkIa5tT.jpeg"},
+                {"Electronics", "https://i.imgur.com/ZANVnHE.jpeg"},
+                {"Furniture", "https://i.imgur.com/Qphac99.jpeg"},
+                {"Shoes", "https://i.imgur.com/qNOjJje.jpeg"},
+                {"Miscellaneous", "https://i.imgur.com/BG8J0Fj.jpg"}
+        };
+        for (String[] category : seedCategories) {
+            createCategory(JSON.objectNode().put("name", category[0]).put("image", category[1]));
+        }
+        String[][] seedProducts = {
+                {"Classic Red Pullover Hoodie", "10", "1"},
+                {"Classic Heather Gray Hoodie", "69", "1"},
+                {"Sleek Wireless Headphone", "58", "2"},
+                {"Modern Elegance Teal Armchair", "25", "3"},
+                {"Futuristic Chic High-Heel Boots", "36", "4"},
+                {"Classic Comfort Fit Joggers", "25", "5"}
+        };
+        for (String[] product : seedProducts) {
+            ObjectNode body = JSON.objectNode()
+                    .put("title", product[0])
+                    .put("price", Integer.parseInt(product[1]))
+                    .put("description", product[0] + " from the seeded catalog")
+                    .put("categoryId", Integer.parseInt(product[2]));
+            body.putArray("images").add("https://i.imgur.com/placeholder.jpeg");
+            createProduct(body, "/seed");
+        }
+        String[][] seedUsers = {
+                {"john@mail.com", "changeme", "Jhon", "customer"},
+                {"maria@mail.com", "12345", "Maria", "customer"},
+                {"admin@mail.com", "admin123", "Admin", "admin"}
+        };
+        for (String[] user : seedUsers) {
+            createUser(JSON.objectNode()
+                    .put("email", user[0])
+                    .put("password", user[1])
+                    .put("name", user[2])
+                    .put("role", user[3])
+                    .put("avatar", "https://i.imgur.com/LDOO4Qs.jpg"));
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.eclipse.jetty.http.spi.JettyHttpServer;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.io.ConnectionStatistics;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.ContextHandlerCollection;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded stand-in for {@code https://api.escuelajs.co/api/v1}, served on virtual threads. The handlers use the JDK
+ * HTTP server API, run by Jetty so that the same port also speaks h2c: clients may upgrade from HTTP/1.1 or start
+ * with the HTTP/2 preface. {@code api.local.maxStreams} caps concurrent streams per connection.
+ */
+public class FakeStoreServer {
+    public static final String BASE_PATH = "/api/v1";
+
+    private static volatile FakeStoreServer shared;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final FakeStore store = new FakeStore();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ConnectionStatistics connections = new ConnectionStatistics();
+
+    public FakeStoreServer(int port) {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        // Selectors and acceptors stay on platform threads: a client pinning every carrier must not stall the server.
+        QueuedThreadPool threads = new QueuedThreadPool();
+        threads.setName("fake-store");
+        threads.setVirtualThreadsExecutor(executor);
+        Server jetty = new Server(threads);
+        jetty.setHandler(new ContextHandlerCollection());
+        server = new JettyHttpServer(jetty, false);
+        try {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not bind the fake store server to port " + port, e);
+        }
+        ServerConnector connector = (ServerConnector) jetty.getConnectors()[0];
+        HTTP2CServerConnectionFactory h2c = new HTTP2CServerConnectionFactory(
+                connector.getConnectionFactory(HttpConnectionFactory.class).getHttpConfiguration());
+        h2c.setMaxConcurrentStreams(Integer.getInteger("api.local.maxStreams", 256));
+        connector.addConnectionFactory(h2c);
+        connector.addBean(connections);
+        server.createContext(BASE_PATH, this::handle);
+    }
+
+    /**
+     * Returns the suite-wide server, starting it on the first call.
+     */
+    public static FakeStoreServer shared() {
+        if (shared == null) {
+            synchronized (FakeStoreServer.class) {
+                if (shared == null) {
+                    FakeStoreServer instance = new FakeStoreServer(Integer.getInteger("api.local.port", 0));
+                    instance.start();
+                    Runtime.getRuntime().addShutdownHook(new Thread(instance::stop));
+                    shared = instance;
+                }
+            }
+        }
+        return shared;
+    }
+
+    public static void stopShared() {
+        synchronized (FakeStoreServer.class) {
+            if (shared != null) {
+                shared.stop();
+                shared = null;
+            }
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.close();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String baseUri() {
+        return "http://" + server.getAddress().getHostString() + ":" + port() + BASE_PATH;
+    }
+
+    /**
+     * Connections accepted since the server started, over HTTP/1.1 and HTTP/2 alike.
+     */
+    public long connectionsOpened() {
+        return connections.getConnectionsTotal();
+    }
+
+    public FakeStore store() {
+        return store;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            try {
+                Object result = route(method, path, queryOf(exchange), requestBody, exchange);
+                int status = "POST".equals(method) ? 201 : 200;
+                byte[] body = result instanceof Boolean ? result.toString().getBytes(StandardCharsets.UTF_8)
+                        : mapper.writeValueAsBytes(result);
+                if ("GET".equals(method)) {
+                    String etag = etagOf(body);
+                    exchange.getResponseHeaders().set("ETag", etag);
+                    if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                        exchange.sendResponseHeaders(304, -1);
+                        return;
+                    }
+                }
+                send(exchange, status, body);
+            } catch (ApiError error) {
+                send(exchange, error.getStatus(), mapper.writeValueAsBytes(error.getBody()));
+            } catch (RuntimeException e) {
+                ApiError error = ApiError.badRequest(String.valueOf(e.getMessage()));
+                send(exchange, 500, mapper.writeValueAsBytes(error.getBody().put("statusCode", 500).put("error", "Internal Server Error")));
+            }
+        }
+    }
+
+    private Object route(String method, String path, Map<String, String> query, byte[] body, HttpExchange exchange) {
+        String[] segments = Arrays.stream(path.substring(BASE_PATH.length()).split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .toArray(String[]::new);
+        String resource = segments.length == 0 ? "" : segments[0];
+        String key = method + " " + resource + "/" + Math.min(segments.length - 1, 2);
+        boolean bySlug = segments.length == 3 && "slug".equals(segments[1]);
+
+        switch (key) {
+            case "GET categories/0":
+                return store.categories(query);
+            case "POST categories/0":
+                return store.createCategory(json(body));
+            case "GET categories/1":
+                return store.category(segments[1], path);
+            case "PUT categories/1":
+                return store.updateCategory(segments[1], json(body), path);
+            case "DELETE categories/1":
+                return store.deleteCategory(segments[1], path);
+            case "GET products/0":
+                return store.products(query);
+            case "POST products/0":
+                return store.createProduct(json(body), path);
+            case "GET products/1":
+                return store.product(segments[1], path);
+            case "PUT products/1":
+                return store.updateProduct(segments[1], json(body), path);
+            case "DELETE products/1":
+                return store.deleteProduct(segments[1], path);
+            case "GET users/0":
+                return store.users(query);
+            case "POST users/0":
+                return store.createUser(json(body));
+            case "GET users/1":
+                return store.user(segments[1], path);
+            case "PUT users/1":
+                return store.updateUser(segments[1], json(body), path);
+            case "DELETE users/1":
+                return store.deleteUser(segments[1], path);
+            case "POST auth/1":
+                if ("login".equals(segments[1])) {
+                    return store.login(json(body));
+                }
+                if ("refresh-token".equals(segments[1])) {
+                    return store.refresh(json(body));
+                }
+                break;
+            case "GET auth/1":
+                if ("profile".equals(segments[1])) {
+                    return store.profile(exchange.getRequestHeaders().getFirst("Authorization"));
+                }
+                break;
+            case "GET categories/2":
+                if (bySlug) {
+                    return store.categoryBySlug(segments[2], path);
+                }
+                break;
+            case "GET products/2":
+                if (bySlug) {
+                    return store.productBySlug(segments[2], path);
+                }
+                break;
+            default:
+                break;
+        }
+        throw ApiError.notFound(method, path);
+    }
+
+    private JsonNode json(byte[] body) {
+        if (body.length == 0) {
+            return NullNode.getInstance();
+        }
+        try {
+            return mapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            throw ApiError.badRequest(e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, String> queryOf(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.putIfAbsent(name, value);
+        }
+        return query;
+    }
+
+    /**
+     * Weak validator in the {@code W/"<length>-<sha1>"} shape Express puts on the real API's JSON responses.
+     */
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(body);
+            return "W/\"" + Integer.toHexString(body.length) + "-"
+                    + Base64.getEncoder().withoutPadding().encodeToString(digest).substring(0, 27) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Issues and verifies HS256 JWTs shaped like the ones returned by {@code /auth/login}.
+ */
+public class JwtTokens {
+    private static final String HEADER = encode("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final byte[] secret = new byte[32];
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+
+    public JwtTokens(Duration accessTtl, Duration refreshTtl) {
+        new SecureRandom().nextBytes(secret);
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+    }
+
+    public String accessToken(int userId) {
+        return issue(userId, accessTtl, "access");
+    }
+
+    public String refreshToken(int userId) {
+        return issue(userId, refreshTtl, "refresh");
+    }
+
+    /**
+     * Returns the user id carried by a valid, unexpired token of the given type, or -1.
+     */
+    public int verify(String token, String type) {
+        if (token == null) {
+            return -1;
+        }
+        String[] parts = token.split("\\.");
+        if (parts.length != 3 || !MessageDigest.isEqual(sign(parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII),
+                parts[2].getBytes(StandardCharsets.US_ASCII))) {
+            return -1;
+        }
+        try {
+            JsonNode payload = mapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            if (!type.equals(payload.path("typ").asText()) || payload.path("exp").asLong() <= Instant.now().getEpochSecond()) {
+                return -1;
+            }
+            return payload.path("sub").asInt(-1);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private String issue(int userId, Duration ttl, String type) {
+        long now = Instant.now().getEpochSecond();
+        ObjectNode payload = mapper.createObjectNode()
+                .put("sub", userId)
+                .put("typ", type)
+                .put("iat", now)
+                .put("exp", now + ttl.toSeconds())
+                .put("jti", Long.toHexString(System.nanoTime()));
+        String unsigned = HEADER + "." + encode(payload.toString().getBytes(StandardCharsets.UTF_8));
+        return unsigned + "." + sign(unsigned);
+    }
+
+    private String sign(String unsigned) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return encode(mac.doFinal(unsigned.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,11 @@
+package soak;
+
+/**
+ * One {@link JvmSampler} reading. Collections and pauses cover the interval since the previous sample; allocation
+ * is a rate over that interval. {@code -1} marks a figure this JVM or OS does not report, or the live heap before
+ * the first old-generation collection.
+ */
+record JvmSample(double elapsedSeconds, long heapUsedBytes, long liveHeapBytes, double allocatedBytesPerSecond,
+                 long collections, long gcPauseMillis, long gcMaxPauseMillis, int threads, int daemonThreads,
+                 long openFileDescriptors) {
+}
@@ -0,0 +1,136 @@
+package soak;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Samples this JVM through the platform MXBeans. Each {@link #sample()} covers the interval since the previous one:
+ * <ul>
+ *     <li>heap in use now, and the heap left by the last collection that reclaimed old-generation space: the live
+ *     set, the leak signal. Young collections are not used, since their result climbs with every promotion until
+ *     the old generation is collected and drops back. A collection counts as old when it shrinks a heap pool other
+ *     than eden, survivor or a young generation, which covers Serial and Parallel full GCs, G1 mixed and full
+ *     collections and ZGC cycles. An interval without one repeats the last value;</li>
+ *     <li>bytes allocated per second by all threads (virtual threads count towards their carriers);</li>
+ *     <li>collections and stop-the-world pause time, from GC notifications so every pause is seen, not only the
+ *     last one. Beans for concurrent cycles ({@code ZGC Cycles}, {@code Shenandoah Cycles}) are left out;</li>
+ *     <li>live and daemon threads, and open file descriptors where the OS reports them.</li>
+ * </ul>
+ */
+final class JvmSampler implements AutoCloseable {
+    private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .map(MemoryPoolMXBean::getName)
+            .collect(Collectors.toSet());
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener onCollection = this::onCollection;
+    private final long startNanos = System.nanoTime();
+    private long collections;
+    private long pauseMillis;
+    private long maxPauseMillis;
+    private long minLive = Long.MAX_VALUE;
+    private long lastLive = -1;
+    private long lastNanos = startNanos;
+    private long lastAllocated = allocatedBytes();
+
+    JvmSampler() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter && !collector.getName().contains("Cycles")) {
+                emitter.addNotificationListener(onCollection, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    private synchronized void onCollection(Notification notification, Object handback) {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            GcInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()).getGcInfo();
+            long duration = info.getDuration();
+            Map<String, MemoryUsage> before = info.getMemoryUsageBeforeGc();
+            long afterGc = 0;
+            boolean reclaimedOld = false;
+            for (Map.Entry<String, MemoryUsage> pool : info.getMemoryUsageAfterGc().entrySet()) {
+                if (heapPools.contains(pool.getKey())) {
+                    afterGc += pool.getValue().getUsed();
+                    reclaimedOld |= !isYoung(pool.getKey()) && before.containsKey(pool.getKey())
+                            && pool.getValue().getUsed() < before.get(pool.getKey()).getUsed();
+                }
+            }
+            if (reclaimedOld) {
+                minLive = Math.min(minLive, afterGc);
+                lastLive = afterGc;
+            }
+            collections++;
+            pauseMillis += duration;
+            maxPauseMillis = Math.max(maxPauseMillis, duration);
+        }
+    }
+
+    synchronized JvmSample sample() {
+        long now = System.nanoTime();
+        long allocated = allocatedBytes();
+        double seconds = Math.max(now - lastNanos, 1) / 1e9;
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        JvmSample sample = new JvmSample(
+                (now - startNanos) / 1e9,
+                heap.getUsed(),
+                minLive != Long.MAX_VALUE ? minLive : lastLive,
+                allocated < 0 || lastAllocated < 0 ? -1 : (allocated - lastAllocated) / seconds,
+                collections,
+                pauseMillis,
+                maxPauseMillis,
+                threads.getThreadCount(),
+                threads.getDaemonThreadCount(),
+                os instanceof UnixOperatingSystemMXBean unix ? unix.getOpenFileDescriptorCount() : -1);
+        lastNanos = now;
+        lastAllocated = allocated;
+        collections = 0;
+        pauseMillis = 0;
+        maxPauseMillis = 0;
+        minLive = Long.MAX_VALUE;
+        return sample;
+    }
+
+    private static boolean isYoung(String pool) {
+        return pool.contains("Eden") || pool.contains("Survivor") || pool.contains("Young");
+    }
+
+    private long allocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean allocations && allocations.isThreadAllocatedMemoryEnabled()) {
+            return allocations.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(onCollection);
+            } catch (ListenerNotFoundException e) {
+                // Already gone.
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package soak;
+
+import load.LoadDriver;
+import load.LoadReport;
+import load.StepStats;
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the JVM and the driver's per-step latency every {@link SoakProfile#sampleInterval()} while a soak runs.
+ * Each sample becomes a {@link Window} in memory and a CSV row, flushed as it is written so a run that is killed
+ * still leaves its series behind.
+ */
+final class SoakMonitor implements AutoCloseable {
+    private final SoakProfile profile;
+    private final LoadDriver<?> driver;
+    private final Path csv;
+    private final JvmSampler sampler = new JvmSampler();
+    private final BufferedWriter out;
+    private final List<Window> windows = new ArrayList<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "soak-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long lastIterations;
+    private long lastErrors;
+
+    /**
+     * Latency and throughput of one interval next to the JVM's state at its end. Step arrays follow the driver's
+     * step order; a step that did not run in the interval has {@code NaN} percentiles.
+     */
+    record Window(JvmSample jvm, double iterationsPerSecond, long requests, long errors, double[] p50Millis,
+                  double[] p99Millis) {
+    }
+
+    SoakMonitor(SoakProfile profile, LoadDriver<?> driver, Path csv) {
+        this.profile = profile;
+        this.driver = driver;
+        this.csv = csv;
+        try {
+            Files.createDirectories(csv.toAbsolutePath().getParent());
+            out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8);
+            StringBuilder header = new StringBuilder("elapsed_s,heap_used_mb,live_heap_mb,alloc_mb_per_s,gc_count,"
+                    + "gc_pause_ms,gc_max_pause_ms,threads,daemon_threads,open_fds,iterations_per_s,requests,errors");
+            for (StepStats step : driver.stats()) {
+                header.append(',').append(step.getName()).append("_p50_ms,").append(step.getName()).append("_p99_ms");
+            }
+            out.write(header.append('\n').toString());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open " + csv, e);
+        }
+        // Starts the first interval now, so it does not include anything recorded before the soak.
+        driver.stats().forEach(StepStats::intervalHistogram);
+        long period = profile.sampleInterval().toMillis();
+        timer.scheduleAtFixedRate(this::sample, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sampling, records the final partial interval and judges the series.
+     */
+    SoakReport finish(LoadReport load) {
+        timer.shutdown();
+        try {
+            timer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sample();
+        return new SoakReport(profile, load, List.copyOf(windows), csv);
+    }
+
+    private synchronized void sample() {
+        JvmSample jvm = sampler.sample();
+        double seconds = profile.sampleInterval().toNanos() / 1e9;
+        if (!windows.isEmpty()) {
+            seconds = jvm.elapsedSeconds() - windows.getLast().jvm().elapsedSeconds();
+        }
+        long iterations = driver.iterations();
+        long errors = driver.stats().stream().mapToLong(StepStats::getErrors).sum();
+        List<StepStats> steps = driver.stats();
+        double[] p50 = new double[steps.size()];
+        double[] p99 = new double[steps.size()];
+        long requests = 0;
+        for (int i = 0; i < steps.size(); i++) {
+            Histogram interval = steps.get(i).intervalHistogram();
+            requests += interval.getTotalCount();
+            p50[i] = interval.getTotalCount() == 0 ? Double.NaN : interval.getValueAtPercentile(50) / 1000.0;
+            p99[i] = interval.getTotalCount() == 0 ? Double.NaN : interval.getValueAtPercentile(99) / 1000.0;
+        }
+        Window window = new Window(jvm, (iterations - lastIterations) / Math.max(seconds, 1e-9), requests, errors - lastErrors, p50, p99);
+        lastIterations = iterations;
+        lastErrors = errors;
+        windows.add(window);
+        write(window);
+    }
+
+    private void write(Window window) {
+        JvmSample jvm = window.jvm();
+        StringBuilder row = new StringBuilder(String.format(Locale.ROOT, "%.1f,%.2f,%.2f,%.2f,%d,%d,%d,%d,%d,%d,%.2f,%d,%d",
+                jvm.elapsedSeconds(), jvm.heapUsedBytes() / 1048576.0, jvm.liveHeapBytes() < 0 ? -1 : jvm.liveHeapBytes() / 1048576.0,
+                jvm.allocatedBytesPerSecond() < 0 ? -1 : jvm.allocatedBytesPerSecond() / 1048576.0, jvm.collections(),
+                jvm.gcPauseMillis(), jvm.gcMaxPauseMillis(), jvm.threads(), jvm.daemonThreads(), jvm.openFileDescriptors(),
+                window.iterationsPerSecond(), window.requests(), window.errors()));
+        for (int i = 0; i < window.p50Millis().length; i++) {
+            row.append(String.format(Locale.ROOT, ",%.3f,%.3f", window.p50Millis()[i], window.p99Millis()[i]));
+        }
+        try {
+            out.write(row.append('\n').toString());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to " + csv, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        sampler.close();
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close " + csv, e);
+        }
+    }
+}
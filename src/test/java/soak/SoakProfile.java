@@ -0,0 +1,41 @@
+package soak;
+
+import base.Config;
+import load.LoadProfile;
+
+import java.time.Duration;
+
+/**
+ * A soak run: the load it keeps up, how often it samples, and how much upward drift it tolerates. The first
+ * {@code warmupFraction} of the samples (JIT, pool and heap sizing) are left out of the trends, which are only
+ * judged once at least {@code minSamples} samples remain.
+ */
+public record SoakProfile(LoadProfile load, Duration sampleInterval, double warmupFraction, int minSamples,
+                          double maxHeapGrowthMbPerHour, double maxLatencyIncrease, double minLatencyIncreaseMillis) {
+
+    public SoakProfile {
+        if (sampleInterval.isNegative() || sampleInterval.isZero()) {
+            throw new IllegalArgumentException("sampleInterval must be positive, was " + sampleInterval);
+        }
+    }
+
+    /**
+     * Reads {@code soak.users}, {@code soak.rampUpSeconds}, {@code soak.durationMinutes}, {@code soak.thinkTimeMillis},
+     * {@code soak.sampleSeconds}, {@code soak.warmupFraction}, {@code soak.minSamples},
+     * {@code soak.maxHeapGrowthMbPerHour}, {@code soak.maxLatencyIncrease} and {@code soak.minLatencyIncreaseMillis}.
+     */
+    public static SoakProfile fromSystemProperties() {
+        return new SoakProfile(
+                new LoadProfile(
+                        Config.integer("soak.users", 4),
+                        Duration.ofSeconds(Config.longValue("soak.rampUpSeconds", 10)),
+                        Duration.ofMillis(Math.round(Config.doubleValue("soak.durationMinutes", 60) * 60_000)),
+                        Duration.ofMillis(Config.longValue("soak.thinkTimeMillis", 100))),
+                Duration.ofSeconds(Config.longValue("soak.sampleSeconds", 10)),
+                Config.doubleValue("soak.warmupFraction", 0.2),
+                Config.integer("soak.minSamples", 12),
+                Config.doubleValue("soak.maxHeapGrowthMbPerHour", 32),
+                Config.doubleValue("soak.maxLatencyIncrease", 0.5),
+                Config.doubleValue("soak.minLatencyIncreaseMillis", 5));
+    }
+}
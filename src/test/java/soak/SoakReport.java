@@ -0,0 +1,110 @@
+package soak;
+
+import load.LoadReport;
+import load.StepStats;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Trends of a soak run, fitted with {@link TheilSen} over the samples after warm-up. The live heap and each step's
+ * median latency are judged against the profile's limits; heap in use, threads and open file descriptors are only
+ * reported, since they follow the collector's and the pool's sizing as much as any leak.
+ */
+record SoakReport(SoakProfile profile, LoadReport load, List<SoakMonitor.Window> windows, Path csv) {
+
+    /**
+     * A fitted series from the first judged sample to the last, in the series' unit.
+     */
+    public record Trend(String name, String unit, double start, double end, double perHour, String limit, boolean violated) {
+
+        @Override
+        public String toString() {
+            return String.format("%-32s %10.2f -> %10.2f %-3s (%+.2f %s/h%s)%s", name, start, end, unit, perHour, unit,
+                    limit.isEmpty() ? "" : ", limit " + limit, violated ? "  <-- trending up" : "");
+        }
+    }
+
+    public int warmupSamples() {
+        return (int) Math.floor(windows.size() * profile.warmupFraction());
+    }
+
+    public boolean judged() {
+        return windows.size() - warmupSamples() >= profile.minSamples();
+    }
+
+    public List<Trend> trends() {
+        List<Trend> trends = new ArrayList<>();
+        if (windows.size() - warmupSamples() < 2) {
+            return trends;
+        }
+        Trend heap = trend("live heap after old-gen GC", "MB",
+                window -> window.jvm().liveHeapBytes() < 0 ? Double.NaN : window.jvm().liveHeapBytes() / 1048576.0);
+        trends.add(withLimit(heap, heap.perHour() > profile.maxHeapGrowthMbPerHour(),
+                String.format("%.0f MB/h", profile.maxHeapGrowthMbPerHour())));
+        trends.add(trend("heap used", "MB", window -> window.jvm().heapUsedBytes() / 1048576.0));
+        trends.add(trend("GC pause per sample", "ms", window -> window.jvm().gcPauseMillis()));
+        trends.add(trend("threads", "", window -> window.jvm().threads()));
+        if (windows.getFirst().jvm().openFileDescriptors() >= 0) {
+            trends.add(trend("open file descriptors", "", window -> window.jvm().openFileDescriptors()));
+        }
+        List<StepStats> steps = load.steps();
+        for (int i = 0; i < steps.size(); i++) {
+            int step = i;
+            Trend latency = trend(steps.get(i).getName() + " p50", "ms", window -> window.p50Millis()[step]);
+            double increase = latency.end() - latency.start();
+            trends.add(withLimit(latency, increase > profile.minLatencyIncreaseMillis()
+                            && increase > profile.maxLatencyIncrease() * Math.max(latency.start(), 0),
+                    String.format("+%.0f%% and +%.0f ms", profile.maxLatencyIncrease() * 100, profile.minLatencyIncreaseMillis())));
+        }
+        return trends;
+    }
+
+    /**
+     * Judged trends that went past their limit; empty when too few samples were taken to judge.
+     */
+    public List<Trend> violations() {
+        return judged() ? trends().stream().filter(Trend::violated).toList() : List.of();
+    }
+
+    public String summary() {
+        StringBuilder out = new StringBuilder(String.format(
+                "Soak: %.1f min, %d virtual users (%d finished), %d flow iterations, error rate %.2f%%, %d samples every %ds (%d warm-up)%n",
+                load.elapsed().toMillis() / 60000.0, profile.load().virtualUsers(), load.usersFinished(), load.iterations(), load.errorRate() * 100,
+                windows.size(), profile.sampleInterval().toSeconds(), warmupSamples()));
+        trends().forEach(trend -> out.append("  ").append(trend).append('\n'));
+        if (!judged()) {
+            out.append(String.format("  trends not judged: %d samples after warm-up, %d needed%n",
+                    windows.size() - warmupSamples(), profile.minSamples()));
+        }
+        out.append("  time series: ").append(csv);
+        return out.toString();
+    }
+
+    private Trend trend(String name, String unit, ToDoubleFunction<SoakMonitor.Window> series) {
+        List<SoakMonitor.Window> judged = windows.subList(warmupSamples(), windows.size());
+        double[] x = new double[judged.size()];
+        double[] y = new double[judged.size()];
+        int points = 0;
+        for (SoakMonitor.Window window : judged) {
+            double value = series.applyAsDouble(window);
+            if (!Double.isNaN(value)) {
+                x[points] = window.jvm().elapsedSeconds();
+                y[points] = value;
+                points++;
+            }
+        }
+        if (points < 2) {
+            return new Trend(name, unit, Double.NaN, Double.NaN, 0, "", false);
+        }
+        double[] line = TheilSen.fit(Arrays.copyOf(x, points), Arrays.copyOf(y, points));
+        return new Trend(name, unit, line[0] + line[1] * x[0], line[0] + line[1] * x[points - 1], line[1] * 3600, "", false);
+    }
+
+    private static Trend withLimit(Trend trend, boolean violated, String limit) {
+        return new Trend(trend.name(), trend.unit(), trend.start(), trend.end(), trend.perHour(), limit, violated);
+    }
+}
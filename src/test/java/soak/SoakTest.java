@@ -0,0 +1,55 @@
+package soak;
+
+import base.BaseTest;
+import base.Config;
+import context.TestData;
+import e2e.EndToEndTest;
+import io.qameta.allure.*;
+import load.EndToEndFlow;
+import load.LoadDriver;
+import load.LoadReport;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+@Epic("Load Testing")
+@Feature("End-to-End flow soaked for hours")
+public class SoakTest extends BaseTest {
+
+    @Test
+    @Story("Memory, GC, thread and latency drift under sustained load")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Loop the End-to-End flow, sample the JVM and per-step latency over time and fail on upward trends")
+    public void endToEndFlowSoak() {
+        SoakProfile profile = SoakProfile.fromSystemProperties();
+        LoadDriver<EndToEndTest> driver = new LoadDriver<>(profile.load(), EndToEndFlow.steps());
+        Path csv = Path.of(System.getProperty("soak.output", "target/soak"), "soak-" + TestData.runId() + ".csv");
+        SoakReport report;
+        try (SoakMonitor monitor = new SoakMonitor(profile, driver, csv)) {
+            LoadReport load = driver.run(EndToEndTest::stepByStep);
+            report = monitor.finish(load);
+        }
+
+        System.out.println(report.summary());
+        Allure.addAttachment("Soak report", "text/plain", report.summary(), ".txt");
+        try {
+            Allure.addAttachment("Soak time series", "text/csv", Files.readString(csv), ".csv");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + csv, e);
+        }
+
+        double maxErrorRate = Config.doubleValue("soak.maxErrorRate", 0.01);
+        Assert.assertTrue(report.load().iterations() > 0, "No flow iteration completed");
+        Assert.assertTrue(report.load().allUsersFinished(), "Virtual users stopped early: " + report.load().usersFinished()
+                + " of " + profile.load().virtualUsers() + " finished, first cause " + report.load().firstUserFailure());
+        Assert.assertTrue(report.load().errorRate() <= maxErrorRate,
+                "Error rate " + report.load().errorRate() + " exceeds " + maxErrorRate);
+        Assert.assertTrue(report.violations().isEmpty(), "Upward trends during the soak:\n" + report.violations().stream()
+                .map(SoakReport.Trend::toString).collect(Collectors.joining("\n")));
+    }
+}
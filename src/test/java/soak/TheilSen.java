@@ -0,0 +1,62 @@
+package soak;
+
+import java.util.Arrays;
+
+/**
+ * Theil-Sen line fit: the slope is the median of the slopes between every pair of points, and the intercept is
+ * the median of what each point implies for it. Up to about 29% of the points can be outliers, such as a GC
+ * that lands in one window or a one-off slow call, before the fit moves, so a trend means most windows moved.
+ */
+final class TheilSen {
+    /**
+     * Longer series are thinned to about this many evenly spaced points, keeping the pair count near 125k.
+     */
+    private static final int MAX_POINTS = 500;
+
+    private TheilSen() {
+    }
+
+    /**
+     * {@code {intercept, slope}} of the fit of {@code y} over {@code x}; both arrays have the same length, at least 2.
+     */
+    static double[] fit(double[] x, double[] y) {
+        int stride = (x.length + MAX_POINTS - 1) / MAX_POINTS;
+        if (stride > 1) {
+            x = thin(x, stride);
+            y = thin(y, stride);
+        }
+        int n = x.length;
+        double[] slopes = new double[n * (n - 1) / 2];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (x[j] != x[i]) {
+                    slopes[count++] = (y[j] - y[i]) / (x[j] - x[i]);
+                }
+            }
+        }
+        double slope = median(Arrays.copyOf(slopes, count));
+        double[] intercepts = new double[n];
+        for (int i = 0; i < n; i++) {
+            intercepts[i] = y[i] - slope * x[i];
+        }
+        return new double[]{median(intercepts), slope};
+    }
+
+    private static double[] thin(double[] values, int stride) {
+        double[] kept = new double[(values.length + stride - 1) / stride];
+        for (int i = 0; i < kept.length; i++) {
+            kept[i] = values[i * stride];
+        }
+        return kept;
+    }
+
+    private static double median(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+}
@@ -0,0 +1,90 @@
+package trend;
+
+import java.util.Arrays;
+
+/**
+ * One-sided Mann-Whitney U test: how likely is a sample at least this much slower than the baseline if both came
+ * from the same distribution. Rank-based, so the long right tail of latencies does not dominate it the way it
+ * would a t-test.
+ */
+final class MannWhitney {
+
+    private MannWhitney() {
+    }
+
+    /**
+     * p-value for "{@code latest} tends to be greater than {@code baseline}". A single latest value gets the exact
+     * rank probability; larger samples use the normal approximation with tie and continuity corrections.
+     */
+    static double greaterPValue(float[] latest, float[] baseline) {
+        int n1 = latest.length;
+        int n2 = baseline.length;
+        if (n1 == 0 || n2 == 0) {
+            return 1.0;
+        }
+        if (n1 == 1) {
+            int atLeast = 0;
+            for (float value : baseline) {
+                if (value >= latest[0]) {
+                    atLeast++;
+                }
+            }
+            return (atLeast + 1.0) / (n2 + 1.0);
+        }
+
+        int n = n1 + n2;
+        long[] keyed = new long[n];
+        for (int i = 0; i < n; i++) {
+            float value = i < n1 ? latest[i] : baseline[i - n1];
+            // Sort by value, remembering which sample each entry came from in the low bit.
+            keyed[i] = ((long) sortable(value) << 1) | (i < n1 ? 1 : 0);
+        }
+        Arrays.sort(keyed);
+
+        double latestRankSum = 0;
+        double tieTerm = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j < n && keyed[j] >>> 1 == keyed[i] >>> 1) {
+                j++;
+            }
+            double midRank = (i + 1 + j) / 2.0;
+            for (int k = i; k < j; k++) {
+                if ((keyed[k] & 1) == 1) {
+                    latestRankSum += midRank;
+                }
+            }
+            long ties = j - i;
+            tieTerm += ties * ties * ties - ties;
+            i = j;
+        }
+
+        double u = latestRankSum - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2.0;
+        double variance = n1 * (double) n2 / 12.0 * ((n + 1) - tieTerm / (n * (n - 1.0)));
+        if (variance <= 0) {
+            return 1.0;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1.0 - normalCdf(z);
+    }
+
+    /**
+     * Maps a float to an int with the same ordering, so values sort as plain integers.
+     */
+    private static int sortable(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits < 0 ? bits ^ Integer.MAX_VALUE : bits;
+    }
+
+    /**
+     * Standard normal CDF via the Abramowitz-Stegun 7.1.26 erf approximation (error below 1.5e-7).
+     */
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))))
+                * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+}
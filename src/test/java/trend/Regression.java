@@ -0,0 +1,12 @@
+package trend;
+
+/**
+ * A series whose latest run is slower than its baseline: significantly by rank, and by more than the minimum ratio.
+ */
+public record Regression(String series, int baselineSamples, int latestSamples, double baselineMedianMillis,
+                         double latestMedianMillis, double pValue) {
+
+    public double ratio() {
+        return baselineMedianMillis == 0 ? Double.POSITIVE_INFINITY : latestMedianMillis / baselineMedianMillis;
+    }
+}
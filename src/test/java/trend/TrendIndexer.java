@@ -0,0 +1,207 @@
+package trend;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import impact.TestImpact;
+import logging.ExchangeLogListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streams the {@code *-result.json} files added to an Allure results directory since the last call into a
+ * {@link TrendStore}. Only files modified at or after the store's watermark are parsed, so the cost of an update
+ * follows the new results, not the history. Each result adds a {@code test <fullName>} sample (its duration) and
+ * one {@code endpoint <METHOD /path>} sample per endpoint label (mean time per call).
+ * <p>
+ * Results are grouped into runs by their {@code runId} label. Results written before that label existed fall back
+ * to the {@code pid@host} part of their {@code thread} label. Results replayed by {@code impact.TestImpact}
+ * were timed in an earlier run and are skipped.
+ */
+public final class TrendIndexer {
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Pattern ENDPOINT = Pattern.compile("(.+) (\\d+)x ([\\d.]+)ms");
+
+    private TrendIndexer() {
+    }
+
+    /**
+     * Indexes new results and returns how many were added.
+     */
+    public static int index(Path results, TrendStore store) {
+        List<Path> files = newResults(results, store);
+        if (files.isEmpty()) {
+            return 0;
+        }
+        List<Result> parsed = new ArrayList<>(files.size());
+        long watermark = store.watermark();
+        Set<String> watermarkNames = new HashSet<>(store.watermarkNames());
+        for (Path file : files) {
+            long modified = modified(file);
+            if (modified > watermark) {
+                watermark = modified;
+                watermarkNames.clear();
+            }
+            if (modified == watermark) {
+                watermarkNames.add(file.getFileName().toString());
+            }
+            Result result = parse(file);
+            if (result != null) {
+                parsed.add(result);
+            }
+        }
+
+        // Rows must stay in run order: runs append by first start, and only the latest stored run can grow.
+        Map<String, List<Result>> byRun = new LinkedHashMap<>();
+        parsed.stream()
+                .sorted(Comparator.comparingLong(Result::start))
+                .forEach(result -> byRun.computeIfAbsent(result.runId(), id -> new ArrayList<>()).add(result));
+        int added = 0;
+        for (Map.Entry<String, List<Result>> run : byRun.entrySet()) {
+            int known = store.runIndex(run.getKey());
+            if (known >= 0 && known != store.runCount() - 1) {
+                continue;
+            }
+            int runIndex = store.addRun(run.getKey());
+            for (Result result : run.getValue()) {
+                store.append(runIndex, "test " + result.name(), result.stop() - result.start(), result.status());
+                result.endpoints().forEach((endpoint, millis) -> store.append(runIndex, "endpoint " + endpoint, millis, result.status()));
+                added++;
+            }
+        }
+        store.commit(watermark, watermarkNames);
+        return added;
+    }
+
+    private static List<Path> newResults(Path results, TrendStore store) {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(results)) {
+            return files;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(results, "*-result.json")) {
+            for (Path file : entries) {
+                long modified = modified(file);
+                if (modified > store.watermark()
+                        || modified == store.watermark() && !store.watermarkNames().contains(file.getFileName().toString())) {
+                    files.add(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list " + results, e);
+        }
+        return files;
+    }
+
+    /**
+     * Reads the fields the trend needs, skipping steps, attachments and everything else without building a tree.
+     */
+    private static Result parse(Path file) {
+        String fullName = null;
+        String status = null;
+        long start = 0;
+        long stop = 0;
+        String runId = null;
+        String process = "unknown";
+        boolean replayed = false;
+        StringBuilder parameters = new StringBuilder();
+        Map<String, Float> endpoints = new LinkedHashMap<>();
+        try (JsonParser parser = JSON.createParser(file.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "fullName" -> fullName = parser.getText();
+                    case "status" -> status = parser.getText();
+                    case "start" -> start = parser.getLongValue();
+                    case "stop" -> stop = parser.getLongValue();
+                    case "labels" -> {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            Map<String, String> label = pairs(parser);
+                            String value = label.getOrDefault("value", "");
+                            switch (label.getOrDefault("name", "")) {
+                                case ExchangeLogListener.RUN_ID_LABEL -> runId = value;
+                                case ExchangeLogListener.ENDPOINT_LABEL -> {
+                                    Matcher endpoint = ENDPOINT.matcher(value);
+                                    if (endpoint.matches()) {
+                                        endpoints.put(endpoint.group(1), Float.parseFloat(endpoint.group(3)));
+                                    }
+                                }
+                                case TestImpact.LABEL -> replayed = true;
+                                case "thread" -> process = value.contains(".") ? value.substring(0, value.lastIndexOf('.')) : value;
+                                default -> {
+                                }
+                            }
+                        }
+                    }
+                    case "parameters" -> {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            parameters.append(parameters.isEmpty() ? "" : ", ").append(pairs(parser).getOrDefault("value", ""));
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            // A result still being written by a concurrent run; finishing it moves its mtime past the watermark.
+            return null;
+        }
+        if (fullName == null || stop < start || replayed) {
+            return null;
+        }
+        String name = parameters.isEmpty() ? fullName : fullName + "[" + parameters + "]";
+        return new Result(clean(runId == null ? process : runId), clean(name), statusOf(status), start, stop, endpoints);
+    }
+
+    private static Map<String, String> pairs(JsonParser parser) throws IOException {
+        Map<String, String> pairs = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            if (parser.nextToken().isScalarValue()) {
+                pairs.put(name, parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return pairs;
+    }
+
+    private static byte statusOf(String status) {
+        return switch (status == null ? "" : status) {
+            case "passed" -> TrendStore.PASSED;
+            case "failed" -> TrendStore.FAILED;
+            case "skipped" -> TrendStore.SKIPPED;
+            default -> TrendStore.BROKEN;
+        };
+    }
+
+    private static String clean(String value) {
+        return value.replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private static long modified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private record Result(String runId, String name, byte status, long start, long stop, Map<String, Float> endpoints) {
+    }
+}
@@ -0,0 +1,106 @@
+package trend;
+
+import base.Config;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latest run against a rolling baseline of the {@code trend.baselineRuns} runs before it, per test and per endpoint.
+ * Only passed samples count. A series is flagged when it has at least {@code trend.minBaseline} baseline samples,
+ * the one-sided Mann-Whitney p-value is below {@code trend.alpha}, and its median grew by more than
+ * {@code trend.minIncrease}. The ratio guard keeps statistically real but negligible shifts quiet.
+ */
+public record TrendReport(String latestRun, int baselineRuns, int indexed, int seriesCompared, List<Regression> regressions) {
+
+    /**
+     * Indexes the new results under {@code allure.results.directory} into {@code trend.store} and compares the
+     * latest run against its baseline.
+     */
+    public static TrendReport update() {
+        Path results = Path.of(System.getProperty("allure.results.directory", "allure-results"));
+        try (TrendStore store = new TrendStore(Path.of(System.getProperty("trend.store", ".allure-trend")))) {
+            int indexed = TrendIndexer.index(results, store);
+            return compare(store, indexed, Config.integer("trend.baselineRuns", 20), Config.integer("trend.minBaseline", 5),
+                    Config.doubleValue("trend.alpha", 0.05), Config.doubleValue("trend.minIncrease", 0.2));
+        }
+    }
+
+    public static TrendReport compare(TrendStore store, int indexed, int baselineRuns, int minBaseline, double alpha,
+                                      double minIncrease) {
+        int latest = store.runCount() - 1;
+        if (latest < 0) {
+            return new TrendReport(null, 0, indexed, 0, List.of());
+        }
+        int firstBaselineRun = Math.max(0, latest - baselineRuns);
+        TrendStore.Columns columns = store.columns();
+        Map<Integer, List<Float>> baseline = new HashMap<>();
+        Map<Integer, List<Float>> current = new HashMap<>();
+        for (int row = columns.firstRowOf(firstBaselineRun); row < columns.rows(); row++) {
+            if (columns.status().get(row) != TrendStore.PASSED) {
+                continue;
+            }
+            Map<Integer, List<Float>> target = columns.run().get(row) == latest ? current : baseline;
+            target.computeIfAbsent(columns.series().get(row), series -> new ArrayList<>()).add(columns.millis().get(row));
+        }
+
+        List<Regression> regressions = new ArrayList<>();
+        int compared = 0;
+        for (Map.Entry<Integer, List<Float>> series : current.entrySet()) {
+            float[] before = values(baseline.get(series.getKey()));
+            if (before.length < minBaseline) {
+                continue;
+            }
+            compared++;
+            float[] now = values(series.getValue());
+            double beforeMedian = median(before);
+            double nowMedian = median(now);
+            if (nowMedian <= beforeMedian * (1 + minIncrease)) {
+                continue;
+            }
+            double p = MannWhitney.greaterPValue(now, before);
+            if (p < alpha) {
+                regressions.add(new Regression(store.series(series.getKey()), before.length, now.length, beforeMedian, nowMedian, p));
+            }
+        }
+        regressions.sort(Comparator.comparingDouble(Regression::ratio).reversed());
+        return new TrendReport(store.run(latest), latest - firstBaselineRun, indexed, compared, regressions);
+    }
+
+    public String summary() {
+        if (latestRun == null) {
+            return "Latency trend: no runs indexed";
+        }
+        StringBuilder out = new StringBuilder(String.format("Latency trend: indexed %d results; run %s vs %d baseline runs, "
+                + "%d series compared, %d regressions", indexed, latestRun, baselineRuns, seriesCompared, regressions.size()));
+        for (Regression regression : regressions) {
+            out.append(String.format("%n  %-60s %9.2f ms -> %9.2f ms (x%.2f, p=%.4f, n=%d/%d)", regression.series(),
+                    regression.baselineMedianMillis(), regression.latestMedianMillis(), regression.ratio(),
+                    regression.pValue(), regression.latestSamples(), regression.baselineSamples()));
+        }
+        return out.toString();
+    }
+
+    private static float[] values(List<Float> samples) {
+        if (samples == null) {
+            return new float[0];
+        }
+        float[] values = new float[samples.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = samples.get(i);
+        }
+        return values;
+    }
+
+    private static double median(float[] values) {
+        float[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+}
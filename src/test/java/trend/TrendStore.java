@@ -0,0 +1,260 @@
+package trend;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only columnar history of test and endpoint durations, one row per sample:
+ * <ul>
+ *     <li>{@code run.col} and {@code series.col}: int32 indexes into {@code runs.tsv} and {@code series.tsv};</li>
+ *     <li>{@code millis.col}: float32 duration; {@code status.col}: int8 Allure status.</li>
+ * </ul>
+ * Rows are appended in run order, so the rows of the last N runs are a suffix found by binary search on
+ * {@code run.col}; reading a baseline never touches older history. {@code watermark} records how far the
+ * results directory has been indexed. A batch is written dictionaries first, then columns, then the watermark;
+ * columns left uneven by an interrupted write are cut back to the shortest one on open.
+ */
+public final class TrendStore implements Closeable {
+    public static final byte PASSED = 0;
+    public static final byte FAILED = 1;
+    public static final byte BROKEN = 2;
+    public static final byte SKIPPED = 3;
+
+    private final Path dir;
+    private final List<String> runs = new ArrayList<>();
+    private final Map<String, Integer> runIndex = new HashMap<>();
+    private final List<String> series = new ArrayList<>();
+    private final Map<String, Integer> seriesIndex = new HashMap<>();
+    private final List<String> newRuns = new ArrayList<>();
+    private final List<String> newSeries = new ArrayList<>();
+    private final FileChannel runColumn;
+    private final FileChannel seriesColumn;
+    private final FileChannel millisColumn;
+    private final FileChannel statusColumn;
+    private ByteBuffer pending = ByteBuffer.allocate(0);
+    private int pendingRows;
+    private long watermark;
+    private Set<String> watermarkNames = new HashSet<>();
+
+    public TrendStore(Path dir) {
+        this.dir = dir;
+        try {
+            Files.createDirectories(dir);
+            load(dir.resolve("runs.tsv"), runs, runIndex);
+            load(dir.resolve("series.tsv"), series, seriesIndex);
+            Path mark = dir.resolve("watermark");
+            if (Files.exists(mark)) {
+                List<String> lines = Files.readAllLines(mark, StandardCharsets.UTF_8);
+                watermark = Long.parseLong(lines.getFirst());
+                watermarkNames = new HashSet<>(lines.subList(1, lines.size()));
+            }
+            runColumn = open("run.col");
+            seriesColumn = open("series.col");
+            millisColumn = open("millis.col");
+            statusColumn = open("status.col");
+            long rows = Math.min(Math.min(runColumn.size() / 4, seriesColumn.size() / 4),
+                    Math.min(millisColumn.size() / 4, statusColumn.size()));
+            runColumn.truncate(rows * 4);
+            seriesColumn.truncate(rows * 4);
+            millisColumn.truncate(rows * 4);
+            statusColumn.truncate(rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the trend store in " + dir, e);
+        }
+    }
+
+    public Path dir() {
+        return dir;
+    }
+
+    public long watermark() {
+        return watermark;
+    }
+
+    /**
+     * Result files whose modification time equals {@link #watermark()}; they are indexed already.
+     */
+    public Set<String> watermarkNames() {
+        return watermarkNames;
+    }
+
+    public int runCount() {
+        return runs.size();
+    }
+
+    public String run(int index) {
+        return runs.get(index);
+    }
+
+    /**
+     * Index of a known run, or -1.
+     */
+    public int runIndex(String runId) {
+        return runIndex.getOrDefault(runId, -1);
+    }
+
+    public int addRun(String runId) {
+        return runIndex.computeIfAbsent(runId, id -> {
+            runs.add(id);
+            newRuns.add(id);
+            return runs.size() - 1;
+        });
+    }
+
+    public String series(int index) {
+        return series.get(index);
+    }
+
+    public void append(int run, String seriesName, float millis, byte status) {
+        int seriesId = seriesIndex.computeIfAbsent(seriesName, name -> {
+            series.add(name);
+            newSeries.add(name);
+            return series.size() - 1;
+        });
+        if (pending.remaining() < 13) {
+            pending = ByteBuffer.allocate(Math.max(1024, pending.capacity() * 2)).put(pending.flip());
+        }
+        pending.putInt(run).putInt(seriesId).putFloat(millis).put(status);
+        pendingRows++;
+    }
+
+    /**
+     * Writes the appended rows and moves the watermark.
+     */
+    public void commit(long newWatermark, Set<String> newWatermarkNames) {
+        try {
+            appendLines(dir.resolve("runs.tsv"), newRuns);
+            appendLines(dir.resolve("series.tsv"), newSeries);
+            newRuns.clear();
+            newSeries.clear();
+
+            ByteBuffer rows = pending.flip();
+            ByteBuffer runBytes = ByteBuffer.allocate(pendingRows * 4);
+            ByteBuffer seriesBytes = ByteBuffer.allocate(pendingRows * 4);
+            ByteBuffer millisBytes = ByteBuffer.allocate(pendingRows * 4);
+            ByteBuffer statusBytes = ByteBuffer.allocate(pendingRows);
+            while (rows.hasRemaining()) {
+                runBytes.putInt(rows.getInt());
+                seriesBytes.putInt(rows.getInt());
+                millisBytes.putFloat(rows.getFloat());
+                statusBytes.put(rows.get());
+            }
+            write(runColumn, runBytes);
+            write(seriesColumn, seriesBytes);
+            write(millisColumn, millisBytes);
+            write(statusColumn, statusBytes);
+            pending.clear();
+            pendingRows = 0;
+
+            List<String> mark = new ArrayList<>();
+            mark.add(Long.toString(newWatermark));
+            mark.addAll(newWatermarkNames);
+            Path temporary = dir.resolve("watermark.tmp");
+            Files.write(temporary, mark, StandardCharsets.UTF_8);
+            Files.move(temporary, dir.resolve("watermark"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            watermark = newWatermark;
+            watermarkNames = new HashSet<>(newWatermarkNames);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to the trend store in " + dir, e);
+        }
+    }
+
+    /**
+     * Read-only view of the committed rows, memory-mapped.
+     */
+    public Columns columns() {
+        try {
+            return new Columns(map(runColumn).asIntBuffer(), map(seriesColumn).asIntBuffer(),
+                    map(millisColumn).asFloatBuffer(), map(statusColumn));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map the trend store in " + dir, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (FileChannel channel : List.of(runColumn, seriesColumn, millisColumn, statusColumn)) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // read-only from here on; nothing to flush
+            }
+        }
+    }
+
+    private FileChannel open(String name) throws IOException {
+        return FileChannel.open(dir.resolve(name), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    private static void write(FileChannel channel, ByteBuffer bytes) throws IOException {
+        bytes.flip();
+        long position = channel.size();
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+
+    private static void load(Path file, List<String> values, Map<String, Integer> index) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            index.put(line, values.size());
+            values.add(line);
+        }
+    }
+
+    private static void appendLines(Path file, List<String> lines) throws IOException {
+        if (!lines.isEmpty()) {
+            Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * The four columns of the committed rows.
+     */
+    public record Columns(IntBuffer run, IntBuffer series, FloatBuffer millis, ByteBuffer status) {
+
+        public int rows() {
+            return run.limit();
+        }
+
+        /**
+         * First row belonging to {@code runIndex} or a later run.
+         */
+        public int firstRowOf(int runIndex) {
+            int low = 0;
+            int high = rows();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (run.get(mid) < runIndex) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
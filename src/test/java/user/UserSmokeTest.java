@@ -1,23 +1,33 @@
 package user;
 
+import auth.TokenManager;
+import auth.Tokens;
 import base.BaseTest;
+import base.Config;
+import context.TestData;
+import POJO.RequestLogin;
 import POJO.User;
 import io.qameta.allure.*;
+import client.ResponseCache;
+import crawler.CatalogCrawler;
+import crawler.CrawlStats;
+import fixture.Fixtures;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import latency.LatencySlo;
 import org.junit.jupiter.api.DisplayName;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Epic("User Management")
 @Feature("User CRUD Operations")
 public class UserSmokeTest extends BaseTest {
 
-    private int createdUserId;
-
     @Test(priority = 1)
     @DisplayName("Get All Users")
     @Description("Ensure all users are retrieved successfully with valid structure and data")
@@ -26,10 +36,8 @@ public class UserSmokeTest extends BaseTest {
         Response response = RestAssured.given(Spec)
                 .contentType(ContentType.JSON)
                 .get("/users/");
-        response.prettyPrint();
 
         Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Assert.assertTrue(response.time() < 2000, "Response time should be < 2000ms");
 
         List<Object> users = response.jsonPath().getList("");
         Assert.assertNotNull(users, "Response is not an array");
@@ -42,7 +50,7 @@ public class UserSmokeTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     public void createUser() {
         User user = new User(
-                "H" + System.currentTimeMillis() + "@gmail.com",
+                TestData.uniqueEmail("H"),
                 "H123456",
                 "Mostafa",
                 "hamed.png"
@@ -52,10 +60,9 @@ public class UserSmokeTest extends BaseTest {
                 .contentType(ContentType.JSON)
                 .body(user)
                 .post("/users/");
-        response.prettyPrint();
 
         User responseUser = response.as(User.class);
-        createdUserId = responseUser.getId();
+        scenario.put("createdUserId", responseUser.getId());
 
         Assert.assertEquals(response.getStatusCode(), 201, "Status code should be 201");
         Assert.assertEquals(responseUser.getRole(), "customer", "Role should be 'customer'");
@@ -68,13 +75,11 @@ public class UserSmokeTest extends BaseTest {
     public void getUserById() {
         Response response = RestAssured.given(Spec)
                 .contentType(ContentType.JSON)
-                .get("/users/" + createdUserId);
-        response.prettyPrint();
+                .get("/users/" + scenario.get("createdUserId"));
 
         User responseUser = response.as(User.class);
 
         Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Assert.assertTrue(response.time() < 2000, "Response time should be < 2000ms");
         Assert.assertEquals(responseUser.getName(), "Mostafa", "Name should match");
         Assert.assertEquals(responseUser.getAvatar(), "hamed.png", "Avatar should match");
     }
@@ -90,11 +95,9 @@ public class UserSmokeTest extends BaseTest {
         Response response = RestAssured.given(Spec)
                 .contentType(ContentType.JSON)
                 .body(updatedUser)
-                .put("/users/" + createdUserId);
-        response.prettyPrint();
+                .put("/users/" + scenario.get("createdUserId"));
 
         Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Assert.assertTrue(response.time() < 2000, "Response time should be < 2000ms");
 
         Assert.assertEquals(response.jsonPath().getString("email"), updatedUser.getEmail(), "Email should match");
         Assert.assertEquals(response.jsonPath().getString("password"), updatedUser.getPassword(), "Password should match");
@@ -108,11 +111,68 @@ public class UserSmokeTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     public void deleteUser() {
         Response response = RestAssured.given(Spec)
-                .delete("/users/" + createdUserId);
-        response.prettyPrint();
+                .delete("/users/" + scenario.get("createdUserId"));
 
         Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Assert.assertTrue(response.time() < 2000, "Response time should be < 2000ms");
         Assert.assertEquals(response.getBody().asString(), "true", "Response body should be 'true'");
     }
+
+    @Test
+    @DisplayName("Access Profile with Managed Token")
+    @Description("Verify the token manager attaches a bearer token and renews it through the refresh-token endpoint")
+    @Severity(SeverityLevel.CRITICAL)
+    public void accessProfileWithManagedToken() {
+        User user = Fixtures.get().users().checkout();
+        RequestLogin login = new RequestLogin(user.getEmail(), user.getPassword());
+        try {
+            Response response = RestAssured.given(Spec)
+                    .filter(TokenManager.shared().bearer(login))
+                    .get("/auth/profile");
+            Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
+            Assert.assertEquals(response.jsonPath().getInt("id"), user.getId(), "Profile ID should match the user ID");
+
+            String previous = TokenManager.shared().accessToken(login);
+            Tokens renewed = TokenManager.shared().renew(login);
+            Assert.assertNotEquals(renewed.accessToken(), previous, "Renewal should issue a new access token");
+
+            response = RestAssured.given(Spec)
+                    .filter(TokenManager.shared().bearer(login))
+                    .get("/auth/profile");
+            Assert.assertEquals(response.getStatusCode(), 200, "Renewed token should be accepted");
+        } finally {
+            Fixtures.get().users().checkin(user);
+        }
+    }
+
+    @Test(dependsOnMethods = "getAllUsers")
+    @DisplayName("Users Latency SLO")
+    @Description("Sample GET /users/ repeatedly and verify its p95/p99 latency objectives")
+    @Severity(SeverityLevel.NORMAL)
+    public void getAllUsersLatencySlo() {
+        LatencySlo.forEndpoint("GET /users")
+                .percentile(95, Duration.ofMillis(2000))
+                .percentile(99, Duration.ofMillis(3000))
+                .verify(() -> RestAssured.given(Spec).header(ResponseCache.NO_CACHE).get("/users/"));
+    }
+
+    @Test(dependsOnMethods = "getAllUsers")
+    @DisplayName("Crawl Users")
+    @Description("Page through /users/ with concurrent offset/limit requests; against the local stand-in, verify pages do not overlap")
+    @Severity(SeverityLevel.NORMAL)
+    public void crawlUsers() {
+        CatalogCrawler<User> crawler = CatalogCrawler.of("/users/", User.class, User::getId).pageSize(10);
+        long crawled;
+        try (Stream<User> users = crawler.stream()) {
+            crawled = users.filter(user -> user.getEmail() != null).count();
+        }
+        CrawlStats stats = crawler.stats();
+        Allure.addAttachment("Crawl stats", stats.toString());
+
+        Assert.assertTrue(crawled > 0, "No users crawled");
+        // Only the local stand-in lists by ascending id, so creates during the crawl append past it; the shared API
+        // moves under the crawler. Gaps and items skipped after a delete are reported in the stats, not asserted.
+        if (Config.isLocal()) {
+            Assert.assertEquals(stats.duplicates(), 0, "Pages overlap: " + stats);
+        }
+    }
 }
@@ -0,0 +1,112 @@
+package validation;
+
+import base.Config;
+import client.SuiteClient;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.testng.Assert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Validates a JSON array response one element at a time, so memory stays bounded by the size of a
+ * single element no matter how long the array is. Checking stops at the first failing element:
+ * <pre>
+ * StreamingArrayAssertion.elementsOf(Product.class)
+ *         .each("category.id == " + categoryId, product -> product.getCategory().getId() == categoryId)
+ *         .verifyGet("/products/?categoryId=" + categoryId);
+ * </pre>
+ */
+public class StreamingArrayAssertion<T> {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON = MAPPER.getFactory();
+
+    private final Class<T> type;
+    private final ObjectReader reader;
+    private final List<Check<T>> checks = new ArrayList<>();
+    private boolean requireNonEmpty;
+
+    private StreamingArrayAssertion(Class<T> type) {
+        this.type = type;
+        this.reader = MAPPER.readerFor(type);
+    }
+
+    public static <T> StreamingArrayAssertion<T> elementsOf(Class<T> type) {
+        return new StreamingArrayAssertion<>(type);
+    }
+
+    public StreamingArrayAssertion<T> each(String description, Predicate<? super T> predicate) {
+        checks.add(new Check<>(description, predicate));
+        return this;
+    }
+
+    public StreamingArrayAssertion<T> notEmpty() {
+        requireNonEmpty = true;
+        return this;
+    }
+
+    /**
+     * GETs {@code pathAndQuery} relative to the API base URI through the suite connection pool,
+     * asserts a 200 status and streams the body through the checks. Returns the element count.
+     */
+    public long verifyGet(String pathAndQuery) {
+        try {
+            return SuiteClient.get().stream(Config.baseUri() + pathAndQuery, (status, body) -> {
+                Assert.assertEquals(status, 200, "Status code should be 200");
+                return verify(body);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not stream " + pathAndQuery, e);
+        }
+    }
+
+    public long verify(InputStream body) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            Assert.assertEquals(parser.nextToken(), JsonToken.START_ARRAY, "Response is not an array");
+            long index = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                Assert.assertEquals(token, JsonToken.START_OBJECT, "Element #" + index + " is not an object");
+                T element = reader.readValue(parser);
+                for (Check<T> check : checks) {
+                    if (!check.test(element)) {
+                        Assert.fail("Element #" + index + " failed '" + check.description() + "': " + describe(element));
+                    }
+                }
+                index++;
+            }
+            if (requireNonEmpty) {
+                Assert.assertTrue(index > 0, "Array is empty");
+            }
+            return index;
+        }
+    }
+
+    private String describe(T element) {
+        try {
+            return MAPPER.writeValueAsString(element);
+        } catch (JsonProcessingException e) {
+            return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(element));
+        }
+    }
+
+    private record Check<T>(String description, Predicate<? super T> predicate) {
+
+        boolean test(T element) {
+            try {
+                return predicate.test(element);
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+// Subset of the Postman sandbox used by PlatziFakeStore.postman_collection.json: pm.test/pm.expect with
+// chai-style chains, pm.response, pm.request and the variable scopes. `host` is a postman.ScriptHost.
+function createPm(host) {
+    function fail(message) {
+        var error = new Error(message);
+        error.name = 'AssertionError';
+        throw error;
+    }
+
+    function typeOf(value) {
+        if (value === null) {
+            return 'null';
+        }
+        return Array.isArray(value) ? 'array' : typeof value;
+    }
+
+    function show(value) {
+        if (typeof value === 'string') {
+            return "'" + value + "'";
+        }
+        try {
+            return JSON.stringify(value);
+        } catch (e) {
+            return String(value);
+        }
+    }
+
+    function deepEqual(a, b) {
+        if (a === b) {
+            return true;
+        }
+        if (typeOf(a) !== typeOf(b) || typeof a !== 'object' || a === null) {
+            return typeof a === 'number' && typeof b === 'number' && isNaN(a) && isNaN(b);
+        }
+        if (Array.isArray(a)) {
+            return a.length === b.length && a.every(function (item, i) { return deepEqual(item, b[i]); });
+        }
+        var keys = Object.keys(a);
+        return keys.length === Object.keys(b).length && keys.every(function (key) {
+            return Object.prototype.hasOwnProperty.call(b, key) && deepEqual(a[key], b[key]);
+        });
+    }
+
+    function Assertion(subject, message) {
+        this.subject = subject;
+        this.message = message;
+        this.negated = false;
+        this.deepFlag = false;
+        this.anyKeys = false;
+    }
+
+    ['to', 'be', 'been', 'is', 'that', 'which', 'and', 'has', 'have', 'with', 'at', 'of', 'same', 'does', 'still', 'also']
+        .forEach(function (word) {
+            Object.defineProperty(Assertion.prototype, word, { get: function () { return this; } });
+        });
+    Object.defineProperty(Assertion.prototype, 'not', { get: function () { this.negated = !this.negated; return this; } });
+    Object.defineProperty(Assertion.prototype, 'deep', { get: function () { this.deepFlag = true; return this; } });
+    Object.defineProperty(Assertion.prototype, 'any', { get: function () { this.anyKeys = true; return this; } });
+    Object.defineProperty(Assertion.prototype, 'all', { get: function () { this.anyKeys = false; return this; } });
+
+    Assertion.prototype.check = function (passed, expectation) {
+        if (passed === this.negated) {
+            fail((this.message ? this.message + ': ' : '') + 'expected ' + show(this.subject)
+                + (this.negated ? ' not ' : ' ') + expectation);
+        }
+        return this;
+    };
+
+    function flag(name, test) {
+        Object.defineProperty(Assertion.prototype, name, {
+            get: function () { return this.check(test(this.subject), 'to be ' + name); }
+        });
+    }
+    flag('true', function (v) { return v === true; });
+    flag('false', function (v) { return v === false; });
+    flag('null', function (v) { return v === null; });
+    flag('undefined', function (v) { return v === undefined; });
+    flag('ok', function (v) { return !!v; });
+    flag('exist', function (v) { return v !== null && v !== undefined; });
+    flag('empty', function (v) {
+        return typeOf(v) === 'object' ? Object.keys(v).length === 0 : v.length === 0;
+    });
+
+    Assertion.prototype.eql = function (expected) {
+        return this.check(deepEqual(this.subject, expected), 'to deeply equal ' + show(expected));
+    };
+    Assertion.prototype.eqls = Assertion.prototype.eql;
+    Assertion.prototype.equal = function (expected) {
+        return this.deepFlag ? this.eql(expected) : this.check(this.subject === expected, 'to equal ' + show(expected));
+    };
+    Assertion.prototype.equals = Assertion.prototype.equal;
+    Assertion.prototype.eq = Assertion.prototype.equal;
+
+    Assertion.prototype.a = function (type) {
+        return this.check(typeOf(this.subject) === String(type).toLowerCase(), 'to be a ' + type);
+    };
+    Assertion.prototype.an = Assertion.prototype.a;
+
+    Assertion.prototype.property = function (name, value) {
+        var subject = this.subject;
+        var has = subject !== null && subject !== undefined && Object(subject)[name] !== undefined;
+        if (arguments.length > 1) {
+            this.check(has && deepEqual(subject[name], value), 'to have property ' + show(name) + ' of ' + show(value));
+        } else {
+            this.check(has, 'to have property ' + show(name));
+        }
+        if (has && !this.negated) {
+            this.subject = subject[name];
+        }
+        return this;
+    };
+
+    Assertion.prototype.include = function (expected) {
+        var subject = this.subject;
+        var deep = this.deepFlag;
+        var passed;
+        if (typeof subject === 'string') {
+            passed = subject.indexOf(expected) >= 0;
+        } else if (Array.isArray(subject)) {
+            passed = subject.some(function (item) { return deep ? deepEqual(item, expected) : item === expected; });
+        } else if (typeOf(subject) === 'object' && typeOf(expected) === 'object') {
+            passed = Object.keys(expected).every(function (key) {
+                return deep ? deepEqual(subject[key], expected[key]) : subject[key] === expected[key];
+            });
+        } else {
+            passed = false;
+        }
+        return this.check(passed, 'to include ' + show(expected));
+    };
+    Assertion.prototype.includes = Assertion.prototype.include;
+    Assertion.prototype.contain = Assertion.prototype.include;
+    Assertion.prototype.contains = Assertion.prototype.include;
+
+    Assertion.prototype.above = function (n) { return this.check(this.subject > n, 'to be above ' + n); };
+    Assertion.prototype.gt = Assertion.prototype.above;
+    Assertion.prototype.greaterThan = Assertion.prototype.above;
+    Assertion.prototype.least = function (n) { return this.check(this.subject >= n, 'to be at least ' + n); };
+    Assertion.prototype.gte = Assertion.prototype.least;
+    Assertion.prototype.below = function (n) { return this.check(this.subject < n, 'to be below ' + n); };
+    Assertion.prototype.lt = Assertion.prototype.below;
+    Assertion.prototype.lessThan = Assertion.prototype.below;
+    Assertion.prototype.most = function (n) { return this.check(this.subject <= n, 'to be at most ' + n); };
+    Assertion.prototype.lte = Assertion.prototype.most;
+    Assertion.prototype.within = function (low, high) {
+        return this.check(this.subject >= low && this.subject <= high, 'to be within ' + low + '..' + high);
+    };
+    Assertion.prototype.lengthOf = function (n) {
+        return this.check(this.subject !== null && this.subject !== undefined && this.subject.length === n, 'to have length ' + n);
+    };
+    Assertion.prototype.match = function (pattern) { return this.check(pattern.test(this.subject), 'to match ' + pattern); };
+    Assertion.prototype.oneOf = function (list) {
+        return this.check(list.indexOf(this.subject) >= 0, 'to be one of ' + show(list));
+    };
+    Assertion.prototype.keys = function () {
+        var expected = Array.isArray(arguments[0]) ? arguments[0]
+            : typeOf(arguments[0]) === 'object' ? Object.keys(arguments[0]) : Array.prototype.slice.call(arguments);
+        var actual = typeOf(this.subject) === 'object' ? Object.keys(this.subject) : [];
+        var passed = this.anyKeys
+            ? expected.some(function (key) { return actual.indexOf(key) >= 0; })
+            : expected.length === actual.length && expected.every(function (key) { return actual.indexOf(key) >= 0; });
+        return this.check(passed, 'to have ' + (this.anyKeys ? 'any' : 'all') + ' keys ' + show(expected));
+    };
+    Assertion.prototype.key = Assertion.prototype.keys;
+
+    function scope(name) {
+        return {
+            get: function (key) {
+                var value = host.get(name, key);
+                return value === null ? undefined : value;
+            },
+            set: function (key, value) {
+                host.set(name, key, value === undefined || value === null ? null
+                    : typeof value === 'object' ? JSON.stringify(value) : value);
+            },
+            unset: function (key) { host.set(name, key, null); },
+            has: function (key) { return host.get(name, key) !== null; }
+        };
+    }
+
+    var query = JSON.parse(host.requestQuery());
+    query.get = function (key) {
+        var param = this.find(function (q) { return q.key === key; });
+        return param ? param.value : undefined;
+    };
+    query.all = function () { return this.slice(); };
+
+    var pm = {
+        info: { requestName: host.requestName(), eventName: host.eventName(), iteration: 0 },
+        environment: scope('environment'),
+        collectionVariables: scope('collection'),
+        globals: scope('globals'),
+        variables: scope('variables'),
+        request: {
+            method: host.requestMethod(),
+            url: { query: query, toString: function () { return host.requestUrl(); } },
+            headers: { get: function (name) { var v = host.requestHeader(name); return v === null ? undefined : v; } },
+            body: { raw: host.requestBody() }
+        },
+        test: function (name, fn) {
+            try {
+                fn();
+                host.pass(name);
+            } catch (e) {
+                host.fail(name, e && e.message ? e.message : String(e));
+            }
+        },
+        expect: function (subject, message) {
+            return new Assertion(subject, message);
+        }
+    };
+
+    if (host.hasResponse()) {
+        var response = {
+            code: host.status(),
+            status: host.statusText(),
+            responseTime: host.responseTime(),
+            responseSize: host.responseSize(),
+            text: function () { return host.responseText(); },
+            json: function () { return JSON.parse(host.responseText()); },
+            headers: {
+                get: function (name) { var v = host.responseHeader(name); return v === null ? undefined : v; },
+                has: function (name) { return host.responseHeader(name) !== null; }
+            }
+        };
+        var expectation = { negated: false };
+        function responseCheck(passed, text) {
+            var negated = expectation.negated;
+            expectation.negated = false;
+            if (passed === negated) {
+                fail('expected response' + (negated ? ' not ' : ' ') + text);
+            }
+        }
+        ['to', 'have', 'be', 'and'].forEach(function (word) {
+            Object.defineProperty(expectation, word, { get: function () { return expectation; } });
+        });
+        Object.defineProperty(expectation, 'not', { get: function () { expectation.negated = !expectation.negated; return expectation; } });
+        expectation.status = function (code) {
+            if (typeof code === 'number') {
+                responseCheck(response.code === code, 'to have status code ' + code + ' but got ' + response.code);
+            } else {
+                responseCheck(response.status === code, 'to have status reason ' + code + ' but got ' + response.status);
+            }
+        };
+        expectation.header = function (name, value) {
+            var actual = response.headers.get(name);
+            responseCheck(actual !== undefined && (value === undefined || actual === value),
+                'to have header ' + name + (value === undefined ? '' : ' with value ' + value));
+        };
+        expectation.jsonBody = function () {
+            try { response.json(); responseCheck(true, 'to have a JSON body'); } catch (e) { responseCheck(false, 'to have a JSON body'); }
+        };
+        Object.defineProperty(expectation, 'ok', { get: function () { responseCheck(response.code >= 200 && response.code < 300, 'to be ok'); } });
+        Object.defineProperty(expectation, 'success', { get: function () { responseCheck(response.code >= 200 && response.code < 300, 'to be success'); } });
+        Object.defineProperty(expectation, 'clientError', { get: function () { responseCheck(response.code >= 400 && response.code < 500, 'to be a client error'); } });
+        Object.defineProperty(expectation, 'serverError', { get: function () { responseCheck(response.code >= 500, 'to be a server error'); } });
+        Object.defineProperty(expectation, 'json', { get: function () { expectation.jsonBody(); } });
+        response.to = expectation;
+        pm.response = response;
+    }
+    return pm;
+}
+
+// Stand-ins for Date and Math that read the time and random values from a postman.ScriptEntropy.
+function pinnedDate(entropy) {
+    function PinnedDate() {
+        if (arguments.length > 0) {
+            return new (Function.prototype.bind.apply(Date, [null].concat(Array.prototype.slice.call(arguments))))();
+        }
+        return new Date(entropy.now());
+    }
+    PinnedDate.prototype = Date.prototype;
+    PinnedDate.now = function () { return entropy.now(); };
+    PinnedDate.parse = Date.parse;
+    PinnedDate.UTC = Date.UTC;
+    return PinnedDate;
+}
+
+function pinnedMath(entropy) {
+    var pinned = Object.create(Math);
+    pinned.random = function () { return entropy.random(); };
+    return pinned;
+}